@@ -0,0 +1,54 @@
+package com.edunex.edunex_lms.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Courses by ID */
+    public static final String COURSES = "courses";
+
+    /** Course lists and the category list, evicted as a whole on any course write */
+    public static final String COURSE_CATALOGUE = "courseCatalogue";
+
+    @Value("${cache.courses.max-size:2000}")
+    private long coursesMaxSize;
+
+    @Value("${cache.courses.ttl-ms:600000}")
+    private long coursesTtlMs;
+
+    @Value("${cache.course-catalogue.ttl-ms:300000}")
+    private long catalogueTtlMs;
+
+    /**
+     * Bounded Caffeine caches recording hit and miss statistics, which the actuator publishes as cache metrics
+     * Puts and evictions made inside a transaction are applied once it commits, so a read racing the write
+     * cannot put the old row back after it was evicted
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setAllowNullValues(false);
+        caffeine.registerCustomCache(COURSES, Caffeine.newBuilder()
+            .maximumSize(coursesMaxSize)
+            .expireAfterWrite(Duration.ofMillis(coursesTtlMs))
+            .recordStats()
+            .build());
+        caffeine.registerCustomCache(COURSE_CATALOGUE, Caffeine.newBuilder()
+            .maximumSize(16)
+            .expireAfterWrite(Duration.ofMillis(catalogueTtlMs))
+            .recordStats()
+            .build());
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
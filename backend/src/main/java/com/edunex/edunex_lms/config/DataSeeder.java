@@ -22,6 +22,7 @@ public class DataSeeder implements CommandLineRunner {
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final AssignmentRepository assignmentRepository;
+    private final SubmissionRepository submissionRepository;
     private final AttendanceRepository attendanceRepository;
     private final PasswordEncoder passwordEncoder;
     
@@ -198,19 +199,16 @@ public class DataSeeder implements CommandLineRunner {
             Assignment assignment = assignments.get(i);
             for (int j = 0; j < Math.min(3, students.size()); j++) {
                 User student = students.get(j);
-                Assignment submission = new Assignment();
-                submission.setCourse(assignment.getCourse());
-                submission.setTitle(assignment.getTitle());
-                submission.setDescription(assignment.getDescription());
-                submission.setDueDate(assignment.getDueDate());
-                submission.setMaxMarks(assignment.getMaxMarks());
+                Submission submission = new Submission();
+                submission.setAssignment(assignment);
                 submission.setStudent(student);
                 submission.setSubmissionUrl("https://example.com/submissions/file" + i + "_" + j + ".pdf");
                 submission.setSubmittedAt(LocalDateTime.now().minusDays(2));
                 submission.setMarksObtained((int)(70 + Math.random() * 30)); // 70-100
                 submission.setFeedback("Good work! " + (submission.getMarksObtained() >= 85 ? "Excellent understanding." : "Keep practicing."));
                 submission.setStatus(Assignment.SubmissionStatus.GRADED);
-                assignmentRepository.save(submission);
+                submission.setGradedAt(LocalDateTime.now().minusDays(1));
+                submissionRepository.save(submission);
             }
         }
     }
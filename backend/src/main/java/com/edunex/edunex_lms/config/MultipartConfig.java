@@ -0,0 +1,27 @@
+package com.edunex.edunex_lms.config;
+
+import com.edunex.edunex_lms.service.BlobStorageService;
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@EnableConfigurationProperties(MultipartProperties.class)
+public class MultipartConfig {
+
+    /**
+     * Spool multipart uploads into the blob store staging directory unless a location is configured,
+     * so stored files are moved into place rather than copied out of the container's temp directory
+     */
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties properties,
+                                                         BlobStorageService blobStorageService) {
+        if (!StringUtils.hasText(properties.getLocation())) {
+            properties.setLocation(blobStorageService.getIncomingDir().toString());
+        }
+        return properties.createMultipartConfig();
+    }
+}
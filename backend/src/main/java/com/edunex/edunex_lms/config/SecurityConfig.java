@@ -3,6 +3,7 @@ package com.edunex.edunex_lms.config;
 import com.edunex.edunex_lms.security.AuthEntryPointJwt;
 import com.edunex.edunex_lms.security.AuthTokenFilter;
 import com.edunex.edunex_lms.security.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -81,10 +82,13 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/api/auth/login").permitAll()
+                // Completion of an event stream is an async dispatch of a request that was already authorized
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/api/auth/login").permitAll()
                     .requestMatchers("/api/auth/register").hasRole("ADMIN")
                     .requestMatchers("/error").permitAll()
                     .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                    .requestMatchers("/actuator/metrics/**", "/actuator/caches/**").hasRole("ADMIN")
                     .requestMatchers("/api/instructor/**").hasAnyRole("ADMIN", "INSTRUCTOR")
                     .requestMatchers("/api/courses/**").hasAnyRole("ADMIN", "INSTRUCTOR")
                     .requestMatchers("/api/assignments/**").hasAnyRole("ADMIN", "INSTRUCTOR", "STUDENT")
@@ -1,30 +1,66 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.config.CacheConfig;
+import com.edunex.edunex_lms.dto.ActivityLogItem;
+import com.edunex.edunex_lms.dto.CourseEnrollmentCount;
+import com.edunex.edunex_lms.dto.CourseListItem;
+import com.edunex.edunex_lms.dto.CourseResponse;
+import com.edunex.edunex_lms.dto.EnrollmentResponse;
+import com.edunex.edunex_lms.dto.FileRef;
+import com.edunex.edunex_lms.dto.PageResponse;
+import com.edunex.edunex_lms.dto.UserBrief;
+import com.edunex.edunex_lms.dto.UserResponse;
+import com.edunex.edunex_lms.dto.UserSummary;
 import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.User;
-import com.edunex.edunex_lms.entity.Enrollment;
-import com.edunex.edunex_lms.entity.ActivityLog;
 import com.edunex.edunex_lms.exception.ResourceNotFoundException;
 import com.edunex.edunex_lms.exception.InvalidOperationException;
-import com.edunex.edunex_lms.repository.AssignmentRepository;
 import com.edunex.edunex_lms.repository.AttendanceRepository;
+import com.edunex.edunex_lms.repository.AttendanceSummaryRepository;
 import com.edunex.edunex_lms.repository.CourseRepository;
 import com.edunex.edunex_lms.repository.EnrollmentRepository;
+import com.edunex.edunex_lms.repository.SubmissionRepository;
 import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.security.UserDetailsImpl;
+import com.edunex.edunex_lms.security.UserRevocationRegistry;
 import com.edunex.edunex_lms.service.ActivityLogService;
+import com.edunex.edunex_lms.service.AdminStatsService;
+import com.edunex.edunex_lms.service.AttendanceSummaryService;
+import com.edunex.edunex_lms.service.BlobStorageService;
+import com.edunex.edunex_lms.service.BulkUserImportService;
+import com.edunex.edunex_lms.service.CourseSearchService;
+import com.edunex.edunex_lms.service.EnrollmentService;
+import com.edunex.edunex_lms.service.EventStreamService;
+import com.edunex.edunex_lms.service.JsonStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -35,41 +71,68 @@ public class AdminController {
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final AssignmentRepository assignmentRepository;
     private final AttendanceRepository attendanceRepository;
+    private final SubmissionRepository submissionRepository;
+    private final AttendanceSummaryRepository attendanceSummaryRepository;
+    private final AttendanceSummaryService attendanceSummaryService;
     private final PasswordEncoder passwordEncoder;
     private final ActivityLogService activityLogService;
+    private final EventStreamService eventStreamService;
+    private final CourseSearchService courseSearchService;
+    private final UserRevocationRegistry revocationRegistry;
+    private final AdminStatsService adminStatsService;
+    private final BlobStorageService blobStorageService;
+    private final BulkUserImportService bulkUserImportService;
+    private final EnrollmentService enrollmentService;
+    private final JsonStreamService jsonStreamService;
+    
+    private static final int MAX_ACTIVITY_LIMIT = 200;
+    
+    @Value("${bulk.users.max-per-request:5000}")
+    private int maxBulkUsers;
     
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return ResponseEntity.ok(users);
+    public void getAllUsers(HttpServletResponse response) throws IOException {
+        jsonStreamService.writeArray(response, () -> userRepository.streamResponses(null), user -> user);
     }
     
     @GetMapping("/users/role/{role}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable String role) {
+    public void getUsersByRole(@PathVariable String role, HttpServletResponse response) throws IOException {
         User.Role userRole = User.Role.valueOf(role.toUpperCase());
-        List<User> users = userRepository.findByRole(userRole);
-        return ResponseEntity.ok(users);
+        jsonStreamService.writeArray(response, () -> userRepository.streamResponses(userRole), user -> user);
+    }
+    
+    @GetMapping("/users/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<UserSummary>> getUsersPage(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String search,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        User.Role userRole = StringUtils.hasText(role) ? User.Role.valueOf(role.toUpperCase()) : null;
+        Page<UserSummary> users = userRepository.findSummaries(userRole, enabled, toLikePattern(search), pageable);
+        return ResponseEntity.ok(PageResponse.from(users));
     }
     
     @PutMapping("/users/{id}/activate")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> activateUser(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> activateUser(@PathVariable Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         user.setEnabled(true);
         User savedUser = userRepository.save(user);
+        revocationRegistry.markEnabled(id);
+        adminStatsService.invalidate();
         activityLogService.logActivity("USER_ACTIVATED", "User " + user.getFullName() + " activated", 
             null, "User", id);
-        return ResponseEntity.ok(savedUser);
+        return ResponseEntity.ok(UserResponse.from(savedUser));
     }
     
     @PutMapping("/users/{id}/deactivate")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> deactivateUser(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> deactivateUser(@PathVariable Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
@@ -79,14 +142,16 @@ public class AdminController {
         
         user.setEnabled(false);
         User savedUser = userRepository.save(user);
+        revocationRegistry.markDisabled(id);
+        adminStatsService.invalidate();
         activityLogService.logActivity("USER_DEACTIVATED", "User " + user.getFullName() + " deactivated", 
             null, "User", id);
-        return ResponseEntity.ok(savedUser);
+        return ResponseEntity.ok(UserResponse.from(savedUser));
     }
     
     @PutMapping("/users/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> toggleUserStatus(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> toggleUserStatus(@PathVariable Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
@@ -96,13 +161,19 @@ public class AdminController {
         
         user.setEnabled(!user.getEnabled());
         User savedUser = userRepository.save(user);
+        if (savedUser.getEnabled()) {
+            revocationRegistry.markEnabled(id);
+        } else {
+            revocationRegistry.markDisabled(id);
+        }
+        adminStatsService.invalidate();
         
         String action = savedUser.getEnabled() ? "activated" : "deactivated";
         activityLogService.logActivity("USER_STATUS_CHANGED", 
             "User " + user.getFullName() + " " + action, 
             null, "User", id);
         
-        return ResponseEntity.ok(savedUser);
+        return ResponseEntity.ok(UserResponse.from(savedUser));
     }
     
     @DeleteMapping("/users/{id}")
@@ -119,8 +190,14 @@ public class AdminController {
         
         // Delete related records
         enrollmentRepository.deleteByStudentId(id);
+        List<FileRef> submittedFiles = submissionRepository.findFileRefsByStudentId(id);
+        submissionRepository.deleteByStudentId(id);
+        blobStorageService.releaseFiles(submittedFiles);
+        attendanceSummaryRepository.deleteByStudentId(id);
         attendanceRepository.deleteByStudentId(id);
         userRepository.deleteById(id);
+        revocationRegistry.markDisabled(id);
+        adminStatsService.invalidate();
         
         activityLogService.logActivity("USER_DELETED", "User " + userName + " deleted", 
             null, "User", id);
@@ -134,6 +211,8 @@ public class AdminController {
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody Map<String, Object> updateData) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        String previousUsername = user.getUsername();
+        User.Role previousRole = user.getRole();
         
         // Update fields if provided
         if (updateData.containsKey("username")) {
@@ -179,22 +258,37 @@ public class AdminController {
         
         User savedUser = userRepository.save(user);
         
+        // Issued tokens carry the old username and role
+        if (!savedUser.getUsername().equals(previousUsername) || savedUser.getRole() != previousRole) {
+            revocationRegistry.revokeExistingTokens(id);
+            adminStatsService.invalidate();
+        }
+        
         activityLogService.logActivity("USER_UPDATE", "User updated: " + savedUser.getFullName(),
             savedUser, "User", savedUser.getId());
         
-        return ResponseEntity.ok(savedUser);
+        return ResponseEntity.ok(UserResponse.from(savedUser));
+    }
+    
+    @PostMapping("/attendance/summaries/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildAttendanceSummaries() {
+        int rows = attendanceSummaryService.rebuild();
+        log.info("Rebuilt {} attendance summary rows", rows);
+        return ResponseEntity.ok(Map.of("success", true, "summaries", rows));
     }
     
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getSystemStats() {
-        long totalUsers = userRepository.count();
-        long students = userRepository.findByRole(User.Role.STUDENT).size();
-        long instructors = userRepository.findByRole(User.Role.INSTRUCTOR).size();
-        long admins = userRepository.findByRole(User.Role.ADMIN).size();
-        long totalCourses = courseRepository.count();
-        long totalEnrollments = enrollmentRepository.count();
-        long totalAssignments = assignmentRepository.count();
+        AdminStatsService.StatsSnapshot snapshot = adminStatsService.getSnapshot();
+        long totalUsers = snapshot.totalUsers();
+        long students = snapshot.usersWithRole(User.Role.STUDENT);
+        long instructors = snapshot.usersWithRole(User.Role.INSTRUCTOR);
+        long admins = snapshot.usersWithRole(User.Role.ADMIN);
+        long totalCourses = snapshot.totalCourses();
+        long totalEnrollments = snapshot.totalEnrollments();
+        long totalAssignments = snapshot.totalAssignments();
         
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalUsers", totalUsers);
@@ -212,6 +306,7 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Map<String, Object>>> getAllCourses() {
         List<Course> courses = courseRepository.findAll();
+        Map<Long, Long> enrollmentCounts = toCountMap(enrollmentRepository.countGroupedByCourse());
         
         List<Map<String, Object>> coursesWithEnrollments = courses.stream().map(course -> {
             Map<String, Object> courseData = new HashMap<>();
@@ -224,19 +319,40 @@ public class AdminController {
             courseData.put("credits", course.getCredits());
             courseData.put("maxStudents", course.getMaxStudents());
             courseData.put("isActive", course.getIsActive());
-            courseData.put("instructor", course.getInstructor());
+            courseData.put("instructor", UserBrief.from(course.getInstructor()));
             courseData.put("createdAt", course.getCreatedAt());
             courseData.put("updatedAt", course.getUpdatedAt());
-            courseData.put("enrollmentCount", enrollmentRepository.countByCourseId(course.getId()));
+            courseData.put("enrollmentCount", enrollmentCounts.getOrDefault(course.getId(), 0L));
             return courseData;
         }).toList();
         
         return ResponseEntity.ok(coursesWithEnrollments);
     }
     
+    @GetMapping("/courses/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<CourseListItem>> getCoursesPage(
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long instructorId,
+            @RequestParam(required = false) String search,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<CourseListItem> courses = courseRepository.findListItems(
+            active, StringUtils.hasText(category) ? category : null, instructorId, toLikePattern(search), pageable);
+        
+        List<Long> courseIds = courses.map(CourseListItem::getId).getContent();
+        if (!courseIds.isEmpty()) {
+            Map<Long, Long> enrollmentCounts = toCountMap(enrollmentRepository.countByCourseIds(courseIds));
+            courses.forEach(course -> course.setEnrollmentCount(enrollmentCounts.getOrDefault(course.getId(), 0L)));
+        }
+        
+        return ResponseEntity.ok(PageResponse.from(courses));
+    }
+    
     @PostMapping("/courses")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Course> createCourse(@RequestBody Map<String, Object> courseData) {
+    @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOGUE, allEntries = true)
+    public ResponseEntity<CourseResponse> createCourse(@RequestBody Map<String, Object> courseData) {
         String courseCode = (String) courseData.get("courseCode");
         String courseName = (String) courseData.get("courseName");
         String description = (String) courseData.get("description");
@@ -280,17 +396,23 @@ public class AdminController {
         course.setInstructor(instructor);
         
         Course savedCourse = courseRepository.save(course);
+        courseSearchService.indexAfterCommit(savedCourse);
+        adminStatsService.invalidate();
         
         activityLogService.logActivity("COURSE_CREATED", 
             "New course created: " + savedCourse.getCourseName(),
             savedCourse.getInstructor(), "Course", savedCourse.getId());
         
         log.info("Course created: {} by instructor: {}", savedCourse.getCourseCode(), instructor.getFullName());
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedCourse);
+        return ResponseEntity.status(HttpStatus.CREATED).body(CourseResponse.from(savedCourse));
     }
     
     @DeleteMapping("/courses/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOGUE, allEntries = true)
+    })
     public ResponseEntity<Map<String, Object>> deleteCourse(@PathVariable Long id) {
         Course course = courseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
@@ -298,6 +420,8 @@ public class AdminController {
         String courseName = course.getCourseName();
         enrollmentRepository.deleteByCourseId(id);
         courseRepository.deleteById(id);
+        courseSearchService.removeAfterCommit(id);
+        adminStatsService.invalidate();
         
         activityLogService.logActivity("COURSE_DELETED",
             "Course deleted: " + courseName, null, "Course", id);
@@ -331,6 +455,7 @@ public class AdminController {
         user.setEnabled(true);
         
         User savedUser = userRepository.save(user);
+        adminStatsService.invalidate();
         
         activityLogService.logActivity("USER_REGISTRATION",
             "New " + savedUser.getRole() + " user registered: " + savedUser.getFullName(),
@@ -339,12 +464,16 @@ public class AdminController {
         return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
             "message", "User created successfully",
             "userId", savedUser.getId(),
-            "user", savedUser
+            "user", UserResponse.from(savedUser)
         ));
     }
     
     @PostMapping("/enrollments/instructor")
     @PreAuthorize("hasRole('ADMIN')")
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId"),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOGUE, allEntries = true)
+    })
     public ResponseEntity<Map<String, Object>> assignInstructorToCourse(
             @RequestParam Long courseId,
             @RequestParam Long instructorId) {
@@ -374,91 +503,135 @@ public class AdminController {
     
     @GetMapping("/enrollments/course/{courseId}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<Map<String, Object>>> getCourseEnrollments(@PathVariable Long courseId) {
-        Course course = courseRepository.findById(courseId)
-            .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
-        
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-        
-        List<Map<String, Object>> enrollmentData = enrollments.stream().map(enrollment -> {
-            Map<String, Object> data = new HashMap<>();
-            data.put("id", enrollment.getId());
-            
-            // Manually build student data to avoid lazy loading issues
-            User student = enrollment.getStudent();
-            Map<String, Object> studentData = new HashMap<>();
-            studentData.put("id", student.getId());
-            studentData.put("username", student.getUsername());
-            studentData.put("fullName", student.getFullName());
-            studentData.put("email", student.getEmail());
-            studentData.put("usn", student.getUsn());
-            studentData.put("role", student.getRole());
-            
-            data.put("student", studentData);
-            data.put("enrolledAt", enrollment.getEnrolledAt());
-            data.put("status", enrollment.getStatus());
-            data.put("progressPercentage", enrollment.getProgressPercentage());
-            data.put("finalGrade", enrollment.getFinalGrade());
-            return data;
-        }).toList();
-        
-        return ResponseEntity.ok(enrollmentData);
+    public void getCourseEnrollments(@PathVariable Long courseId, HttpServletResponse response) throws IOException {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course", "id", courseId);
+        }
+        jsonStreamService.writeArray(response, () -> enrollmentService.streamCourseEnrollments(courseId),
+            EnrollmentResponse::from);
     }
     
-    @GetMapping("/activities")
+    /**
+     * Activity feed, newest first, optionally narrowed to one activity type, user or entity
+     * For the next page pass the createdAt and id of the last item received as beforeCreatedAt and beforeId
+     */
+    @GetMapping({"/activities", "/activities/recent"})
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ActivityLog>> getRecentActivities() {
-        List<ActivityLog> activities = activityLogService.getRecentActivities();
+    public ResponseEntity<List<ActivityLogItem>> getRecentActivities(
+            @RequestParam(required = false) String activityType,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedAt,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (beforeCreatedAt != null && beforeId == null) {
+            throw new InvalidOperationException("beforeId is required with beforeCreatedAt");
+        }
+        if ((entityType == null) != (entityId == null)) {
+            throw new InvalidOperationException("entityType and entityId must be given together");
+        }
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_ACTIVITY_LIMIT));
+        List<ActivityLogItem> activities;
+        if (entityType != null) {
+            activities = activityLogService.getEntityActivities(entityType, entityId, beforeCreatedAt, beforeId, pageSize);
+        } else if (userId != null) {
+            activities = activityLogService.getUserActivities(userId, beforeCreatedAt, beforeId, pageSize);
+        } else if (StringUtils.hasText(activityType)) {
+            activities = activityLogService.getActivitiesByType(activityType, beforeCreatedAt, beforeId, pageSize);
+        } else {
+            activities = activityLogService.getRecentActivities(beforeCreatedAt, beforeId, pageSize);
+        }
         return ResponseEntity.ok(activities);
     }
     
+    /**
+     * Server-sent event stream of activities: the newest ones first, then every new activity as it is written
+     * Like /api/events/stream, this path also accepts the JWT as a token query parameter
+     */
+    @GetMapping(value = "/activities/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamActivities(@RequestParam(defaultValue = "20") int initial,
+                                       @AuthenticationPrincipal UserDetails userDetails) {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
+        return eventStreamService.subscribe(userDetailsImpl.getId(), userDetailsImpl.getRole(),
+            Math.max(0, Math.min(initial, MAX_ACTIVITY_LIMIT)));
+    }
+    
     @PostMapping("/users/bulk")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> bulkCreateUsers(@RequestBody Map<String, Object> requestData) {
-        String prefix = (String) requestData.get("prefix");
-        Integer startRange = (Integer) requestData.get("startRange");
-        Integer endRange = (Integer) requestData.get("endRange");
         String role = (String) requestData.getOrDefault("role", "STUDENT");
         String password = (String) requestData.getOrDefault("password", "password123");
+        User.Role defaultRole = User.Role.valueOf(role.toUpperCase());
         
-        if (prefix == null || startRange == null || endRange == null) {
-            throw new InvalidOperationException("prefix, startRange, and endRange are required");
-        }
-        if (startRange > endRange) {
-            throw new InvalidOperationException("startRange cannot be greater than endRange");
-        }
-        if (endRange - startRange > 100) {
-            throw new InvalidOperationException("Cannot create more than 100 users at once");
-        }
-        
-        List<User> createdUsers = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
+        List<BulkUserImportService.NewUser> newUsers = new ArrayList<>();
         
-        for (int i = startRange; i <= endRange; i++) {
-            try {
-                String usn = prefix + String.format("%03d", i);
-                
-                if (userRepository.existsByUsername(usn)) {
-                    errors.add("User with USN " + usn + " already exists");
-                    continue;
+        if (requestData.get("users") instanceof List<?> userList) {
+            // Explicit user list: [{username, email, fullName, usn, phone, password, role}]
+            for (Object entry : userList) {
+                if (!(entry instanceof Map<?, ?> userData)) {
+                    throw new InvalidOperationException("Each user entry must be an object");
                 }
-                
-                User user = new User();
-                user.setUsername(usn);
-                user.setUsn(usn);
-                user.setEmail(usn.toLowerCase() + "@student.edu");
-                user.setFullName("Student " + usn);
-                user.setPassword(passwordEncoder.encode(password));
-                user.setRole(User.Role.valueOf(role.toUpperCase()));
-                user.setEnabled(true);
-                
-                createdUsers.add(userRepository.save(user));
-            } catch (Exception e) {
-                errors.add("Failed to create user " + prefix + i + ": " + e.getMessage());
+                String userRole = userData.get("role") != null ? userData.get("role").toString() : null;
+                String userPassword = userData.get("password") != null ? userData.get("password").toString() : password;
+                newUsers.add(new BulkUserImportService.NewUser(
+                    asString(userData.get("username")),
+                    asString(userData.get("usn")),
+                    asString(userData.get("email")),
+                    asString(userData.get("fullName")),
+                    asString(userData.get("phone")),
+                    userPassword,
+                    userRole != null ? User.Role.valueOf(userRole.toUpperCase()) : defaultRole
+                ));
+            }
+        } else {
+            // Sequential USN range: prefix + startRange..endRange
+            String prefix = (String) requestData.get("prefix");
+            Integer startRange = requestData.get("startRange") != null ?
+                Integer.parseInt(requestData.get("startRange").toString()) : null;
+            Integer endRange = requestData.get("endRange") != null ?
+                Integer.parseInt(requestData.get("endRange").toString()) : null;
+            
+            if (prefix == null || startRange == null || endRange == null) {
+                throw new InvalidOperationException("Either users, or prefix, startRange and endRange are required");
+            }
+            if (startRange > endRange) {
+                throw new InvalidOperationException("startRange cannot be greater than endRange");
+            }
+            if (endRange - startRange >= maxBulkUsers) {
+                throw new InvalidOperationException("Cannot create more than " + maxBulkUsers + " users at once");
+            }
+            
+            for (int i = startRange; i <= endRange; i++) {
+                String usn = prefix + String.format("%03d", i);
+                newUsers.add(new BulkUserImportService.NewUser(
+                    usn, usn, usn.toLowerCase() + "@student.edu", "Student " + usn, null, password, defaultRole));
             }
         }
         
+        if (newUsers.size() > maxBulkUsers) {
+            throw new InvalidOperationException("Cannot create more than " + maxBulkUsers + " users at once");
+        }
+        
+        BulkUserImportService.ImportResult result = bulkUserImportService.createUsers(newUsers);
+        List<String> errors = result.errors().stream()
+            .map(error -> "Failed to create user " + error.username() + ": " + error.reason())
+            .toList();
+        List<Map<String, Object>> createdUsers = result.created().stream()
+            .map(user -> {
+                Map<String, Object> userData = new HashMap<>();
+                userData.put("username", user.username());
+                userData.put("usn", user.usn());
+                userData.put("email", user.email());
+                userData.put("fullName", user.fullName());
+                userData.put("role", user.role());
+                return userData;
+            })
+            .toList();
+        
+        adminStatsService.invalidate();
         activityLogService.logActivity("BULK_USER_CREATE",
             "Bulk created " + createdUsers.size() + " users", null, "User", null);
         
@@ -473,6 +646,7 @@ public class AdminController {
     
     @PostMapping("/courses/bulk")
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOGUE, allEntries = true)
     public ResponseEntity<Map<String, Object>> bulkCreateCourses(@RequestBody List<Map<String, Object>> coursesData) {
         if (coursesData == null || coursesData.isEmpty()) {
             throw new InvalidOperationException("Course data is required");
@@ -522,12 +696,15 @@ public class AdminController {
                 course.setInstructor(instructor);
                 course.setIsActive(true);
                 
-                createdCourses.add(courseRepository.save(course));
+                Course savedCourse = courseRepository.save(course);
+                courseSearchService.indexAfterCommit(savedCourse);
+                createdCourses.add(savedCourse);
             } catch (Exception e) {
                 errors.add("Failed to create course: " + e.getMessage());
             }
         }
         
+        adminStatsService.invalidate();
         activityLogService.logActivity("BULK_COURSE_CREATE",
             "Bulk created " + createdCourses.size() + " courses", null, "Course", null);
         
@@ -597,11 +774,12 @@ public class AdminController {
     @GetMapping("/reports/user-summary")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getUserSummaryReport() {
-        long totalUsers = userRepository.count();
-        long students = userRepository.findByRole(User.Role.STUDENT).size();
-        long instructors = userRepository.findByRole(User.Role.INSTRUCTOR).size();
-        long admins = userRepository.findByRole(User.Role.ADMIN).size();
-        long activeUsers = userRepository.findByEnabledTrue().size();
+        AdminStatsService.StatsSnapshot snapshot = adminStatsService.getSnapshot();
+        long totalUsers = snapshot.totalUsers();
+        long students = snapshot.usersWithRole(User.Role.STUDENT);
+        long instructors = snapshot.usersWithRole(User.Role.INSTRUCTOR);
+        long admins = snapshot.usersWithRole(User.Role.ADMIN);
+        long activeUsers = snapshot.activeUsers();
         
         Map<String, Object> report = new HashMap<>();
         report.put("totalUsers", totalUsers);
@@ -610,7 +788,7 @@ public class AdminController {
         report.put("admins", admins);
         report.put("activeUsers", activeUsers);
         report.put("inactiveUsers", totalUsers - activeUsers);
-        report.put("generatedAt", java.time.LocalDateTime.now());
+        report.put("generatedAt", snapshot.generatedAt());
         
         return ResponseEntity.ok(report);
     }
@@ -618,20 +796,20 @@ public class AdminController {
     @GetMapping("/reports/course-performance")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getCoursePerformanceReport() {
-        long totalCourses = courseRepository.count();
-        long totalEnrollments = enrollmentRepository.count();
-        long activeCourses = courseRepository.findByIsActiveTrue().size();
+        AdminStatsService.StatsSnapshot snapshot = adminStatsService.getSnapshot();
+        long totalCourses = snapshot.totalCourses();
+        long totalEnrollments = snapshot.totalEnrollments();
+        long activeCourses = snapshot.activeCourses();
         
-        List<Course> courses = courseRepository.findAll();
-        double avgEnrollmentPerCourse = courses.isEmpty() ? 0 : 
-            (double) totalEnrollments / courses.size();
+        double avgEnrollmentPerCourse = totalCourses == 0 ? 0 : 
+            (double) totalEnrollments / totalCourses;
         
         Map<String, Object> report = new HashMap<>();
         report.put("totalCourses", totalCourses);
         report.put("activeCourses", activeCourses);
         report.put("totalEnrollments", totalEnrollments);
         report.put("averageEnrollmentPerCourse", avgEnrollmentPerCourse);
-        report.put("generatedAt", java.time.LocalDateTime.now());
+        report.put("generatedAt", snapshot.generatedAt());
         
         return ResponseEntity.ok(report);
     }
@@ -639,8 +817,7 @@ public class AdminController {
     @GetMapping("/reports/enrollment-trends")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getEnrollmentTrendsReport() {
-        long totalEnrollments = enrollmentRepository.count();
-        List<Enrollment> recentEnrollments = enrollmentRepository.findAll();
+        long totalEnrollments = adminStatsService.getSnapshot().totalEnrollments();
         
         // Group by month (simplified)
         Map<String, Long> monthlyEnrollments = new HashMap<>();
@@ -657,7 +834,7 @@ public class AdminController {
     @GetMapping("/reports/assignment-analytics")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getAssignmentAnalyticsReport() {
-        long totalAssignments = assignmentRepository.count();
+        long totalAssignments = adminStatsService.getSnapshot().totalAssignments();
         
         Map<String, Object> report = new HashMap<>();
         report.put("totalAssignments", totalAssignments);
@@ -665,4 +842,17 @@ public class AdminController {
         
         return ResponseEntity.ok(report);
     }
+    
+    private static String asString(Object value) {
+        return value != null && StringUtils.hasText(value.toString()) ? value.toString().trim() : null;
+    }
+    
+    private static String toLikePattern(String search) {
+        return StringUtils.hasText(search) ? "%" + search.trim().toLowerCase() + "%" : null;
+    }
+    
+    private static Map<Long, Long> toCountMap(List<CourseEnrollmentCount> counts) {
+        return counts.stream()
+            .collect(Collectors.toMap(CourseEnrollmentCount::getCourseId, CourseEnrollmentCount::getEnrollmentCount));
+    }
 }
@@ -1,11 +1,32 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.dto.AssignmentListItem;
+import com.edunex.edunex_lms.dto.AssignmentResponse;
+import com.edunex.edunex_lms.dto.PageResponse;
+import com.edunex.edunex_lms.dto.StudentAssignmentItem;
+import com.edunex.edunex_lms.dto.SubmissionResponse;
 import com.edunex.edunex_lms.entity.Assignment;
+import com.edunex.edunex_lms.entity.Course;
+import com.edunex.edunex_lms.entity.Submission;
 import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.exception.ResourceNotFoundException;
+import com.edunex.edunex_lms.repository.CourseRepository;
 import com.edunex.edunex_lms.security.UserDetailsImpl;
 import com.edunex.edunex_lms.service.AssignmentService;
+import com.edunex.edunex_lms.service.ExportService;
+import com.edunex.edunex_lms.service.FileDownloadService;
+import com.edunex.edunex_lms.service.FileDownloadService.Download;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +34,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,90 +44,184 @@ import java.util.List;
 public class AssignmentController {
     
     private final AssignmentService assignmentService;
+    private final FileDownloadService fileDownloadService;
+    private final ExportService exportService;
+    private final CourseRepository courseRepository;
+    
+    private static final int MAX_FEED_LIMIT = 500;
+    
+    private static final List<ExportService.Column<Submission>> GRADEBOOK_COLUMNS = List.of(
+        new ExportService.Column<>("Assignment", s -> s.getAssignment().getTitle()),
+        new ExportService.Column<>("Due Date", s -> s.getAssignment().getDueDate()),
+        new ExportService.Column<>("Max Marks", s -> s.getAssignment().getMaxMarks()),
+        new ExportService.Column<>("USN", s -> s.getStudent().getUsn()),
+        new ExportService.Column<>("Student", s -> s.getStudent().getFullName()),
+        new ExportService.Column<>("Status", Submission::getStatus),
+        new ExportService.Column<>("Submitted At", Submission::getSubmittedAt),
+        new ExportService.Column<>("Marks", Submission::getMarksObtained),
+        new ExportService.Column<>("Graded At", Submission::getGradedAt),
+        new ExportService.Column<>("Feedback", Submission::getFeedback)
+    );
     
     @PostMapping
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<Assignment> createAssignment(@RequestBody Assignment assignment, @RequestParam Long courseId) {
+    public ResponseEntity<AssignmentResponse> createAssignment(@RequestBody Assignment assignment,
+                                                               @RequestParam Long courseId) {
         Assignment created = assignmentService.createAssignment(assignment, courseId);
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(AssignmentResponse.from(created));
     }
     
     @PostMapping("/{id}/submit")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<Assignment> submitAssignment(
+    public ResponseEntity<SubmissionResponse> submitAssignment(
             @PathVariable Long id,
             @RequestParam(value = "file", required = false) MultipartFile file,
             @AuthenticationPrincipal UserDetails userDetails) {
         // Get student ID from authenticated user
         UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
-        Assignment submitted = assignmentService.submitAssignment(id, userDetailsImpl.getId(), file);
-        return ResponseEntity.ok(submitted);
+        Submission submitted = assignmentService.submitAssignment(id, userDetailsImpl.getId(), file);
+        return ResponseEntity.ok(SubmissionResponse.from(submitted));
+    }
+    
+    /**
+     * Submit a file sent as the raw request body, e.g. {@code curl --data-binary @report.pdf}
+     * The body is streamed to disk without multipart parsing or buffering
+     */
+    @PostMapping(value = "/{id}/submit", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<SubmissionResponse> submitAssignmentStream(
+            @PathVariable Long id,
+            @RequestParam String fileName,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
+        Submission submitted = assignmentService.submitAssignment(id, userDetailsImpl.getId(), fileName,
+            request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.ok(SubmissionResponse.from(submitted));
     }
     
-    @PostMapping("/{id}/grade")
+    /**
+     * Grade a submission; the ID is a submission ID as returned by the submissions endpoints
+     * /{id}/grade is kept for existing clients, which already send submission IDs
+     */
+    @PostMapping({"/submissions/{id}/grade", "/{id}/grade"})
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<Assignment> gradeAssignment(
+    public ResponseEntity<SubmissionResponse> gradeSubmission(
             @PathVariable Long id,
             @RequestParam Double grade,
             @RequestParam String feedback) {
-        Assignment graded = assignmentService.gradeAssignment(id, grade, feedback);
-        return ResponseEntity.ok(graded);
+        Submission graded = assignmentService.gradeSubmission(id, grade, feedback);
+        return ResponseEntity.ok(SubmissionResponse.from(graded));
+    }
+    
+    /**
+     * Download a submitted file; supports Range, If-None-Match and If-Modified-Since
+     */
+    @GetMapping("/submissions/{id}/download")
+    public void downloadSubmission(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
+        Download download = assignmentService.getSubmissionDownload(id, userDetailsImpl.getId(),
+            userDetailsImpl.getRole());
+        fileDownloadService.serve(download, request, response);
     }
     
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<Assignment>> getAssignmentsByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<List<AssignmentResponse>> getAssignmentsByCourse(@PathVariable Long courseId) {
         List<Assignment> assignments = assignmentService.getAssignmentsByCourse(courseId);
-        return ResponseEntity.ok(assignments);
+        return ResponseEntity.ok(assignments.stream().map(AssignmentResponse::from).toList());
     }
     
+    /**
+     * Assignment feed of the authenticated student, ordered by due date
+     * For the next page pass the dueDate and id of the last item received as afterDueDate and afterId
+     */
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('STUDENT')")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<Assignment>> getStudentAssignments(@PathVariable Long studentId) {
-        List<Assignment> assignments = assignmentService.getStudentAssignments(studentId);
-        return ResponseEntity.ok(assignments);
+    public ResponseEntity<List<StudentAssignmentItem>> getStudentAssignments(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDueDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "200") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
+        if (!studentId.equals(userDetailsImpl.getId())) {
+            throw new AccessDeniedException("Students can only view their own assignments");
+        }
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        List<StudentAssignmentItem> feed = assignmentService.getStudentAssignments(studentId, afterDueDate, afterId, pageSize);
+        return ResponseEntity.ok(feed);
     }
     
     @GetMapping("/instructor/{instructorId}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<Assignment>> getInstructorAssignments(@PathVariable Long instructorId) {
+    public ResponseEntity<List<AssignmentResponse>> getInstructorAssignments(@PathVariable Long instructorId) {
         List<Assignment> assignments = assignmentService.getInstructorAssignments(instructorId);
-        return ResponseEntity.ok(assignments);
+        return ResponseEntity.ok(assignments.stream().map(AssignmentResponse::from).toList());
     }
     
     @GetMapping("/course/{courseId}/pending")
-    public ResponseEntity<List<Assignment>> getPendingAssignments(@PathVariable Long courseId) {
+    public ResponseEntity<List<AssignmentResponse>> getPendingAssignments(@PathVariable Long courseId) {
         List<Assignment> assignments = assignmentService.getPendingAssignments(courseId);
-        return ResponseEntity.ok(assignments);
+        return ResponseEntity.ok(assignments.stream().map(AssignmentResponse::from).toList());
     }
     
     @GetMapping("/my-assignments")
     @PreAuthorize("hasAnyRole('STUDENT', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<Assignment>> getMyAssignments(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<AssignmentResponse>> getMyAssignments(@AuthenticationPrincipal UserDetails userDetails) {
         // This will return assignments based on user role
         // For students: their enrolled courses' assignments
         // For instructors: assignments from their courses
         List<Assignment> assignments = assignmentService.getUserAssignments(userDetails.getUsername());
-        return ResponseEntity.ok(assignments);
+        return ResponseEntity.ok(assignments.stream().map(AssignmentResponse::from).toList());
+    }
+    
+    @GetMapping("/my-assignments/list")
+    @PreAuthorize("hasAnyRole('STUDENT', 'INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<PageResponse<AssignmentListItem>> getMyAssignmentList(
+            @PageableDefault(size = 20, sort = "dueDate", direction = Sort.Direction.ASC) Pageable pageable,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Page<AssignmentListItem> page = assignmentService.getUserAssignmentList(userDetails.getUsername(), pageable);
+        return ResponseEntity.ok(PageResponse.from(page));
     }
     
     @GetMapping("/{assignmentId}/submissions")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<Assignment>> getAssignmentSubmissions(@PathVariable Long assignmentId) {
+    public ResponseEntity<List<SubmissionResponse>> getAssignmentSubmissions(@PathVariable Long assignmentId) {
         // Return all submissions for a specific assignment
-        List<Assignment> submissions = assignmentService.getAssignmentSubmissions(assignmentId);
-        return ResponseEntity.ok(submissions);
+        List<Submission> submissions = assignmentService.getAssignmentSubmissions(assignmentId);
+        return ResponseEntity.ok(submissions.stream().map(SubmissionResponse::from).toList());
     }
     
     @GetMapping("/course/{courseId}/submissions")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<Assignment>> getCourseAssignmentSubmissions(
+    public ResponseEntity<List<SubmissionResponse>> getCourseAssignmentSubmissions(
             @PathVariable Long courseId,
             @RequestParam String title) {
-        List<Assignment> submissions = assignmentService.getCourseAssignmentSubmissions(courseId, title);
-        return ResponseEntity.ok(submissions);
+        List<Submission> submissions = assignmentService.getCourseAssignmentSubmissions(courseId, title);
+        return ResponseEntity.ok(submissions.stream().map(SubmissionResponse::from).toList());
+    }
+    
+    /**
+     * Gradebook of a course, one row per submission, as a csv, xlsx or pdf file
+     */
+    @GetMapping("/course/{courseId}/gradebook/export")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public void exportGradebook(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "xlsx") String format,
+            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        Course course = courseRepository.findById(courseId)
+            .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
+        exportService.export(response, exportFormat, course.getCourseCode() + "-gradebook",
+            course.getCourseCode() + " Gradebook", GRADEBOOK_COLUMNS,
+            () -> assignmentService.streamGradebook(courseId));
     }
     
     @DeleteMapping("/{id}")
@@ -1,12 +1,22 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.dto.AttendanceResponse;
 import com.edunex.edunex_lms.entity.Attendance;
+import com.edunex.edunex_lms.entity.AttendanceSummary;
+import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.Enrollment;
 import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.exception.InvalidOperationException;
 import com.edunex.edunex_lms.exception.ResourceNotFoundException;
+import com.edunex.edunex_lms.repository.CourseRepository;
 import com.edunex.edunex_lms.repository.EnrollmentRepository;
 import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.security.UserDetailsImpl;
 import com.edunex.edunex_lms.service.AttendanceService;
+import com.edunex.edunex_lms.service.AttendanceSummaryService;
+import com.edunex.edunex_lms.service.ExportService;
+import com.edunex.edunex_lms.service.JsonStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,8 +24,11 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -26,8 +39,21 @@ import java.util.stream.Collectors;
 public class AttendanceController {
     
     private final AttendanceService attendanceService;
+    private final AttendanceSummaryService attendanceSummaryService;
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
+    private final JsonStreamService jsonStreamService;
+    private final ExportService exportService;
+    private final CourseRepository courseRepository;
+    
+    private static final List<ExportService.Column<Attendance>> REGISTER_COLUMNS = List.of(
+        new ExportService.Column<>("Date", Attendance::getAttendanceDate),
+        new ExportService.Column<>("USN", a -> a.getStudent().getUsn()),
+        new ExportService.Column<>("Student", a -> a.getStudent().getFullName()),
+        new ExportService.Column<>("Status", Attendance::getStatus),
+        new ExportService.Column<>("Remarks", Attendance::getRemarks),
+        new ExportService.Column<>("Marked At", Attendance::getMarkedAt)
+    );
     
     @PostMapping("/mark")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
@@ -50,40 +76,118 @@ public class AttendanceController {
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> attendanceList = (List<Map<String, Object>>) request.get("attendanceList");
         
+        // Entries may carry their own date; mark each date as one session
+        Map<LocalDate, List<AttendanceService.SessionEntry>> sessions = new LinkedHashMap<>();
         for (Map<String, Object> item : attendanceList) {
-            Long studentId = Long.valueOf(item.get("studentId").toString());
-            String status = item.get("status").toString();
-            String remarks = item.get("remarks") != null ? item.get("remarks").toString() : null;
             String dateStr = item.get("date") != null ? item.get("date").toString() : null;
-            LocalDate date = dateStr != null ? LocalDate.parse(dateStr) : null;
-            
-            attendanceService.markAttendance(studentId, courseId, status, remarks, markedById, date);
+            LocalDate date = dateStr != null ? LocalDate.parse(dateStr) : LocalDate.now();
+            sessions.computeIfAbsent(date, d -> new ArrayList<>()).add(toSessionEntry(item));
+        }
+        
+        List<AttendanceService.SessionConflict> conflicts = new ArrayList<>();
+        sessions.forEach((date, entries) ->
+            conflicts.addAll(attendanceService.markSession(courseId, date, markedById, entries, false).conflicts()));
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Attendance marked successfully");
+        response.put("conflicts", conflicts);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Mark or correct attendance for a whole class session
+     * Body: courseId, date (optional, defaults to today), markedById (optional, defaults to the caller),
+     * overwrite (optional, default true) and entries: [{studentId, status, remarks}]
+     */
+    @PostMapping("/session")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<Map<String, Object>> markSession(
+            @RequestBody Map<String, Object> request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (request.get("courseId") == null) {
+            throw new InvalidOperationException("Missing courseId");
+        }
+        if (!(request.get("entries") instanceof List<?> items)) {
+            throw new InvalidOperationException("entries must be a list");
         }
         
-        return ResponseEntity.ok(Map.of("message", "Attendance marked successfully"));
+        Long courseId = Long.valueOf(request.get("courseId").toString());
+        LocalDate date = request.get("date") != null ? LocalDate.parse(request.get("date").toString()) : null;
+        boolean overwrite = request.get("overwrite") == null || Boolean.parseBoolean(request.get("overwrite").toString());
+        Long markedById;
+        if (request.get("markedById") != null) {
+            markedById = Long.valueOf(request.get("markedById").toString());
+        } else if (userDetails instanceof UserDetailsImpl principal) {
+            markedById = principal.getId();
+        } else {
+            markedById = null;
+        }
+        
+        List<AttendanceService.SessionEntry> entries = new ArrayList<>();
+        for (Object item : items) {
+            if (!(item instanceof Map<?, ?> entry)) {
+                throw new InvalidOperationException("Each entry must be an object");
+            }
+            entries.add(toSessionEntry(entry));
+        }
+        
+        AttendanceService.SessionResult result = attendanceService.markSession(courseId, date, markedById, entries, overwrite);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("inserted", result.inserted());
+        response.put("updated", result.updated());
+        response.put("unchanged", result.unchanged());
+        response.put("conflicts", result.conflicts());
+        response.put("conflictCount", result.conflicts().size());
+        return ResponseEntity.ok(response);
+    }
+    
+    private static AttendanceService.SessionEntry toSessionEntry(Map<?, ?> item) {
+        Long studentId = item.get("studentId") != null ? Long.valueOf(item.get("studentId").toString()) : null;
+        String status = item.get("status") != null ? item.get("status").toString() : null;
+        String remarks = item.get("remarks") != null ? item.get("remarks").toString() : null;
+        return new AttendanceService.SessionEntry(studentId, status, remarks);
     }
     
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasAnyRole('STUDENT', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<Attendance>> getStudentAttendance(@PathVariable Long studentId) {
+    public ResponseEntity<List<AttendanceResponse>> getStudentAttendance(@PathVariable Long studentId) {
         List<Attendance> attendance = attendanceService.getAttendanceByStudent(studentId);
-        return ResponseEntity.ok(attendance);
+        return ResponseEntity.ok(attendance.stream().map(AttendanceResponse::from).toList());
     }
     
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<Attendance>> getCourseAttendance(@PathVariable Long courseId) {
-        List<Attendance> attendance = attendanceService.getAttendanceByCourse(courseId);
-        return ResponseEntity.ok(attendance);
+    public void getCourseAttendance(@PathVariable Long courseId, HttpServletResponse response) throws IOException {
+        // One row per student per session, so written as it is read
+        jsonStreamService.writeArray(response, () -> attendanceService.streamAttendanceByCourse(courseId),
+            AttendanceResponse::from);
+    }
+    
+    /**
+     * Attendance register of a course as a csv, xlsx or pdf file
+     */
+    @GetMapping("/course/{courseId}/export")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public void exportCourseAttendance(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "xlsx") String format,
+            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        Course course = courseRepository.findById(courseId)
+            .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
+        exportService.export(response, exportFormat, course.getCourseCode() + "-attendance",
+            course.getCourseCode() + " Attendance Register", REGISTER_COLUMNS,
+            () -> attendanceService.streamAttendanceByCourse(courseId));
     }
     
     @GetMapping("/student/{studentId}/course/{courseId}")
     @PreAuthorize("hasAnyRole('STUDENT', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<Attendance>> getStudentCourseAttendance(
+    public ResponseEntity<List<AttendanceResponse>> getStudentCourseAttendance(
             @PathVariable Long studentId,
             @PathVariable Long courseId) {
         List<Attendance> attendance = attendanceService.getAttendanceByStudentAndCourse(studentId, courseId);
-        return ResponseEntity.ok(attendance);
+        return ResponseEntity.ok(attendance.stream().map(AttendanceResponse::from).toList());
     }
     
     @GetMapping("/student/{studentId}/course/{courseId}/rate")
@@ -91,20 +195,8 @@ public class AttendanceController {
     public ResponseEntity<Map<String, Object>> getAttendanceRate(
             @PathVariable Long studentId,
             @PathVariable Long courseId) {
-        Double rate = attendanceService.calculateAttendanceRate(studentId, courseId);
-        long total = attendanceService.getAttendanceByStudentAndCourse(studentId, courseId).size();
-        long present = attendanceService.getAttendanceByStudentAndCourse(studentId, courseId)
-                .stream()
-                .filter(a -> a.getStatus() == Attendance.AttendanceStatus.PRESENT)
-                .count();
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("rate", rate);
-        response.put("total", total);
-        response.put("present", present);
-        response.put("absent", total - present);
-        
-        return ResponseEntity.ok(response);
+        AttendanceSummary summary = attendanceSummaryService.getSummary(studentId, courseId).orElse(null);
+        return ResponseEntity.ok(toRateData(summary));
     }
     
     @GetMapping("/my-attendance")
@@ -116,42 +208,49 @@ public class AttendanceController {
         List<Attendance> attendance = attendanceService.getAttendanceByStudent(user.getId());
         List<Enrollment> enrollments = enrollmentRepository.findByStudentId(user.getId());
         
-        // Calculate attendance rate per course
+        Map<Long, AttendanceSummary> summaries = attendanceSummaryService.getSummariesByStudent(user.getId()).stream()
+            .collect(Collectors.toMap(s -> s.getCourse().getId(), s -> s));
+        
+        // Attendance rate per course, read from the running counters
         Map<Long, Map<String, Object>> courseAttendance = enrollments.stream()
             .collect(Collectors.toMap(
                 e -> e.getCourse().getId(),
                 e -> {
-                    Double rate = attendanceService.calculateAttendanceRate(user.getId(), e.getCourse().getId());
-                    List<Attendance> courseAtt = attendanceService.getAttendanceByStudentAndCourse(user.getId(), e.getCourse().getId());
-                    long present = courseAtt.stream()
-                        .filter(a -> a.getStatus() == Attendance.AttendanceStatus.PRESENT)
-                        .count();
-                    
-                    Map<String, Object> data = new HashMap<>();
+                    Map<String, Object> data = toRateData(summaries.get(e.getCourse().getId()));
                     data.put("courseName", e.getCourse().getCourseName());
                     data.put("courseCode", e.getCourse().getCourseCode());
-                    data.put("rate", rate);
-                    data.put("total", courseAtt.size());
-                    data.put("present", present);
-                    data.put("absent", courseAtt.size() - present);
                     return data;
                 }
             ));
         
         Map<String, Object> response = new HashMap<>();
-        response.put("attendance", attendance);
+        response.put("attendance", attendance.stream().map(AttendanceResponse::from).toList());
         response.put("courseAttendance", courseAttendance);
         
         return ResponseEntity.ok(response);
     }
     
+    private static Map<String, Object> toRateData(AttendanceSummary summary) {
+        int total = summary != null ? summary.getTotalCount() : 0;
+        int present = summary != null ? summary.getPresentCount() : 0;
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("rate", summary != null ? summary.getRate() : 0.0);
+        data.put("total", total);
+        data.put("present", present);
+        data.put("absent", total - present);
+        data.put("late", summary != null ? summary.getLateCount() : 0);
+        data.put("excused", summary != null ? summary.getExcusedCount() : 0);
+        return data;
+    }
+    
     @GetMapping("/course/{courseId}/date/{date}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<Attendance>> getAttendanceByDate(
+    public ResponseEntity<List<AttendanceResponse>> getAttendanceByDate(
             @PathVariable Long courseId,
             @PathVariable String date) {
         LocalDate localDate = LocalDate.parse(date);
         List<Attendance> attendance = attendanceService.getAttendanceByDate(courseId, localDate);
-        return ResponseEntity.ok(attendance);
+        return ResponseEntity.ok(attendance.stream().map(AttendanceResponse::from).toList());
     }
 }
@@ -1,6 +1,12 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.dto.CourseEnrollmentCount;
+import com.edunex.edunex_lms.dto.CourseResponse;
+import com.edunex.edunex_lms.dto.CourseSearchHit;
+import com.edunex.edunex_lms.dto.PageResponse;
+import com.edunex.edunex_lms.dto.UserBrief;
 import com.edunex.edunex_lms.entity.Course;
+import com.edunex.edunex_lms.exception.InvalidOperationException;
 import com.edunex.edunex_lms.repository.EnrollmentRepository;
 import com.edunex.edunex_lms.service.CourseService;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -19,19 +26,21 @@ public class CourseController {
     
     private final CourseService courseService;
     private final EnrollmentRepository enrollmentRepository;
+
+    private static final int MAX_SEARCH_SIZE = 50;
     
     @PostMapping
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<Course> createCourse(@RequestBody Course course, @RequestParam Long instructorId) {
+    public ResponseEntity<CourseResponse> createCourse(@RequestBody Course course, @RequestParam Long instructorId) {
         Course created = courseService.createCourse(course, instructorId);
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(CourseResponse.from(created));
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<Course> updateCourse(@PathVariable Long id, @RequestBody Course course) {
+    public ResponseEntity<CourseResponse> updateCourse(@PathVariable Long id, @RequestBody Course course) {
         Course updated = courseService.updateCourse(id, course);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(CourseResponse.from(updated));
     }
     
     @DeleteMapping("/{id}")
@@ -42,21 +51,24 @@ public class CourseController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
+    public ResponseEntity<CourseResponse> getCourseById(@PathVariable Long id) {
         Course course = courseService.getCourseById(id);
-        return ResponseEntity.ok(course);
+        return ResponseEntity.ok(CourseResponse.from(course));
     }
     
     @GetMapping
-    public ResponseEntity<List<Course>> getAllCourses() {
+    public ResponseEntity<List<CourseResponse>> getAllCourses() {
         List<Course> courses = courseService.getAllCourses();
-        return ResponseEntity.ok(courses);
+        return ResponseEntity.ok(courses.stream().map(CourseResponse::from).toList());
     }
     
     @GetMapping("/instructor/{instructorId}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     public ResponseEntity<?> getCoursesByInstructor(@PathVariable Long instructorId) {
         List<Course> courses = courseService.getCoursesByInstructor(instructorId);
+        Map<Long, Long> enrollmentCounts = courses.isEmpty() ? Map.of() :
+            enrollmentRepository.countByCourseIds(courses.stream().map(Course::getId).toList()).stream()
+                .collect(Collectors.toMap(CourseEnrollmentCount::getCourseId, CourseEnrollmentCount::getEnrollmentCount));
         
         // Create response with enrollment counts
         List<Map<String, Object>> coursesWithEnrollments = courses.stream().map(course -> {
@@ -70,13 +82,12 @@ public class CourseController {
             courseData.put("credits", course.getCredits());
             courseData.put("maxStudents", course.getMaxStudents());
             courseData.put("isActive", course.getIsActive());
-            courseData.put("instructor", course.getInstructor());
+            courseData.put("instructor", UserBrief.from(course.getInstructor()));
             courseData.put("createdAt", course.getCreatedAt());
             courseData.put("updatedAt", course.getUpdatedAt());
             
-            // Get enrollment count
-            long enrollmentCount = enrollmentRepository.countByCourseId(course.getId());
-            courseData.put("enrollmentCount", enrollmentCount);
+            // Enrollment counts come from one grouped query
+            courseData.put("enrollmentCount", enrollmentCounts.getOrDefault(course.getId(), 0L));
             
             return courseData;
         }).toList();
@@ -85,14 +96,25 @@ public class CourseController {
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<Course>> getAvailableCourses() {
+    public ResponseEntity<List<CourseResponse>> getAvailableCourses() {
         List<Course> courses = courseService.getAvailableCourses();
-        return ResponseEntity.ok(courses);
+        return ResponseEntity.ok(courses.stream().map(CourseResponse::from).toList());
+    }
+    
+    @GetMapping("/categories")
+    public ResponseEntity<List<String>> getCategories() {
+        return ResponseEntity.ok(courseService.getCategories());
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Course>> searchCourses(@RequestParam String keyword) {
-        List<Course> courses = courseService.searchCourses(keyword);
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<PageResponse<CourseSearchHit>> searchCourses(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "false") boolean activeOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new InvalidOperationException("page must be >= 0 and size between 1 and " + MAX_SEARCH_SIZE);
+        }
+        return ResponseEntity.ok(courseService.searchCourses(keyword, activeOnly, page, size));
     }
 }
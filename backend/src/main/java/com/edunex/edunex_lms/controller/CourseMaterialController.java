@@ -1,16 +1,24 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.dto.MaterialResponse;
 import com.edunex.edunex_lms.entity.CourseMaterial;
 import com.edunex.edunex_lms.entity.User;
 import com.edunex.edunex_lms.security.UserDetailsImpl;
 import com.edunex.edunex_lms.service.CourseMaterialService;
+import com.edunex.edunex_lms.service.FileDownloadService;
+import com.edunex.edunex_lms.service.FileDownloadService.Download;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -19,44 +27,78 @@ import java.util.List;
 public class CourseMaterialController {
     
     private final CourseMaterialService courseMaterialService;
+    private final FileDownloadService fileDownloadService;
     
     @PostMapping
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<CourseMaterial> createMaterial(
+    public ResponseEntity<MaterialResponse> createMaterial(
             @RequestBody CourseMaterial material,
             @RequestParam Long courseId,
             @AuthenticationPrincipal UserDetails userDetails) {
         UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
         CourseMaterial created = courseMaterialService.createMaterial(material, courseId, userDetailsImpl.getId());
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(MaterialResponse.from(created));
+    }
+    
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<MaterialResponse> uploadMaterial(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam Long courseId,
+            @RequestParam String title,
+            @RequestParam(required = false) String description,
+            @RequestParam(defaultValue = "DOCUMENT") CourseMaterial.MaterialType type,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
+        CourseMaterial material = new CourseMaterial();
+        material.setTitle(title);
+        material.setDescription(description);
+        material.setType(type);
+        CourseMaterial created = courseMaterialService.uploadMaterial(material, file, courseId, userDetailsImpl.getId());
+        return ResponseEntity.ok(MaterialResponse.from(created));
     }
     
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<CourseMaterial>> getMaterialsByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<List<MaterialResponse>> getMaterialsByCourse(@PathVariable Long courseId) {
         List<CourseMaterial> materials = courseMaterialService.getMaterialsByCourse(courseId);
-        return ResponseEntity.ok(materials);
+        return ResponseEntity.ok(materials.stream().map(MaterialResponse::from).toList());
     }
     
     @GetMapping("/instructor/{instructorId}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<CourseMaterial>> getMaterialsByInstructor(@PathVariable Long instructorId) {
+    public ResponseEntity<List<MaterialResponse>> getMaterialsByInstructor(@PathVariable Long instructorId) {
         List<CourseMaterial> materials = courseMaterialService.getMaterialsByInstructor(instructorId);
-        return ResponseEntity.ok(materials);
+        return ResponseEntity.ok(materials.stream().map(MaterialResponse::from).toList());
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<CourseMaterial> getMaterialById(@PathVariable Long id) {
+    public ResponseEntity<MaterialResponse> getMaterialById(@PathVariable Long id) {
         CourseMaterial material = courseMaterialService.getMaterialById(id);
-        return ResponseEntity.ok(material);
+        return ResponseEntity.ok(MaterialResponse.from(material));
+    }
+    
+    /**
+     * Download an uploaded material; supports Range, If-None-Match and If-Modified-Since
+     */
+    @GetMapping("/{id}/download")
+    public void downloadMaterial(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
+        Download download = courseMaterialService.getMaterialDownload(id, userDetailsImpl.getId(),
+            userDetailsImpl.getRole());
+        fileDownloadService.serve(download, request, response);
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<CourseMaterial> updateMaterial(
+    public ResponseEntity<MaterialResponse> updateMaterial(
             @PathVariable Long id,
             @RequestBody CourseMaterial material) {
         CourseMaterial updated = courseMaterialService.updateMaterial(id, material);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(MaterialResponse.from(updated));
     }
     
     @DeleteMapping("/{id}")
@@ -1,5 +1,9 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.dto.CourseRef;
+import com.edunex.edunex_lms.dto.EnrollmentPair;
+import com.edunex.edunex_lms.dto.EnrollmentResponse;
+import com.edunex.edunex_lms.dto.UserRef;
 import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.Enrollment;
 import com.edunex.edunex_lms.entity.User;
@@ -8,17 +12,28 @@ import com.edunex.edunex_lms.exception.ResourceNotFoundException;
 import com.edunex.edunex_lms.repository.CourseRepository;
 import com.edunex.edunex_lms.repository.EnrollmentRepository;
 import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.service.AdminStatsService;
+import com.edunex.edunex_lms.service.BulkEnrollmentService;
+import com.edunex.edunex_lms.service.EnrollmentService;
+import com.edunex.edunex_lms.service.ExportService;
+import com.edunex.edunex_lms.service.JsonStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/enrollments")
@@ -28,46 +43,59 @@ public class EnrollmentController {
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final AdminStatsService adminStatsService;
+    private final BulkEnrollmentService bulkEnrollmentService;
+    private final EnrollmentService enrollmentService;
+    private final JsonStreamService jsonStreamService;
+    private final ExportService exportService;
+    
+    private static final List<ExportService.Column<Enrollment>> ROSTER_COLUMNS = List.of(
+        new ExportService.Column<>("USN", e -> e.getStudent().getUsn()),
+        new ExportService.Column<>("Student", e -> e.getStudent().getFullName()),
+        new ExportService.Column<>("Email", e -> e.getStudent().getEmail()),
+        new ExportService.Column<>("Status", Enrollment::getStatus),
+        new ExportService.Column<>("Progress %", Enrollment::getProgressPercentage),
+        new ExportService.Column<>("Final Grade", Enrollment::getFinalGrade),
+        new ExportService.Column<>("Enrolled At", Enrollment::getEnrolledAt),
+        new ExportService.Column<>("Completed At", Enrollment::getCompletedAt)
+    );
+    
+    @Value("${bulk.enrollments.max-per-request:10000}")
+    private int maxBulkEnrollments;
     
     @GetMapping("/my-enrollments")
     @PreAuthorize("hasAnyRole('STUDENT', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<List<Enrollment>> getMyEnrollments(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<EnrollmentResponse>> getMyEnrollments(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userRepository.findByUsername(userDetails.getUsername())
             .orElseThrow(() -> new ResourceNotFoundException("User", "username", userDetails.getUsername()));
         
         List<Enrollment> enrollments = enrollmentRepository.findByStudentId(user.getId());
-        return ResponseEntity.ok(enrollments);
+        return ResponseEntity.ok(enrollments.stream().map(EnrollmentResponse::from).toList());
     }
     
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<?> getCourseEnrollments(@PathVariable Long courseId) {
-        // Use JOIN FETCH to eagerly load student data
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseIdWithStudent(courseId);
-        
-        // Map to DTOs to avoid lazy loading issues
-        List<Map<String, Object>> enrollmentDTOs = enrollments.stream().map(enrollment -> {
-            Map<String, Object> dto = new HashMap<>();
-            dto.put("id", enrollment.getId());
-            dto.put("enrolledAt", enrollment.getEnrolledAt());
-            dto.put("status", enrollment.getStatus());
-            dto.put("progressPercentage", enrollment.getProgressPercentage());
-            
-            // Student info - now safely accessible due to JOIN FETCH
-            if (enrollment.getStudent() != null) {
-                Map<String, Object> studentInfo = new HashMap<>();
-                studentInfo.put("id", enrollment.getStudent().getId());
-                studentInfo.put("username", enrollment.getStudent().getUsername());
-                studentInfo.put("fullName", enrollment.getStudent().getFullName());
-                studentInfo.put("email", enrollment.getStudent().getEmail());
-                studentInfo.put("usn", enrollment.getStudent().getUsn());
-                dto.put("student", studentInfo);
-            }
-            
-            return dto;
-        }).toList();
-        
-        return ResponseEntity.ok(enrollmentDTOs);
+    public void getCourseEnrollments(@PathVariable Long courseId, HttpServletResponse response) throws IOException {
+        // The roster fetch plan loads the students with the enrollments, which are written as they are read
+        jsonStreamService.writeArray(response, () -> enrollmentService.streamCourseEnrollments(courseId),
+            EnrollmentResponse::from);
+    }
+    
+    /**
+     * Roster of a course as a csv, xlsx or pdf file
+     */
+    @GetMapping("/course/{courseId}/export")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public void exportCourseEnrollments(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "xlsx") String format,
+            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        Course course = courseRepository.findById(courseId)
+            .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
+        exportService.export(response, exportFormat, course.getCourseCode() + "-roster",
+            course.getCourseCode() + " Roster", ROSTER_COLUMNS,
+            () -> enrollmentService.streamCourseEnrollments(courseId));
     }
     
     @PostMapping("/enroll")
@@ -121,7 +149,7 @@ public class EnrollmentController {
             throw new InvalidOperationException("User is not a student");
         }
 
-        Course course = courseRepository.findById(courseId)
+        Course course = courseRepository.findWithInstructorById(courseId)
             .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
 
         // Check if already enrolled
@@ -136,6 +164,7 @@ public class EnrollmentController {
         enrollment.setCourse(course);
         enrollment.setStatus(Enrollment.EnrollmentStatus.ACTIVE);
         Enrollment saved = enrollmentRepository.save(enrollment);
+        adminStatsService.invalidate();
 
         return ResponseEntity.ok(Map.of(
             "success", true,
@@ -144,65 +173,92 @@ public class EnrollmentController {
         ));
     }
     
+    /**
+     * Enroll many students into one or more courses
+     * Students: studentIds, usns, or prefix + startRange..endRange; courses: courseId or courseIds
+     */
     @PostMapping("/bulk-enroll")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
     public ResponseEntity<Map<String, Object>> bulkEnroll(@RequestBody Map<String, Object> request) {
-        Long courseId = Long.valueOf(request.get("courseId").toString());
-        String prefix = request.get("prefix").toString();
-        int startRange = Integer.parseInt(request.get("startRange").toString());
-        int endRange = Integer.parseInt(request.get("endRange").toString());
+        Set<Long> courseIds = new LinkedHashSet<>();
+        if (request.get("courseId") != null) {
+            courseIds.add(Long.valueOf(request.get("courseId").toString()));
+        }
+        asList(request.get("courseIds")).forEach(id -> courseIds.add(Long.valueOf(id.toString())));
+        if (courseIds.isEmpty()) {
+            throw new InvalidOperationException("courseId or courseIds is required");
+        }
         
-        Course course = courseRepository.findById(courseId)
-            .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
+        Map<Long, CourseRef> courses = new HashMap<>();
+        courseRepository.findRefsByIdIn(courseIds).forEach(course -> courses.put(course.getId(), course));
+        for (Long courseId : courseIds) {
+            if (!courses.containsKey(courseId)) {
+                throw new ResourceNotFoundException("Course", "id", courseId);
+            }
+        }
+        
+        List<UserRef> students = new ArrayList<>();
+        Set<Long> seenStudentIds = new HashSet<>();
+        List<Long> studentIds = asList(request.get("studentIds")).stream()
+            .map(id -> Long.valueOf(id.toString()))
+            .distinct()
+            .toList();
+        List<String> usns = new ArrayList<>(asList(request.get("usns")).stream().map(Object::toString).toList());
+        if (request.get("prefix") != null) {
+            String prefix = request.get("prefix").toString();
+            int startRange = Integer.parseInt(request.get("startRange").toString());
+            int endRange = Integer.parseInt(request.get("endRange").toString());
+            if (startRange > endRange) {
+                throw new InvalidOperationException("startRange cannot be greater than endRange");
+            }
+            if (endRange - startRange >= maxBulkEnrollments) {
+                throw new InvalidOperationException("Cannot enroll more than " + maxBulkEnrollments + " students at once");
+            }
+            for (int i = startRange; i <= endRange; i++) {
+                usns.add(prefix + String.format("%03d", i));
+            }
+        }
+        usns = usns.stream().distinct().toList();
+        if (studentIds.isEmpty() && usns.isEmpty()) {
+            throw new InvalidOperationException("studentIds, usns, or prefix, startRange and endRange are required");
+        }
+        if ((long) (studentIds.size() + usns.size()) * courseIds.size() > maxBulkEnrollments) {
+            throw new InvalidOperationException("Cannot create more than " + maxBulkEnrollments + " enrollments at once");
+        }
         
-        List<String> enrolled = new ArrayList<>();
-        List<Map<String, String>> failed = new ArrayList<>();
-        List<String> alreadyEnrolled = new ArrayList<>();
+        List<Map<String, Object>> failed = new ArrayList<>();
+        if (!studentIds.isEmpty()) {
+            Map<Long, UserRef> found = new HashMap<>();
+            userRepository.findRefsByIdIn(studentIds).forEach(user -> found.put(user.getId(), user));
+            for (Long studentId : studentIds) {
+                addStudent(studentId, found.get(studentId), students, seenStudentIds, failed);
+            }
+        }
+        if (!usns.isEmpty()) {
+            Map<String, UserRef> found = new HashMap<>();
+            userRepository.findRefsByUsnIn(usns).forEach(user -> found.put(user.getUsn().toLowerCase(), user));
+            for (String usn : usns) {
+                addStudent(usn, found.get(usn.toLowerCase()), students, seenStudentIds, failed);
+            }
+        }
         
-        for (int i = startRange; i <= endRange; i++) {
-            String usn = prefix + String.format("%03d", i);
-            
-            try {
-                User student = userRepository.findByUsn(usn).orElse(null);
-                
-                if (student == null) {
-                    Map<String, String> failureInfo = new HashMap<>();
-                    failureInfo.put("usn", usn);
-                    failureInfo.put("reason", "User not found");
-                    failed.add(failureInfo);
-                    continue;
-                }
-                
-                if (!student.getRole().equals(User.Role.STUDENT)) {
-                    Map<String, String> failureInfo = new HashMap<>();
-                    failureInfo.put("usn", usn);
-                    failureInfo.put("reason", "Not a student");
-                    failed.add(failureInfo);
-                    continue;
-                }
-                
-                // Check if already enrolled
-                boolean exists = enrollmentRepository.existsByStudentIdAndCourseId(student.getId(), courseId);
-                if (exists) {
-                    alreadyEnrolled.add(usn);
-                    continue;
-                }
-                
-                Enrollment enrollment = new Enrollment();
-                enrollment.setStudent(student);
-                enrollment.setCourse(course);
-                enrollment.setStatus(Enrollment.EnrollmentStatus.ACTIVE);
-                enrollmentRepository.save(enrollment);
-                
-                enrolled.add(usn);
-            } catch (Exception e) {
-                Map<String, String> failureInfo = new HashMap<>();
-                failureInfo.put("usn", usn);
-                failureInfo.put("reason", e.getMessage());
-                failed.add(failureInfo);
+        List<EnrollmentPair> pairs = new ArrayList<>();
+        Map<Long, UserRef> studentsById = new HashMap<>();
+        for (UserRef student : students) {
+            studentsById.put(student.getId(), student);
+            for (Long courseId : courseIds) {
+                pairs.add(new EnrollmentPair(student.getId(), courseId));
             }
         }
         
+        BulkEnrollmentService.EnrollResult result = bulkEnrollmentService.enrollPairs(pairs);
+        List<Map<String, Object>> enrolled = toEntries(result.enrolled(), studentsById, courses);
+        List<Map<String, Object>> alreadyEnrolled = toEntries(result.alreadyEnrolled(), studentsById, courses);
+        for (Map<String, Object> entry : toEntries(result.courseFull(), studentsById, courses)) {
+            entry.put("reason", "Course is full");
+            failed.add(entry);
+        }
+        
         Map<String, Object> response = new HashMap<>();
         response.put("enrolled", enrolled);
         response.put("enrolledCount", enrolled.size());
@@ -213,4 +269,43 @@ public class EnrollmentController {
         
         return ResponseEntity.ok(response);
     }
+    
+    private void addStudent(Object key, UserRef user, List<UserRef> students, Set<Long> seenStudentIds,
+                            List<Map<String, Object>> failed) {
+        String reason = null;
+        if (user == null) {
+            reason = "User not found";
+        } else if (user.getRole() != User.Role.STUDENT) {
+            reason = "Not a student";
+        } else if (seenStudentIds.add(user.getId())) {
+            students.add(user);
+        }
+        
+        if (reason != null) {
+            Map<String, Object> failureInfo = new HashMap<>();
+            failureInfo.put(key instanceof Long ? "studentId" : "usn", key);
+            failureInfo.put("reason", reason);
+            failed.add(failureInfo);
+        }
+    }
+    
+    private static List<Map<String, Object>> toEntries(List<EnrollmentPair> pairs, Map<Long, UserRef> students,
+                                                      Map<Long, CourseRef> courses) {
+        List<Map<String, Object>> entries = new ArrayList<>(pairs.size());
+        for (EnrollmentPair pair : pairs) {
+            UserRef student = students.get(pair.studentId());
+            CourseRef course = courses.get(pair.courseId());
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("studentId", pair.studentId());
+            entry.put("usn", student.getUsn());
+            entry.put("courseId", pair.courseId());
+            entry.put("courseCode", course.getCourseCode());
+            entries.add(entry);
+        }
+        return entries;
+    }
+    
+    private static List<?> asList(Object value) {
+        return value instanceof List<?> list ? list : List.of();
+    }
 }
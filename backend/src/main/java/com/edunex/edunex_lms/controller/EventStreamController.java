@@ -0,0 +1,36 @@
+package com.edunex.edunex_lms.controller;
+
+import com.edunex.edunex_lms.security.UserDetailsImpl;
+import com.edunex.edunex_lms.service.EventStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+    
+    private static final int MAX_INITIAL_ACTIVITIES = 200;
+    
+    private final EventStreamService eventStreamService;
+    
+    /**
+     * Server-sent event stream of the authenticated user's notifications: "grade" events for students,
+     * "material" events for the students of a course and "activity" events for admins
+     * Browsers' EventSource cannot set headers, so this path also accepts the JWT as a token query parameter
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") int initialActivities,
+                             @AuthenticationPrincipal UserDetails userDetails) {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
+        return eventStreamService.subscribe(userDetailsImpl.getId(), userDetailsImpl.getRole(),
+            Math.max(0, Math.min(initialActivities, MAX_INITIAL_ACTIVITIES)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.edunex.edunex_lms.controller;
+
+import com.edunex.edunex_lms.dto.ImportJob;
+import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.exception.InvalidOperationException;
+import com.edunex.edunex_lms.exception.ResourceNotFoundException;
+import com.edunex.edunex_lms.service.RosterFileReader;
+import com.edunex.edunex_lms.service.RosterImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/import")
+@RequiredArgsConstructor
+public class ImportController {
+    
+    private final RosterImportService rosterImportService;
+    
+    /**
+     * Import users from a CSV or XLSX roster
+     * Columns: username, usn, email, fullName, phone, password, role (header names are case and space insensitive)
+     */
+    @PostMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportJob> importUsers(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "STUDENT") String role,
+            @RequestParam(required = false) String password,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        validateFile(file);
+        User.Role defaultRole;
+        try {
+            defaultRole = User.Role.valueOf(role.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Invalid role: " + role);
+        }
+        
+        ImportJob job = rosterImportService.startUserImport(file, defaultRole, password, userDetails.getUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+    
+    /**
+     * Import enrollments from a CSV or XLSX roster
+     * Columns: usn (or username) and courseCode; courseCode may instead be given as a request parameter
+     */
+    @PostMapping("/enrollments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportJob> importEnrollments(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String courseCode,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        validateFile(file);
+        ImportJob job = rosterImportService.startEnrollmentImport(file, courseCode, userDetails.getUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+    
+    @GetMapping("/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ImportJob>> getJobs() {
+        return ResponseEntity.ok(rosterImportService.getJobs());
+    }
+    
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportJob> getJob(@PathVariable String jobId) {
+        ImportJob job = rosterImportService.getJob(jobId)
+            .orElseThrow(() -> new ResourceNotFoundException("Import job", "id", jobId));
+        return ResponseEntity.ok(job);
+    }
+    
+    private void validateFile(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new InvalidOperationException("File is empty");
+        }
+        if (!RosterFileReader.isSupported(file.getOriginalFilename())) {
+            throw new InvalidOperationException("Only .csv and .xlsx files are supported");
+        }
+    }
+}
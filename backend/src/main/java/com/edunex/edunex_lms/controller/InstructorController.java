@@ -1,14 +1,19 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.dto.AttendanceResponse;
+import com.edunex.edunex_lms.dto.EnrollmentResponse;
 import com.edunex.edunex_lms.entity.Attendance;
 import com.edunex.edunex_lms.entity.Enrollment;
 import com.edunex.edunex_lms.service.AttendanceService;
 import com.edunex.edunex_lms.service.EnrollmentService;
+import com.edunex.edunex_lms.service.JsonStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -20,29 +25,30 @@ public class InstructorController {
     
     private final AttendanceService attendanceService;
     private final EnrollmentService enrollmentService;
+    private final JsonStreamService jsonStreamService;
     
     // Attendance marking functionality
     @PostMapping("/attendance")
-    public ResponseEntity<Attendance> markAttendance(
+    public ResponseEntity<AttendanceResponse> markAttendance(
             @RequestParam Long studentId,
             @RequestParam Long courseId,
             @RequestParam String status) {
         Attendance attendance = attendanceService.markAttendance(studentId, courseId, status);
-        return ResponseEntity.ok(attendance);
+        return ResponseEntity.ok(AttendanceResponse.from(attendance));
     }
     
     @GetMapping("/attendance/course/{courseId}")
-    public ResponseEntity<List<Attendance>> getCourseAttendance(@PathVariable Long courseId) {
-        List<Attendance> attendance = attendanceService.getAttendanceByCourse(courseId);
-        return ResponseEntity.ok(attendance);
+    public void getCourseAttendance(@PathVariable Long courseId, HttpServletResponse response) throws IOException {
+        jsonStreamService.writeArray(response, () -> attendanceService.streamAttendanceByCourse(courseId),
+            AttendanceResponse::from);
     }
     
     @GetMapping("/attendance/student/{studentId}/course/{courseId}")
-    public ResponseEntity<List<Attendance>> getStudentCourseAttendance(
+    public ResponseEntity<List<AttendanceResponse>> getStudentCourseAttendance(
             @PathVariable Long studentId,
             @PathVariable Long courseId) {
         List<Attendance> attendance = attendanceService.getAttendanceByStudentAndCourse(studentId, courseId);
-        return ResponseEntity.ok(attendance);
+        return ResponseEntity.ok(attendance.stream().map(AttendanceResponse::from).toList());
     }
     
     @GetMapping("/attendance/rate")
@@ -66,8 +72,8 @@ public class InstructorController {
     }
     
     @GetMapping("/enrollments/course/{courseId}")
-    public ResponseEntity<List<Enrollment>> getCourseEnrollments(@PathVariable Long courseId) {
-        List<Enrollment> enrollments = enrollmentService.getCourseEnrollments(courseId);
-        return ResponseEntity.ok(enrollments);
+    public void getCourseEnrollments(@PathVariable Long courseId, HttpServletResponse response) throws IOException {
+        jsonStreamService.writeArray(response, () -> enrollmentService.streamCourseEnrollments(courseId),
+            EnrollmentResponse::from);
     }
 }
@@ -1,13 +1,17 @@
 package com.edunex.edunex_lms.controller;
 
+import com.edunex.edunex_lms.dto.EnrollmentResponse;
 import com.edunex.edunex_lms.entity.Enrollment;
 import com.edunex.edunex_lms.service.EnrollmentService;
+import com.edunex.edunex_lms.service.JsonStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,13 +20,14 @@ import java.util.List;
 public class StudentController {
     
     private final EnrollmentService enrollmentService;
+    private final JsonStreamService jsonStreamService;
     
     @PostMapping
     @PreAuthorize("hasRole('STUDENT')")
     @Transactional(readOnly = true)
-    public ResponseEntity<Enrollment> enrollStudent(@RequestParam Long studentId, @RequestParam Long courseId) {
+    public ResponseEntity<EnrollmentResponse> enrollStudent(@RequestParam Long studentId, @RequestParam Long courseId) {
         Enrollment enrollment = enrollmentService.enrollStudent(studentId, courseId);
-        return ResponseEntity.ok(enrollment);
+        return ResponseEntity.ok(EnrollmentResponse.from(enrollment));
     }
     
     @PutMapping("/{id}/drop")
@@ -35,32 +40,31 @@ public class StudentController {
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('STUDENT')")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<Enrollment>> getStudentEnrollments(@PathVariable Long studentId) {
+    public ResponseEntity<List<EnrollmentResponse>> getStudentEnrollments(@PathVariable Long studentId) {
         List<Enrollment> enrollments = enrollmentService.getStudentEnrollments(studentId);
-        return ResponseEntity.ok(enrollments);
+        return ResponseEntity.ok(enrollments.stream().map(EnrollmentResponse::from).toList());
     }
     
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<Enrollment>> getCourseEnrollments(@PathVariable Long courseId) {
-        List<Enrollment> enrollments = enrollmentService.getCourseEnrollments(courseId);
-        return ResponseEntity.ok(enrollments);
+    public void getCourseEnrollments(@PathVariable Long courseId, HttpServletResponse response) throws IOException {
+        jsonStreamService.writeArray(response, () -> enrollmentService.streamCourseEnrollments(courseId),
+            EnrollmentResponse::from);
     }
     
     @PutMapping("/{id}/progress")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     @Transactional(readOnly = true)
-    public ResponseEntity<Enrollment> updateProgress(@PathVariable Long id, @RequestParam Double progress) {
+    public ResponseEntity<EnrollmentResponse> updateProgress(@PathVariable Long id, @RequestParam Double progress) {
         Enrollment enrollment = enrollmentService.updateProgress(id, progress);
-        return ResponseEntity.ok(enrollment);
+        return ResponseEntity.ok(EnrollmentResponse.from(enrollment));
     }
     
     @PutMapping("/{id}/grade")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     @Transactional(readOnly = true)
-    public ResponseEntity<Enrollment> calculateFinalGrade(@PathVariable Long id, @RequestParam Double grade) {
+    public ResponseEntity<EnrollmentResponse> calculateFinalGrade(@PathVariable Long id, @RequestParam Double grade) {
         Enrollment enrollment = enrollmentService.calculateFinalGrade(id, grade);
-        return ResponseEntity.ok(enrollment);
+        return ResponseEntity.ok(EnrollmentResponse.from(enrollment));
     }
 }
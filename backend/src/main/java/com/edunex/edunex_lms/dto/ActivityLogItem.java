@@ -0,0 +1,25 @@
+package com.edunex.edunex_lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One activity log entry as listed in the admin activity feed
+ * Filled by a JPQL constructor expression, so the user is referenced by ID only
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogItem {
+    
+    private Long id;
+    private String activityType;
+    private String description;
+    private Long userId;
+    private String entityType;
+    private Long entityId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,56 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Assignment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat assignment row for listings, filled by a JPQL constructor expression
+ * Leaves out the description and feedback TEXT columns. The submission fields are only filled in
+ * student listings, from that student's own submission.
+ */
+@Data
+@NoArgsConstructor
+public class AssignmentListItem {
+    
+    private Long id;
+    private String title;
+    private LocalDateTime dueDate;
+    private Integer maxMarks;
+    private String attachmentUrl;
+    private Long courseId;
+    private String courseCode;
+    private String courseName;
+    private LocalDateTime createdAt;
+    private Long submissionId;
+    private StudentAssignmentItem.Status status;
+    private LocalDateTime submittedAt;
+    private Integer marksObtained;
+    
+    public AssignmentListItem(Long id, String title, LocalDateTime dueDate, Integer maxMarks, String attachmentUrl,
+                              Long courseId, String courseCode, String courseName, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.dueDate = dueDate;
+        this.maxMarks = maxMarks;
+        this.attachmentUrl = attachmentUrl;
+        this.courseId = courseId;
+        this.courseCode = courseCode;
+        this.courseName = courseName;
+        this.createdAt = createdAt;
+    }
+    
+    public AssignmentListItem(Long id, String title, LocalDateTime dueDate, Integer maxMarks, String attachmentUrl,
+                              Long courseId, String courseCode, String courseName, LocalDateTime createdAt,
+                              Long submissionId, Assignment.SubmissionStatus submissionStatus,
+                              LocalDateTime submittedAt, Integer marksObtained) {
+        this(id, title, dueDate, maxMarks, attachmentUrl, courseId, courseCode, courseName, createdAt);
+        this.submissionId = submissionId;
+        this.submittedAt = submittedAt;
+        this.marksObtained = marksObtained;
+        this.status = StudentAssignmentItem.resolveStatus(submissionId != null ? submissionStatus : null,
+            marksObtained, dueDate);
+    }
+}
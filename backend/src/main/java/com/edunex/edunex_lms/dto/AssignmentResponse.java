@@ -0,0 +1,19 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Assignment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Assignment definition with its course; submissions are returned separately
+ */
+public record AssignmentResponse(Long id, CourseSummary course, String title, String description,
+                                 LocalDateTime dueDate, Integer maxMarks, String attachmentUrl,
+                                 LocalDateTime createdAt, LocalDateTime updatedAt) {
+    
+    public static AssignmentResponse from(Assignment assignment) {
+        return new AssignmentResponse(assignment.getId(), CourseSummary.from(assignment.getCourse()),
+            assignment.getTitle(), assignment.getDescription(), assignment.getDueDate(), assignment.getMaxMarks(),
+            assignment.getAttachmentUrl(), assignment.getCreatedAt(), assignment.getUpdatedAt());
+    }
+}
@@ -0,0 +1,20 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Attendance;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Attendance record with the student, course and marker its query loaded
+ */
+public record AttendanceResponse(Long id, UserBrief student, CourseSummary course, LocalDate attendanceDate,
+                                 Attendance.AttendanceStatus status, String remarks, LocalDateTime markedAt,
+                                 UserBrief markedBy) {
+    
+    public static AttendanceResponse from(Attendance attendance) {
+        return new AttendanceResponse(attendance.getId(), UserBrief.from(attendance.getStudent()),
+            CourseSummary.from(attendance.getCourse()), attendance.getAttendanceDate(), attendance.getStatus(),
+            attendance.getRemarks(), attendance.getMarkedAt(), UserBrief.from(attendance.getMarkedBy()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.edunex.edunex_lms.dto;
+
+/**
+ * Result row of a grouped enrollment count per course
+ */
+public interface CourseEnrollmentCount {
+    
+    Long getCourseId();
+    
+    long getEnrollmentCount();
+}
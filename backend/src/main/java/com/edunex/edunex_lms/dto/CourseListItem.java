@@ -0,0 +1,42 @@
+package com.edunex.edunex_lms.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat course row for admin listings, filled by a JPQL constructor expression
+ * The enrollment count is attached afterwards from a single grouped query
+ */
+@Data
+@NoArgsConstructor
+public class CourseListItem {
+    
+    private Long id;
+    private String courseCode;
+    private String courseName;
+    private String category;
+    private Integer credits;
+    private Integer maxStudents;
+    private Boolean isActive;
+    private Long instructorId;
+    private String instructorName;
+    private LocalDateTime createdAt;
+    private long enrollmentCount;
+    
+    public CourseListItem(Long id, String courseCode, String courseName, String category, Integer credits,
+                          Integer maxStudents, Boolean isActive, Long instructorId, String instructorName,
+                          LocalDateTime createdAt) {
+        this.id = id;
+        this.courseCode = courseCode;
+        this.courseName = courseName;
+        this.category = category;
+        this.credits = credits;
+        this.maxStudents = maxStudents;
+        this.isActive = isActive;
+        this.instructorId = instructorId;
+        this.instructorName = instructorName;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,13 @@
+package com.edunex.edunex_lms.dto;
+
+/**
+ * Minimal course reference used to resolve roster keys without loading full entities
+ */
+public interface CourseRef {
+    
+    Long getId();
+    
+    String getCourseCode();
+    
+    Integer getMaxStudents();
+}
@@ -0,0 +1,20 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Course;
+
+import java.time.LocalDateTime;
+
+/**
+ * Course for catalogue and detail views, with its instructor
+ */
+public record CourseResponse(Long id, String courseCode, String courseName, String description, String category,
+                             String thumbnailUrl, Integer credits, Integer maxStudents, Boolean isActive,
+                             UserBrief instructor, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    
+    public static CourseResponse from(Course course) {
+        return new CourseResponse(course.getId(), course.getCourseCode(), course.getCourseName(),
+            course.getDescription(), course.getCategory(), course.getThumbnailUrl(), course.getCredits(),
+            course.getMaxStudents(), course.getIsActive(), UserBrief.from(course.getInstructor()),
+            course.getCreatedAt(), course.getUpdatedAt());
+    }
+}
@@ -0,0 +1,29 @@
+package com.edunex.edunex_lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A course as held by the search index and returned from catalogue searches
+ * Filled by a JPQL constructor expression when the index is built; score is set per search
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSearchHit {
+    
+    private Long id;
+    private String courseCode;
+    private String courseName;
+    private String category;
+    private String description;
+    private Integer credits;
+    private Boolean isActive;
+    private double score;
+    
+    public CourseSearchHit(Long id, String courseCode, String courseName, String category, String description,
+                           Integer credits, Boolean isActive) {
+        this(id, courseCode, courseName, category, description, credits, isActive, 0);
+    }
+}
@@ -0,0 +1,26 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Course;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.hibernate.Hibernate;
+
+/**
+ * Course as shown inside another resource (enrollment, attendance record)
+ * A course the query did not load is written with its ID only
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CourseSummary(Long id, String courseCode, String courseName, String description, String category,
+                            String thumbnailUrl, Integer credits, Boolean isActive, UserBrief instructor) {
+    
+    public static CourseSummary from(Course course) {
+        if (course == null) {
+            return null;
+        }
+        if (!Hibernate.isInitialized(course)) {
+            return new CourseSummary(course.getId(), null, null, null, null, null, null, null, null);
+        }
+        return new CourseSummary(course.getId(), course.getCourseCode(), course.getCourseName(),
+            course.getDescription(), course.getCategory(), course.getThumbnailUrl(), course.getCredits(),
+            course.getIsActive(), UserBrief.from(course.getInstructor()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.edunex.edunex_lms.dto;
+
+/**
+ * A (student, course) pair, used for set-based enrollment checks and inserts
+ */
+public record EnrollmentPair(Long studentId, Long courseId) {
+}
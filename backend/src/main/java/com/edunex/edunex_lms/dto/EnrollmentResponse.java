@@ -0,0 +1,19 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Enrollment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Enrollment with the student and course its query loaded
+ */
+public record EnrollmentResponse(Long id, UserBrief student, CourseSummary course, Enrollment.EnrollmentStatus status,
+                                 Double progressPercentage, Double finalGrade, LocalDateTime enrolledAt,
+                                 LocalDateTime completedAt) {
+    
+    public static EnrollmentResponse from(Enrollment enrollment) {
+        return new EnrollmentResponse(enrollment.getId(), UserBrief.from(enrollment.getStudent()),
+            CourseSummary.from(enrollment.getCourse()), enrollment.getStatus(), enrollment.getProgressPercentage(),
+            enrollment.getFinalGrade(), enrollment.getEnrolledAt(), enrollment.getCompletedAt());
+    }
+}
@@ -0,0 +1,11 @@
+package com.edunex.edunex_lms.dto;
+
+/**
+ * Content hash and stored path of an uploaded file, used to drop blob references without loading entities
+ */
+public interface FileRef {
+    
+    String getContentHash();
+    
+    String getPath();
+}
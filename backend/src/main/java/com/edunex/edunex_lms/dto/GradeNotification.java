@@ -0,0 +1,25 @@
+package com.edunex.edunex_lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pushed to a student when one of their submissions is graded
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeNotification {
+    
+    private Long submissionId;
+    private Long assignmentId;
+    private String assignmentTitle;
+    private Long courseId;
+    private Integer marksObtained;
+    private Integer maxMarks;
+    private String feedback;
+    private LocalDateTime gradedAt;
+}
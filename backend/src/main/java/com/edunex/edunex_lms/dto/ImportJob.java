@@ -0,0 +1,115 @@
+package com.edunex.edunex_lms.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a roster import running in the background
+ * Only the first maxErrors row errors are kept; errorCount always holds the total
+ */
+@Getter
+public class ImportJob {
+
+    public enum Type {
+        USERS, ENROLLMENTS
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public record RowError(long row, String key, String reason) {
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Type type;
+    private final String fileName;
+    private final String requestedBy;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String message;
+
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong succeededRows = new AtomicLong();
+    private final AtomicLong skippedRows = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private final int maxErrors;
+
+    public ImportJob(Type type, String fileName, String requestedBy, int maxErrors) {
+        this.type = type;
+        this.fileName = fileName;
+        this.requestedBy = requestedBy;
+        this.maxErrors = maxErrors;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void addProcessed(long rows) {
+        processedRows.addAndGet(rows);
+    }
+
+    public void addSucceeded(long rows) {
+        succeededRows.addAndGet(rows);
+    }
+
+    public void addSkipped(long rows) {
+        skippedRows.addAndGet(rows);
+    }
+
+    public void addError(long row, String key, String reason) {
+        errorCount.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, key, reason));
+            }
+        }
+    }
+
+    public long getProcessedRows() {
+        return processedRows.get();
+    }
+
+    public long getSucceededRows() {
+        return succeededRows.get();
+    }
+
+    public long getSkippedRows() {
+        return skippedRows.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
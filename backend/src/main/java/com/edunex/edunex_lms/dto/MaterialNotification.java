@@ -0,0 +1,21 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.CourseMaterial;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pushed to the students of a course when a material is added to it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialNotification {
+    
+    private Long materialId;
+    private Long courseId;
+    private String courseName;
+    private String title;
+    private CourseMaterial.MaterialType type;
+}
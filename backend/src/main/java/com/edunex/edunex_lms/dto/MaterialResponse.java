@@ -0,0 +1,20 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.CourseMaterial;
+
+import java.time.LocalDateTime;
+
+/**
+ * Course material with its course and uploader; file details are set for uploaded files only
+ */
+public record MaterialResponse(Long id, CourseSummary course, String title, String description,
+                               CourseMaterial.MaterialType type, String url, String fileName, Long fileSize,
+                               String contentType, UserBrief uploadedBy, LocalDateTime uploadedAt) {
+    
+    public static MaterialResponse from(CourseMaterial material) {
+        return new MaterialResponse(material.getId(), CourseSummary.from(material.getCourse()), material.getTitle(),
+            material.getDescription(), material.getType(), material.getUrl(), material.getFileName(),
+            material.getFileSize(), material.getContentType(), UserBrief.from(material.getUploadedBy()),
+            material.getUploadedAt());
+    }
+}
@@ -0,0 +1,15 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.User;
+
+/**
+ * Result row of the user count grouped by role and enabled flag
+ */
+public interface RoleStatusCount {
+    
+    User.Role getRole();
+    
+    Boolean getEnabled();
+    
+    long getUserCount();
+}
@@ -0,0 +1,69 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Assignment;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One assignment in a student's feed together with that student's own submission, if any
+ * Filled by a JPQL constructor expression; the description is left out
+ */
+@Data
+@NoArgsConstructor
+public class StudentAssignmentItem {
+    
+    public enum Status {
+        PENDING, OVERDUE, SUBMITTED, LATE_SUBMISSION, GRADED
+    }
+    
+    private Long id;
+    private String title;
+    private LocalDateTime dueDate;
+    private Integer maxMarks;
+    private String attachmentUrl;
+    private Long courseId;
+    private String courseCode;
+    private String courseName;
+    private Long submissionId;
+    private Status status;
+    private LocalDateTime submittedAt;
+    private Integer marksObtained;
+    private String feedback;
+    private LocalDateTime updatedAt;
+    
+    public StudentAssignmentItem(Long id, String title, LocalDateTime dueDate, Integer maxMarks, String attachmentUrl,
+                                 Long courseId, String courseCode, String courseName, Long submissionId,
+                                 Assignment.SubmissionStatus submissionStatus, LocalDateTime submittedAt,
+                                 Integer marksObtained, String feedback, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.dueDate = dueDate;
+        this.maxMarks = maxMarks;
+        this.attachmentUrl = attachmentUrl;
+        this.courseId = courseId;
+        this.courseCode = courseCode;
+        this.courseName = courseName;
+        this.submissionId = submissionId;
+        this.submittedAt = submittedAt;
+        this.marksObtained = marksObtained;
+        this.feedback = feedback;
+        this.updatedAt = updatedAt;
+        this.status = resolveStatus(submissionId != null ? submissionStatus : null, marksObtained, dueDate);
+    }
+    
+    static Status resolveStatus(Assignment.SubmissionStatus submissionStatus, Integer marksObtained,
+                                        LocalDateTime dueDate) {
+        if (submissionStatus == Assignment.SubmissionStatus.GRADED || marksObtained != null) {
+            return Status.GRADED;
+        }
+        if (submissionStatus == Assignment.SubmissionStatus.LATE_SUBMISSION) {
+            return Status.LATE_SUBMISSION;
+        }
+        if (submissionStatus == Assignment.SubmissionStatus.SUBMITTED) {
+            return Status.SUBMITTED;
+        }
+        return dueDate != null && dueDate.isBefore(LocalDateTime.now()) ? Status.OVERDUE : Status.PENDING;
+    }
+}
@@ -0,0 +1,21 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.Assignment;
+import com.edunex.edunex_lms.entity.Submission;
+
+import java.time.LocalDateTime;
+
+/**
+ * Submission with its student, for grading views
+ */
+public record SubmissionResponse(Long id, Long assignmentId, UserBrief student, String submissionUrl, String fileName,
+                                 Long fileSize, LocalDateTime submittedAt, Integer marksObtained, String feedback,
+                                 Assignment.SubmissionStatus status, LocalDateTime gradedAt) {
+    
+    public static SubmissionResponse from(Submission submission) {
+        return new SubmissionResponse(submission.getId(), submission.getAssignmentId(),
+            UserBrief.from(submission.getStudent()), submission.getSubmissionUrl(), submission.getFileName(),
+            submission.getFileSize(), submission.getSubmittedAt(), submission.getMarksObtained(),
+            submission.getFeedback(), submission.getStatus(), submission.getGradedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.edunex.edunex_lms.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time before which a user's tokens are no longer accepted
+ */
+public interface TokenCutoff {
+    
+    Long getId();
+    
+    LocalDateTime getTokensValidAfter();
+}
@@ -0,0 +1,24 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.hibernate.Hibernate;
+
+/**
+ * User as shown inside another resource (student, instructor, marker); never carries the password hash
+ * A user the query did not load is written with its ID only
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserBrief(Long id, String username, String fullName, String email, String usn, User.Role role) {
+    
+    public static UserBrief from(User user) {
+        if (user == null) {
+            return null;
+        }
+        if (!Hibernate.isInitialized(user)) {
+            return new UserBrief(user.getId(), null, null, null, null, null);
+        }
+        return new UserBrief(user.getId(), user.getUsername(), user.getFullName(), user.getEmail(), user.getUsn(),
+            user.getRole());
+    }
+}
@@ -0,0 +1,13 @@
+package com.edunex.edunex_lms.dto;
+
+/**
+ * Unique identifiers of an existing user, used for set-based duplicate checks
+ */
+public interface UserIdentity {
+    
+    String getUsername();
+    
+    String getEmail();
+    
+    String getUsn();
+}
@@ -0,0 +1,17 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.User;
+
+/**
+ * Minimal user reference used to resolve roster keys without loading full entities
+ */
+public interface UserRef {
+    
+    Long getId();
+    
+    String getUsername();
+    
+    String getUsn();
+    
+    User.Role getRole();
+}
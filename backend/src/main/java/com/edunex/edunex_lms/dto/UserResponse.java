@@ -0,0 +1,26 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.User;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * User for admin listings, also filled by a JPQL constructor expression; never carries the password hash
+ */
+public record UserResponse(Long id, String username, String email, String fullName, String usn, String phoneNumber,
+                           String profilePicture, User.Role role, Boolean enabled, Boolean accountNonLocked,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+    
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(), user.getUsn(),
+            user.getPhoneNumber(), user.getProfilePicture(), user.getRole(), user.getEnabled(),
+            user.getAccountNonLocked(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+    
+    // Alias for 'enabled' to match frontend expectations
+    @JsonProperty("isActive")
+    public Boolean isActive() {
+        return enabled;
+    }
+}
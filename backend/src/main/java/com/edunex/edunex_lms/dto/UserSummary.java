@@ -0,0 +1,36 @@
+package com.edunex.edunex_lms.dto;
+
+import com.edunex.edunex_lms.entity.User;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a user for admin listings; never carries the password hash
+ */
+public interface UserSummary {
+    
+    Long getId();
+    
+    String getUsername();
+    
+    String getEmail();
+    
+    String getFullName();
+    
+    String getUsn();
+    
+    String getPhoneNumber();
+    
+    User.Role getRole();
+    
+    Boolean getEnabled();
+    
+    LocalDateTime getCreatedAt();
+    
+    // Alias for 'enabled' to match frontend expectations
+    @JsonProperty("isActive")
+    default Boolean getIsActive() {
+        return getEnabled();
+    }
+}
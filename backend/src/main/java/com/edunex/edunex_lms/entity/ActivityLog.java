@@ -9,7 +9,12 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+    @Index(name = "idx_activity_logs_created", columnList = "created_at"),
+    @Index(name = "idx_activity_logs_type_created", columnList = "activity_type, created_at"),
+    @Index(name = "idx_activity_logs_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_activity_logs_entity_created", columnList = "entity_type, entity_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,8 +30,9 @@ public class ActivityLog {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String description;
     
+    // No foreign key: logs outlive deleted users, and MySQL cannot partition a table that has one
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
     
     @Column
@@ -12,7 +12,15 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments", indexes = {
+    @Index(name = "idx_assignments_course_due", columnList = "course_id, due_date, id"),
+    @Index(name = "idx_assignments_course_title", columnList = "course_id, title"),
+    @Index(name = "idx_assignments_student", columnList = "student_id"),
+    @Index(name = "idx_assignments_due", columnList = "due_date, id")
+})
+@NamedEntityGraph(name = "Assignment.list", attributeNodes = {
+    @NamedAttributeNode("course")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +30,7 @@ public class Assignment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     @JsonIgnoreProperties({"instructor", "enrollments", "materials", "quizzes", "assignments", "attendance"})
     private Course course;
@@ -43,8 +51,8 @@ public class Assignment {
     @Column(length = 500)
     private String attachmentUrl;
     
-    // Student submission fields
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Legacy submission fields; submissions now live in Submission and these stay empty on definitions
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id")
     @JsonIgnoreProperties({"password", "enrollments", "instructedCourses"})
     private User student;
@@ -13,6 +13,17 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "attendance", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "course_id", "attendance_date"})
+}, indexes = {
+    @Index(name = "idx_attendance_course_date", columnList = "course_id, attendance_date")
+})
+@NamedEntityGraph(name = "Attendance.roster", attributeNodes = {
+    @NamedAttributeNode("student"),
+    @NamedAttributeNode("course"),
+    @NamedAttributeNode("markedBy")
+})
+@NamedEntityGraph(name = "Attendance.studentView", attributeNodes = {
+    @NamedAttributeNode("course"),
+    @NamedAttributeNode("markedBy")
 })
 @Data
 @NoArgsConstructor
@@ -23,12 +34,12 @@ public class Attendance {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     @JsonIgnoreProperties({"password", "enrollments", "instructedCourses"})
     private User student;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     @JsonIgnoreProperties({"instructor", "enrollments", "materials", "quizzes", "assignments", "attendance"})
     private Course course;
@@ -47,7 +58,7 @@ public class Attendance {
     @Column(nullable = false, updatable = false)
     private LocalDateTime markedAt;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "marked_by")
     @JsonIgnoreProperties({"password", "enrollments", "instructedCourses"})
     private User markedBy;
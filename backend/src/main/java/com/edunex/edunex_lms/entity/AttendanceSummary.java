@@ -0,0 +1,58 @@
+package com.edunex.edunex_lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running attendance counters per student and course
+ * Maintained alongside every attendance write so rates never need to scan attendance rows
+ */
+@Entity
+@Table(name = "attendance_summary", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "course_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private User student;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+    
+    @Column(nullable = false)
+    private Integer presentCount = 0;
+    
+    @Column(nullable = false)
+    private Integer absentCount = 0;
+    
+    @Column(nullable = false)
+    private Integer lateCount = 0;
+    
+    @Column(nullable = false)
+    private Integer excusedCount = 0;
+    
+    @Column(nullable = false)
+    private Integer totalCount = 0;
+    
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public double getRate() {
+        return totalCount == null || totalCount == 0 ? 0.0 : (double) presentCount / totalCount * 100;
+    }
+}
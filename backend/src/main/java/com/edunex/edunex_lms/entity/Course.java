@@ -15,7 +15,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+    @Index(name = "idx_courses_instructor_active", columnList = "instructor_id, is_active"),
+    @Index(name = "idx_courses_active_category", columnList = "is_active, category"),
+    @Index(name = "idx_courses_category", columnList = "category")
+})
+@NamedEntityGraph(name = "Course.instructor", attributeNodes = @NamedAttributeNode("instructor"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,7 +57,7 @@ public class Course {
     private Boolean isActive = true;
     
     @JsonIgnoreProperties({"password"})
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "instructor_id", nullable = false)
     private User instructor;
     
@@ -1,6 +1,7 @@
 package com.edunex.edunex_lms.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,7 +11,13 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "course_materials")
+@Table(name = "course_materials", indexes = {
+    @Index(name = "idx_course_materials_course_uploaded", columnList = "course_id, uploaded_at")
+})
+@NamedEntityGraph(name = "CourseMaterial.detail", attributeNodes = {
+    @NamedAttributeNode("course"),
+    @NamedAttributeNode("uploadedBy")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,12 +40,29 @@ public class CourseMaterial {
     @Column(nullable = false, length = 1000)
     private String url;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Set for uploaded files, which are kept in the blob store; url then holds the stored path
+    @Column(length = 255)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String fileName;
+    
+    @Column
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long fileSize;
+    
+    @Column(length = 100)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String contentType;
+    
+    @Column(length = 64)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String contentHash;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     @JsonIgnoreProperties({"instructor", "enrollments", "materials", "quizzes", "assignments", "attendance"})
     private Course course;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by")
     @JsonIgnoreProperties({"password", "enrollments", "instructedCourses"})
     private User uploadedBy;
@@ -11,7 +11,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "enrollments", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_enrollments_course_status", columnList = "course_id, status")
 })
+@NamedEntityGraph(name = "Enrollment.roster", attributeNodes = @NamedAttributeNode("student"))
+@NamedEntityGraph(name = "Enrollment.studentDashboard",
+    attributeNodes = @NamedAttributeNode(value = "course", subgraph = "course"),
+    subgraphs = @NamedSubgraph(name = "course", attributeNodes = @NamedAttributeNode("instructor")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,11 +27,11 @@ public class Enrollment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     private User student;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     
@@ -0,0 +1,43 @@
+package com.edunex.edunex_lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A file in the content-addressed blob store, shared by every submission and material with the same content
+ * The file is removed once no row references it any more
+ */
+@Entity
+@Table(name = "stored_blobs", indexes = {
+    @Index(name = "idx_stored_blobs_ref_count", columnList = "ref_count")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+    
+    // Hex SHA-256 of the content
+    @Id
+    @Column(length = 64)
+    private String sha256;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Long size;
+    
+    @Column(nullable = false)
+    private Integer refCount = 0;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,89 @@
+package com.edunex.edunex_lms.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A student's submission for an assignment; at most one per student and assignment
+ */
+@Entity
+@Table(name = "submissions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_submissions_assignment_student", columnNames = {"assignment_id", "student_id"})
+}, indexes = {
+    @Index(name = "idx_submissions_assignment_status", columnList = "assignment_id, status"),
+    @Index(name = "idx_submissions_student_status", columnList = "student_id, status")
+})
+@NamedEntityGraph(name = "Submission.grading", attributeNodes = {
+    @NamedAttributeNode("assignment"),
+    @NamedAttributeNode("student")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Submission {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assignment_id", nullable = false)
+    @JsonIgnore
+    private Assignment assignment;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @JsonIgnoreProperties({"password", "enrollments", "instructedCourses"})
+    private User student;
+    
+    @Column(length = 500)
+    private String submissionUrl;
+    
+    @Column(length = 255)
+    private String fileName;
+    
+    @Column
+    private Long fileSize;
+    
+    // Hex SHA-256 of the submitted file
+    @Column(length = 64)
+    private String contentHash;
+    
+    @Column
+    private LocalDateTime submittedAt;
+    
+    @Column
+    private Integer marksObtained;
+    
+    @Column(columnDefinition = "TEXT")
+    private String feedback;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Assignment.SubmissionStatus status = Assignment.SubmissionStatus.SUBMITTED;
+    
+    @Column
+    private LocalDateTime gradedAt;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @JsonProperty("assignmentId")
+    public Long getAssignmentId() {
+        return assignment != null ? assignment.getId() : null;
+    }
+}
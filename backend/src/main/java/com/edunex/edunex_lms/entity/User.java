@@ -16,7 +16,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_role_enabled", columnList = "role, enabled"),
+    @Index(name = "idx_users_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -71,6 +74,11 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Tokens issued up to this time are rejected; only written by UserRepository.updateTokensValidAfter
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime tokensValidAfter;
+    
     // Alias for 'enabled' to match frontend expectations
     @JsonProperty("isActive")
     public Boolean getIsActive() {
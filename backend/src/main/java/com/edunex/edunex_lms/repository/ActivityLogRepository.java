@@ -1,21 +1,43 @@
 package com.edunex.edunex_lms.repository;
 
+import com.edunex.edunex_lms.dto.ActivityLogItem;
 import com.edunex.edunex_lms.entity.ActivityLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Activity feeds are ordered newest first by (createdAt, id) and keyset paginated: pass the createdAt
+ * and id of the last item of the previous page to continue strictly before it, or nulls for the first page
+ * Each feed has its own query so that it runs on the matching (..., created_at) index
+ */
 @Repository
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
     
-    List<ActivityLog> findTop20ByOrderByCreatedAtDesc();
+    String ITEM = "SELECT new com.edunex.edunex_lms.dto.ActivityLogItem(a.id, a.activityType, a.description, " +
+                  "a.user.id, a.entityType, a.entityId, a.createdAt) FROM ActivityLog a ";
     
-    List<ActivityLog> findByActivityTypeOrderByCreatedAtDesc(String activityType);
+    String BEFORE = "(:beforeCreatedAt IS NULL OR a.createdAt < :beforeCreatedAt " +
+                    "OR (a.createdAt = :beforeCreatedAt AND a.id < :beforeId)) ";
     
-    List<ActivityLog> findByUserIdOrderByCreatedAtDesc(Long userId);
+    String NEWEST_FIRST = "ORDER BY a.createdAt DESC, a.id DESC";
     
-    @Query("SELECT a FROM ActivityLog a WHERE a.entityType = :entityType AND a.entityId = :entityId ORDER BY a.createdAt DESC")
-    List<ActivityLog> findByEntity(String entityType, Long entityId);
+    @Query(ITEM + "WHERE " + BEFORE + NEWEST_FIRST)
+    List<ActivityLogItem> findFeed(LocalDateTime beforeCreatedAt, Long beforeId, Pageable pageable);
+    
+    @Query(ITEM + "WHERE a.activityType = :activityType AND " + BEFORE + NEWEST_FIRST)
+    List<ActivityLogItem> findFeedByActivityType(String activityType, LocalDateTime beforeCreatedAt, Long beforeId,
+                                                 Pageable pageable);
+    
+    @Query(ITEM + "WHERE a.user.id = :userId AND " + BEFORE + NEWEST_FIRST)
+    List<ActivityLogItem> findFeedByUserId(Long userId, LocalDateTime beforeCreatedAt, Long beforeId,
+                                           Pageable pageable);
+    
+    @Query(ITEM + "WHERE a.entityType = :entityType AND a.entityId = :entityId AND " + BEFORE + NEWEST_FIRST)
+    List<ActivityLogItem> findFeedByEntity(String entityType, Long entityId, LocalDateTime beforeCreatedAt,
+                                           Long beforeId, Pageable pageable);
 }
@@ -1,36 +1,89 @@
 package com.edunex.edunex_lms.repository;
 
+import com.edunex.edunex_lms.dto.AssignmentListItem;
+import com.edunex.edunex_lms.dto.StudentAssignmentItem;
 import com.edunex.edunex_lms.entity.Assignment;
-import com.edunex.edunex_lms.entity.Assignment.SubmissionStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     
+    @EntityGraph("Assignment.list")
     List<Assignment> findByCourseId(Long courseId);
     
+    @EntityGraph("Assignment.list")
+    List<Assignment> findByCourseIdIn(Collection<Long> courseIds, Sort sort);
+    
+    @EntityGraph("Assignment.list")
+    Page<Assignment> findByCourseIdIn(Collection<Long> courseIds, Pageable pageable);
+    
+    @EntityGraph("Assignment.list")
+    @Query("SELECT a FROM Assignment a")
+    List<Assignment> findAllWithCourse(Sort sort);
+    
+    @Query(value = "SELECT new com.edunex.edunex_lms.dto.AssignmentListItem(a.id, a.title, a.dueDate, a.maxMarks, " +
+            "a.attachmentUrl, c.id, c.courseCode, c.courseName, a.createdAt) FROM Assignment a JOIN a.course c " +
+            "WHERE a.student IS NULL AND (:allCourses = true OR c.id IN :courseIds)",
+        countQuery = "SELECT COUNT(a) FROM Assignment a " +
+            "WHERE a.student IS NULL AND (:allCourses = true OR a.course.id IN :courseIds)")
+    Page<AssignmentListItem> findListItems(boolean allCourses, Collection<Long> courseIds, Pageable pageable);
+    
+    /**
+     * Assignments of the student's enrolled courses, each joined to the student's submission
+     */
+    @Query(value = "SELECT new com.edunex.edunex_lms.dto.AssignmentListItem(a.id, a.title, a.dueDate, a.maxMarks, " +
+            "a.attachmentUrl, c.id, c.courseCode, c.courseName, a.createdAt, s.id, s.status, s.submittedAt, " +
+            "s.marksObtained) FROM Assignment a JOIN a.course c " +
+            "LEFT JOIN Submission s ON s.assignment = a AND s.student.id = :studentId " +
+            "WHERE a.student IS NULL " +
+            "AND c.id IN (SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId)",
+        countQuery = "SELECT COUNT(a) FROM Assignment a WHERE a.student IS NULL " +
+            "AND a.course.id IN (SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId)")
+    Page<AssignmentListItem> findStudentListItems(Long studentId, Pageable pageable);
+    
+    /**
+     * Assignments of the student's enrolled courses, each joined to the student's submission,
+     * ordered by (dueDate, id) and starting strictly after the given keyset position
+     */
+    @Query("SELECT new com.edunex.edunex_lms.dto.StudentAssignmentItem(a.id, a.title, a.dueDate, a.maxMarks, " +
+           "a.attachmentUrl, c.id, c.courseCode, c.courseName, s.id, s.status, s.submittedAt, s.marksObtained, " +
+           "s.feedback, s.updatedAt) " +
+           "FROM Assignment a JOIN a.course c " +
+           "LEFT JOIN Submission s ON s.assignment = a AND s.student.id = :studentId " +
+           "WHERE a.student IS NULL " +
+           "AND c.id IN (SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId) " +
+           "AND (:afterDueDate IS NULL OR a.dueDate > :afterDueDate " +
+           "OR (a.dueDate = :afterDueDate AND a.id > :afterId)) " +
+           "ORDER BY a.dueDate, a.id")
+    List<StudentAssignmentItem> findStudentFeed(Long studentId, LocalDateTime afterDueDate, Long afterId,
+                                                Pageable pageable);
+    
     List<Assignment> findByStudentId(Long studentId);
     
     List<Assignment> findByCourseIdAndStudentId(Long courseId, Long studentId);
     
-    List<Assignment> findByStatus(SubmissionStatus status);
-    
     @Query("SELECT a FROM Assignment a WHERE a.course.id = :courseId AND a.student IS NULL")
     List<Assignment> findAssignmentsByCourseId(Long courseId);
     
-    @Query("SELECT a FROM Assignment a WHERE a.student.id = :studentId AND a.status = :status")
-    List<Assignment> findByStudentIdAndStatus(Long studentId, SubmissionStatus status);
-    
-    @Query("SELECT a FROM Assignment a WHERE a.course.id = :courseId AND a.dueDate < :now AND a.status = 'PENDING'")
-    List<Assignment> findOverdueAssignments(Long courseId, LocalDateTime now);
-    
     Optional<Assignment> findByIdAndStudentId(Long id, Long studentId);
     
-    List<Assignment> findByCourseIdAndTitleAndStudentIsNotNull(Long courseId, String title);
+    /**
+     * IDs of rows written by the old model, where a submission was stored as an Assignment with a student
+     */
+    @Query("SELECT a.id FROM Assignment a WHERE a.student IS NOT NULL ORDER BY a.id")
+    List<Long> findLegacySubmissionIds(Pageable pageable);
+    
+    @Query("SELECT MIN(a.id) FROM Assignment a WHERE a.course.id = :courseId AND a.title = :title AND a.student IS NULL")
+    Long findDefinitionId(Long courseId, String title);
 }
@@ -1,27 +1,40 @@
 package com.edunex.edunex_lms.repository;
 
 import com.edunex.edunex_lms.entity.Attendance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
+    @EntityGraph("Attendance.studentView")
     List<Attendance> findByStudentId(Long studentId);
     
     @Transactional
     @Modifying
     void deleteByStudentId(Long studentId);
     
-    List<Attendance> findByCourseId(Long courseId);
+    /**
+     * Attendance of a course with students and markers, newest session first, read in batches for streamed responses
+     */
+    @EntityGraph("Attendance.roster")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Attendance a WHERE a.course.id = :courseId ORDER BY a.attendanceDate DESC, a.id")
+    Stream<Attendance> streamByCourseId(Long courseId);
     
+    @EntityGraph("Attendance.studentView")
     List<Attendance> findByStudentIdAndCourseId(Long studentId, Long courseId);
     
     Optional<Attendance> findByStudentIdAndCourseIdAndAttendanceDate(Long studentId, Long courseId, LocalDate date);
@@ -32,6 +45,7 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student.id = :studentId AND a.course.id = :courseId")
     long countTotalByStudentIdAndCourseId(Long studentId, Long courseId);
     
+    @EntityGraph("Attendance.roster")
     @Query("SELECT a FROM Attendance a WHERE a.course.id = :courseId AND a.attendanceDate = :date")
     List<Attendance> findByCourseIdAndDate(Long courseId, LocalDate date);
 }
@@ -0,0 +1,29 @@
+package com.edunex.edunex_lms.repository;
+
+import com.edunex.edunex_lms.entity.AttendanceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttendanceSummaryRepository extends JpaRepository<AttendanceSummary, Long> {
+    
+    Optional<AttendanceSummary> findByStudentIdAndCourseId(Long studentId, Long courseId);
+    
+    List<AttendanceSummary> findByStudentId(Long studentId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AttendanceSummary s WHERE s.student.id = :studentId")
+    void deleteByStudentId(Long studentId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AttendanceSummary s WHERE s.course.id = :courseId")
+    void deleteByCourseId(Long courseId);
+}
@@ -1,17 +1,24 @@
 package com.edunex.edunex_lms.repository;
 
 import com.edunex.edunex_lms.entity.CourseMaterial;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CourseMaterialRepository extends JpaRepository<CourseMaterial, Long> {
     
     List<CourseMaterial> findByCourseId(Long courseId);
     
+    @EntityGraph("CourseMaterial.detail")
     List<CourseMaterial> findByCourseIdOrderByUploadedAtDesc(Long courseId);
     
+    @EntityGraph("CourseMaterial.detail")
     List<CourseMaterial> findByUploadedById(Long uploadedById);
+    
+    @EntityGraph("CourseMaterial.detail")
+    Optional<CourseMaterial> findDetailById(Long id);
 }
@@ -1,11 +1,20 @@
 package com.edunex.edunex_lms.repository;
 
+import com.edunex.edunex_lms.dto.CourseListItem;
+import com.edunex.edunex_lms.dto.CourseRef;
+import com.edunex.edunex_lms.dto.CourseSearchHit;
 import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,18 +27,67 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     List<Course> findByInstructor(User instructor);
     
+    @EntityGraph("Course.instructor")
     List<Course> findByInstructorId(Long instructorId);
     
+    @EntityGraph("Course.instructor")
     List<Course> findByIsActiveTrue();
     
+    @EntityGraph("Course.instructor")
     List<Course> findByCategory(String category);
     
+    @Override
+    @EntityGraph("Course.instructor")
+    List<Course> findAll();
+    
+    @EntityGraph("Course.instructor")
+    Optional<Course> findWithInstructorById(Long id);
+    
     @Query("SELECT DISTINCT c.category FROM Course c WHERE c.category IS NOT NULL")
     List<String> findAllCategories();
     
+    @EntityGraph("Course.instructor")
     @Query("SELECT c FROM Course c WHERE c.isActive = true")
     List<Course> findAvailableCourses();
     
+    @Query("SELECT c.id AS id, c.courseCode AS courseCode, c.maxStudents AS maxStudents FROM Course c " +
+           "WHERE c.courseCode IN :courseCodes")
+    List<CourseRef> findRefsByCourseCodeIn(Collection<String> courseCodes);
+    
+    @Query("SELECT c.id AS id, c.courseCode AS courseCode, c.maxStudents AS maxStudents FROM Course c " +
+           "WHERE c.id IN :ids")
+    List<CourseRef> findRefsByIdIn(Collection<Long> ids);
+    
+    /**
+     * Lock the given courses until the transaction ends, in ID order so callers locking overlapping
+     * sets of courses cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id IN :ids ORDER BY c.id")
+    List<Course> lockAllById(Collection<Long> ids);
+    
+    @Query("SELECT c.id FROM Course c WHERE c.instructor.id = :instructorId")
+    List<Long> findIdsByInstructorId(Long instructorId);
+    
+    @Query("SELECT COUNT(c) FROM Course c WHERE c.isActive = true")
+    long countActive();
+    
     @Query("SELECT COUNT(c) FROM Course c WHERE c.instructor.id = :instructorId")
     long countByInstructorId(Long instructorId);
+    
+    @Query(value = "SELECT new com.edunex.edunex_lms.dto.CourseListItem(c.id, c.courseCode, c.courseName, c.category, " +
+            "c.credits, c.maxStudents, c.isActive, i.id, i.fullName, c.createdAt) " +
+            "FROM Course c JOIN c.instructor i WHERE (:active IS NULL OR c.isActive = :active) " +
+            "AND (:category IS NULL OR c.category = :category) AND (:instructorId IS NULL OR i.id = :instructorId) " +
+            "AND (:search IS NULL OR LOWER(c.courseCode) LIKE :search OR LOWER(c.courseName) LIKE :search)",
+        countQuery = "SELECT COUNT(c) FROM Course c WHERE (:active IS NULL OR c.isActive = :active) " +
+            "AND (:category IS NULL OR c.category = :category) " +
+            "AND (:instructorId IS NULL OR c.instructor.id = :instructorId) " +
+            "AND (:search IS NULL OR LOWER(c.courseCode) LIKE :search OR LOWER(c.courseName) LIKE :search)")
+    Page<CourseListItem> findListItems(Boolean active, String category, Long instructorId, String search,
+                                       Pageable pageable);
+    
+    @Query("SELECT new com.edunex.edunex_lms.dto.CourseSearchHit(c.id, c.courseCode, c.courseName, c.category, " +
+           "c.description, c.credits, c.isActive) FROM Course c")
+    List<CourseSearchHit> findSearchHits();
 }
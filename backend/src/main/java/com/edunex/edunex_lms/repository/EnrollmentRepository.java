@@ -1,22 +1,31 @@
 package com.edunex.edunex_lms.repository;
 
+import com.edunex.edunex_lms.dto.CourseEnrollmentCount;
+import com.edunex.edunex_lms.dto.EnrollmentPair;
 import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.Enrollment;
 import com.edunex.edunex_lms.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     List<Enrollment> findByStudent(User student);
     
+    @EntityGraph("Enrollment.studentDashboard")
     List<Enrollment> findByStudentId(Long studentId);
     
     @Transactional
@@ -29,10 +38,19 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     List<Enrollment> findByCourse(Course course);
     
-    List<Enrollment> findByCourseId(Long courseId);
+    /**
+     * Course roster with the students, read in batches for streamed responses
+     */
+    @EntityGraph("Enrollment.roster")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Enrollment e WHERE e.course.id = :courseId ORDER BY e.id")
+    Stream<Enrollment> streamByCourseId(Long courseId);
     
-    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student WHERE e.course.id = :courseId")
-    List<Enrollment> findByCourseIdWithStudent(Long courseId);
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.student.id = :studentId")
+    List<Long> findCourseIdsByStudentId(Long studentId);
+    
+    @Query("SELECT e.student.id FROM Enrollment e WHERE e.course.id = :courseId")
+    List<Long> findStudentIdsByCourseId(Long courseId);
     
     Optional<Enrollment> findByStudentIdAndCourseId(Long studentId, Long courseId);
     
@@ -40,12 +58,27 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     long countByCourseId(Long courseId);
     
+    @Query("SELECT e.course.id AS courseId, COUNT(e) AS enrollmentCount FROM Enrollment e " +
+           "WHERE e.course.id IN :courseIds GROUP BY e.course.id")
+    List<CourseEnrollmentCount> countByCourseIds(Collection<Long> courseIds);
+    
+    @Query("SELECT e.course.id AS courseId, COUNT(e) AS enrollmentCount FROM Enrollment e GROUP BY e.course.id")
+    List<CourseEnrollmentCount> countGroupedByCourse();
+    
+    @Query("SELECT new com.edunex.edunex_lms.dto.EnrollmentPair(e.student.id, e.course.id) FROM Enrollment e " +
+           "WHERE e.student.id IN :studentIds AND e.course.id IN :courseIds")
+    List<EnrollmentPair> findPairs(Collection<Long> studentIds, Collection<Long> courseIds);
+    
     @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.status = 'ACTIVE'")
     List<Enrollment> findActiveEnrollmentsByStudentId(Long studentId);
     
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId AND e.status = 'ACTIVE'")
     long countActiveByCourseId(Long courseId);
     
+    @Query("SELECT e.course.id AS courseId, COUNT(e) AS enrollmentCount FROM Enrollment e " +
+           "WHERE e.course.id IN :courseIds AND e.status = 'ACTIVE' GROUP BY e.course.id")
+    List<CourseEnrollmentCount> countActiveByCourseIds(Collection<Long> courseIds);
+    
     @Query("SELECT AVG(e.progressPercentage) FROM Enrollment e WHERE e.course.id = :courseId")
     Double getAverageProgressByCourseId(Long courseId);
 }
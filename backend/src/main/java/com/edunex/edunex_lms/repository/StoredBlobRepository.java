@@ -0,0 +1,15 @@
+package com.edunex.edunex_lms.repository;
+
+import com.edunex.edunex_lms.entity.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    
+    @Query("SELECT b.sha256 FROM StoredBlob b WHERE b.refCount <= 0")
+    List<String> findUnreferencedHashes();
+}
@@ -0,0 +1,69 @@
+package com.edunex.edunex_lms.repository;
+
+import com.edunex.edunex_lms.dto.FileRef;
+import com.edunex.edunex_lms.entity.Submission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+    
+    @Query("SELECT s FROM Submission s JOIN FETCH s.assignment a JOIN FETCH a.course WHERE s.id = :id")
+    Optional<Submission> findByIdWithAssignment(Long id);
+    
+    @EntityGraph("Submission.grading")
+    Optional<Submission> findGradingById(Long id);
+    
+    @Query("SELECT s FROM Submission s WHERE s.assignment.id = :assignmentId AND s.student.id = :studentId")
+    Optional<Submission> findByAssignmentIdAndStudentId(Long assignmentId, Long studentId);
+    
+    /**
+     * Total size of the files submitted to a course's assignments
+     */
+    @Query("SELECT COALESCE(SUM(s.fileSize), 0) FROM Submission s WHERE s.assignment.course.id = :courseId")
+    long sumFileSizeByCourseId(Long courseId);
+    
+    @Query("SELECT s FROM Submission s JOIN FETCH s.student WHERE s.assignment.id = :assignmentId ORDER BY s.submittedAt")
+    List<Submission> findByAssignmentIdWithStudent(Long assignmentId);
+    
+    @Query("SELECT s FROM Submission s JOIN FETCH s.student JOIN s.assignment a " +
+           "WHERE a.course.id = :courseId AND a.title = :title ORDER BY s.submittedAt")
+    List<Submission> findByCourseIdAndTitleWithStudent(Long courseId, String title);
+    
+    /**
+     * Submissions of a course with their assignment and student, assignment by assignment in due date order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Submission s JOIN FETCH s.assignment a JOIN FETCH s.student " +
+           "WHERE a.course.id = :courseId ORDER BY a.dueDate, a.id, s.id")
+    Stream<Submission> streamByCourseId(Long courseId);
+    
+    @Query("SELECT s.contentHash AS contentHash, s.submissionUrl AS path FROM Submission s " +
+           "WHERE s.assignment.id = :assignmentId AND s.contentHash IS NOT NULL")
+    List<FileRef> findFileRefsByAssignmentId(Long assignmentId);
+    
+    @Query("SELECT s.contentHash AS contentHash, s.submissionUrl AS path FROM Submission s " +
+           "WHERE s.student.id = :studentId AND s.contentHash IS NOT NULL")
+    List<FileRef> findFileRefsByStudentId(Long studentId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Submission s WHERE s.assignment.id = :assignmentId")
+    void deleteByAssignmentId(Long assignmentId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Submission s WHERE s.student.id = :studentId")
+    void deleteByStudentId(Long studentId);
+}
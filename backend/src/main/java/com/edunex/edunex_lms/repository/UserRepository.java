@@ -1,12 +1,28 @@
 package com.edunex.edunex_lms.repository;
 
+import com.edunex.edunex_lms.dto.RoleStatusCount;
+import com.edunex.edunex_lms.dto.TokenCutoff;
+import com.edunex.edunex_lms.dto.UserIdentity;
+import com.edunex.edunex_lms.dto.UserRef;
+import com.edunex.edunex_lms.dto.UserResponse;
+import com.edunex.edunex_lms.dto.UserSummary;
 import com.edunex.edunex_lms.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -25,6 +41,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     List<User> findByEnabled(boolean enabled);
     
+    /**
+     * Users, optionally of one role, as response records read in batches for streamed responses
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.edunex.edunex_lms.dto.UserResponse(u.id, u.username, u.email, u.fullName, u.usn, " +
+           "u.phoneNumber, u.profilePicture, u.role, u.enabled, u.accountNonLocked, u.createdAt, u.updatedAt) " +
+           "FROM User u WHERE :role IS NULL OR u.role = :role ORDER BY u.id")
+    Stream<UserResponse> streamResponses(User.Role role);
+    
     List<User> findByEnabledTrue();
     
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.enabled = true")
@@ -32,4 +57,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(User.Role role);
+    
+    @Query("SELECT u.id FROM User u WHERE u.enabled = false OR u.accountNonLocked = false")
+    List<Long> findDisabledUserIds();
+    
+    @Query("SELECT u.id AS id, u.tokensValidAfter AS tokensValidAfter FROM User u WHERE u.tokensValidAfter > :since")
+    List<TokenCutoff> findTokenCutoffsAfter(LocalDateTime since);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokensValidAfter = :cutoff WHERE u.id = :id")
+    void updateTokensValidAfter(Long id, LocalDateTime cutoff);
+    
+    @Query("SELECT u.username AS username, u.email AS email, u.usn AS usn FROM User u " +
+           "WHERE u.username IN :usernames OR u.email IN :emails OR u.usn IN :usns")
+    List<UserIdentity> findIdentitiesMatching(Collection<String> usernames, Collection<String> emails,
+                                              Collection<String> usns);
+    
+    @Query("SELECT u.id AS id, u.username AS username, u.usn AS usn, u.role AS role FROM User u " +
+           "WHERE u.usn IN :keys OR u.username IN :keys")
+    List<UserRef> findRefsByUsnOrUsername(Collection<String> keys);
+    
+    @Query("SELECT u.id AS id, u.username AS username, u.usn AS usn, u.role AS role FROM User u WHERE u.usn IN :usns")
+    List<UserRef> findRefsByUsnIn(Collection<String> usns);
+    
+    @Query("SELECT u.id AS id, u.username AS username, u.usn AS usn, u.role AS role FROM User u WHERE u.id IN :ids")
+    List<UserRef> findRefsByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT u.role AS role, u.enabled AS enabled, COUNT(u) AS userCount FROM User u GROUP BY u.role, u.enabled")
+    List<RoleStatusCount> countGroupedByRoleAndEnabled();
+    
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.email AS email, u.fullName AS fullName, " +
+            "u.usn AS usn, u.phoneNumber AS phoneNumber, u.role AS role, u.enabled AS enabled, u.createdAt AS createdAt " +
+            "FROM User u WHERE (:role IS NULL OR u.role = :role) AND (:enabled IS NULL OR u.enabled = :enabled) " +
+            "AND (:search IS NULL OR LOWER(u.username) LIKE :search OR LOWER(u.fullName) LIKE :search " +
+            "OR LOWER(u.email) LIKE :search OR LOWER(u.usn) LIKE :search)",
+        countQuery = "SELECT COUNT(u) FROM User u WHERE (:role IS NULL OR u.role = :role) " +
+            "AND (:enabled IS NULL OR u.enabled = :enabled) " +
+            "AND (:search IS NULL OR LOWER(u.username) LIKE :search OR LOWER(u.fullName) LIKE :search " +
+            "OR LOWER(u.email) LIKE :search OR LOWER(u.usn) LIKE :search)")
+    Page<UserSummary> findSummaries(User.Role role, Boolean enabled, String search, Pageable pageable);
 }
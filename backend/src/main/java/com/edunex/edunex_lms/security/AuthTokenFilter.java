@@ -1,11 +1,13 @@
 package com.edunex.edunex_lms.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,24 +17,30 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuthTokenFilter extends OncePerRequestFilter {
     
+    private static final Set<String> STREAM_PATHS = Set.of("/api/events/stream", "/api/admin/activities/stream");
+    
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserRevocationRegistry revocationRegistry;
+    
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.getValidatedClaims(jwt) : null;
+            UserDetails userDetails = claims != null ? resolveUser(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -46,6 +54,23 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Build the principal from the token claims in stateless mode, otherwise load it from the database
+     * @return Principal, or null if the token's user has been disabled or the token revoked
+     */
+    private UserDetails resolveUser(Claims claims) {
+        if (!statelessPrincipal) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        
+        UserDetailsImpl userDetails = UserDetailsImpl.fromClaims(claims);
+        if (revocationRegistry.isRevoked(userDetails.getId(), claims.getIssuedAt())) {
+            log.warn("Rejected revoked token for user: {}", userDetails.getUsername());
+            return null;
+        }
+        return userDetails;
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -53,6 +78,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             return headerAuth.substring(7);
         }
         
+        // EventSource cannot send headers; the token is accepted in the URL for event streams only
+        if ("GET".equals(request.getMethod())
+                && STREAM_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()))) {
+            String token = request.getParameter("token");
+            return StringUtils.hasText(token) ? token : null;
+        }
+        
         return null;
     }
 }
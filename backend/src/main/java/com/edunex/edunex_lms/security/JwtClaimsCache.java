@@ -0,0 +1,102 @@
+package com.edunex.edunex_lms.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already verified JWT claims
+ * Entries are keyed by the SHA-256 of the raw token and never outlive the token's own expiration
+ */
+public class JwtClaimsCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public JwtClaimsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Look up verified claims for a token
+     * @param token Raw JWT token string
+     * @return Cached claims, or null if absent or expired
+     */
+    public Claims get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims;
+    }
+
+    /**
+     * Remember claims of a token that has just been verified
+     * @param token Raw JWT token string
+     * @param claims Verified claims
+     */
+    public void put(String token, Claims claims) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(hash(token), new Entry(claims, expiration.getTime()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop expired entries first; if the cache is still full, drop arbitrary entries
+     * until there is room again. Evicted tokens are simply verified again on next use.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -2,6 +2,7 @@ package com.edunex.edunex_lms.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -31,12 +32,31 @@ public class JwtUtils {
     @Value("${jwt.audience:EduNex-Users}")
     private String jwtAudience;
     
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+    
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private JwtClaimsCache claimsCache;
+    
+    /**
+     * Build the signing key, parser and claims cache once; all of them are thread-safe
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+        claimsCache = new JwtClaimsCache(claimsCacheMaxEntries);
+    }
+    
     /**
-     * Generate signing key from secret
+     * Get signing key derived from secret
      * @return SecretKey for signing JWT tokens
      */
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
     
     /**
@@ -67,12 +87,7 @@ public class JwtUtils {
      * @return username
      */
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getSubject();
+        return parseClaims(token).getSubject();
     }
     
     /**
@@ -81,13 +96,20 @@ public class JwtUtils {
      * @return true if valid, false otherwise
      */
     public boolean validateJwtToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+    
+    /**
+     * Verify a token once and return its claims
+     * Verified claims are cached until the token expires, so repeated requests
+     * with the same token skip the HS512 signature check
+     * @param authToken JWT token to validate
+     * @return Claims if the token is valid, null otherwise
+     */
+    public Claims getValidatedClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException e) {
+            return parseClaims(authToken);
+        } catch (io.jsonwebtoken.security.SecurityException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -99,7 +121,28 @@ public class JwtUtils {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
         
-        return false;
+        return null;
+    }
+    
+    /**
+     * Parse and verify a token, consulting the claims cache first
+     * @param token JWT token string
+     * @return Verified claims
+     * @throws JwtException if the token is invalid or expired
+     */
+    private Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        
+        Claims cached = claimsCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        claimsCache.put(token, claims);
+        return claims;
     }
     
     /**
@@ -108,12 +151,7 @@ public class JwtUtils {
      * @return Expiration date
      */
     public Date getExpirationDateFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getExpiration();
+        return parseClaims(token).getExpiration();
     }
     
     /**
@@ -2,6 +2,7 @@ package com.edunex.edunex_lms.security;
 
 import com.edunex.edunex_lms.entity.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -43,6 +44,45 @@ public class UserDetailsImpl implements UserDetails {
         );
     }
     
+    /**
+     * Rebuild a principal from verified JWT claims without touching the database
+     * Email and full name are not carried in the token and are left empty
+     * @param claims Verified token claims
+     * @return Principal for the token's user
+     */
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        Object userId = claims.get("userId");
+        String role = claims.get("role", String.class);
+        if (!(userId instanceof Number) || role == null) {
+            throw new IllegalArgumentException("Token does not carry userId and role claims");
+        }
+        
+        return new UserDetailsImpl(
+            ((Number) userId).longValue(),
+            claims.getSubject(),
+            null,
+            null,
+            null,
+            Collections.singletonList(new SimpleGrantedAuthority(role)),
+            true,
+            true
+        );
+    }
+    
+    /**
+     * @return Role carried by the principal's authority
+     */
+    @JsonIgnore
+    public User.Role getRole() {
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                return User.Role.valueOf(name.substring("ROLE_".length()));
+            }
+        }
+        return null;
+    }
+    
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -0,0 +1,101 @@
+package com.edunex.edunex_lms.security;
+
+import com.edunex.edunex_lms.dto.TokenCutoff;
+import com.edunex.edunex_lms.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Record of users whose tokens must no longer be accepted
+ * Used when principals are rebuilt from JWT claims instead of being loaded from the database. Checks are answered
+ * from memory; revocation cutoffs are also stored on the user so they survive a restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRevocationRegistry {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    private final Set<Long> disabledUsers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    /**
+     * Load disabled and locked accounts, and the revocation cutoffs of tokens that may not have expired yet, once
+     * the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        disabledUsers.addAll(userRepository.findDisabledUserIds());
+        LocalDateTime since = LocalDateTime.now().minusNanos(jwtExpirationMs * 1_000_000);
+        for (TokenCutoff cutoff : userRepository.findTokenCutoffsAfter(since)) {
+            revokedBefore.put(cutoff.getId(), toInstant(cutoff.getTokensValidAfter()));
+        }
+        log.info("Loaded {} disabled user(s) and {} token cutoff(s) into revocation registry",
+            disabledUsers.size(), revokedBefore.size());
+    }
+
+    /**
+     * Reject every token of a user until they are enabled again
+     * @param userId User ID
+     */
+    public void markDisabled(Long userId) {
+        disabledUsers.add(userId);
+    }
+
+    /**
+     * Accept tokens of a previously disabled user again
+     * @param userId User ID
+     */
+    public void markEnabled(Long userId) {
+        disabledUsers.remove(userId);
+    }
+
+    /**
+     * Reject tokens issued up to now, e.g. after the username or role carried in them changed
+     * @param userId User ID
+     */
+    public void revokeExistingTokens(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.updateTokensValidAfter(userId, now);
+        revokedBefore.put(userId, toInstant(now));
+    }
+
+    /**
+     * Check whether a token may still be used
+     * @param userId User ID from the token
+     * @param issuedAt Issue time from the token
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (userId == null || disabledUsers.contains(userId)) {
+            return true;
+        }
+
+        Instant cutoff = revokedBefore.get(userId);
+        if (cutoff == null) {
+            return false;
+        }
+        // JWT timestamps have second precision, so a token issued in the second of the cutoff is rejected as well
+        return issuedAt == null || issuedAt.toInstant().getEpochSecond() <= cutoff.getEpochSecond();
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
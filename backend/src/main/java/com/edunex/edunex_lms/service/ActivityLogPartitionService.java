@@ -0,0 +1,145 @@
+package com.edunex.edunex_lms.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains monthly RANGE partitions of activity_logs on MySQL
+ * The table is converted once with db/mysql/activity_logs_partitioning.sql, which leaves a single pmax
+ * partition; from then on partitions named pYYYYMM, holding rows created before the first of the next month,
+ * are split off pmax ahead of time, and the retention job drops whole partitions instead of deleting rows.
+ * Nothing is done while activity.log.partitioning.enabled is false or the table is not partitioned.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityLogPartitionService {
+
+    private static final String TABLE = "activity_logs";
+    private static final String CATCH_ALL = "pmax";
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String LIST_PARTITIONS_SQL =
+        "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${activity.log.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${activity.log.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    /**
+     * Make sure monthly partitions exist from the current month up to the configured number of months ahead
+     */
+    @Scheduled(cron = "${activity.log.partitioning.cron:0 0 2 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        try {
+            int added = addPartitionsUntil(YearMonth.now().plusMonths(Math.max(0, monthsAhead)));
+            if (added > 0) {
+                log.info("Added {} monthly partition(s) to {}", added, TABLE);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not add partitions to {}: {}", TABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether partition maintenance is enabled and the table is partitioned by month
+     * @return True if partitions are managed
+     */
+    public boolean isPartitioned() {
+        if (!enabled) {
+            return false;
+        }
+        List<String> partitions = listPartitions();
+        if (!partitions.contains(CATCH_ALL)) {
+            log.warn("{} is not partitioned; run db/mysql/activity_logs_partitioning.sql to convert it", TABLE);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drop the monthly partitions that only hold rows created before the cutoff
+     * @param cutoff Rows created before this time are expired
+     * @return Number of partitions dropped
+     */
+    public int dropPartitionsBefore(LocalDateTime cutoff) {
+        List<String> expired = monthlyPartitions().entrySet().stream()
+            .filter(entry -> !entry.getKey().plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff))
+            .map(Map.Entry::getValue)
+            .toList();
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped expired partition(s) {} of {}", expired, TABLE);
+        return expired.size();
+    }
+
+    private int addPartitionsUntil(YearMonth last) {
+        TreeMap<YearMonth, String> existing = monthlyPartitions();
+        // Ranges must stay contiguous, so new months are only ever split off the end of pmax
+        YearMonth next = existing.isEmpty() ? YearMonth.now() : existing.lastKey().plusMonths(1);
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+            LocalDate bound = month.plusMonths(1).atDay(1);
+            definitions.add("PARTITION " + month.format(MONTH_NAME) + " VALUES LESS THAN (TO_DAYS('" + bound + "'))");
+        }
+        if (definitions.isEmpty()) {
+            return 0;
+        }
+        definitions.add("PARTITION " + CATCH_ALL + " VALUES LESS THAN MAXVALUE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + CATCH_ALL + " INTO (" +
+            String.join(", ", definitions) + ")");
+        return definitions.size() - 1;
+    }
+
+    private TreeMap<YearMonth, String> monthlyPartitions() {
+        TreeMap<YearMonth, String> months = new TreeMap<>();
+        for (String name : listPartitions()) {
+            try {
+                months.put(YearMonth.parse(name, MONTH_NAME), name);
+            } catch (RuntimeException e) {
+                // pmax, or a partition not created by this service
+            }
+        }
+        return months;
+    }
+
+    private List<String> listPartitions() {
+        try {
+            return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, TABLE);
+        } catch (DataAccessException e) {
+            // Not MySQL
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.ActivityLogItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves expired activity logs out of the database
+ * Rows older than the retention period are written to a gzip compressed JSON lines file first; only once
+ * that file is complete are they removed, by dropping whole monthly partitions where the table is partitioned
+ * and by chunked deletes otherwise. If a run fails in between, the next run archives the same rows again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityLogRetentionService {
+
+    private static final String COLUMNS =
+        "SELECT id, activity_type, description, user_id, entity_type, entity_id, created_at FROM activity_logs ";
+
+    private static final String FIRST_CHUNK_SQL =
+        COLUMNS + "WHERE created_at < ? ORDER BY created_at, id LIMIT ?";
+
+    private static final String NEXT_CHUNK_SQL =
+        COLUMNS + "WHERE created_at < ? AND (created_at > ? OR (created_at = ? AND id > ?)) " +
+        "ORDER BY created_at, id LIMIT ?";
+
+    private static final String EXPIRED_IDS_SQL =
+        "SELECT id FROM activity_logs WHERE created_at < ? ORDER BY created_at, id LIMIT ?";
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final RowMapper<ActivityLogItem> ROW_MAPPER = (rs, rowNum) -> new ActivityLogItem(
+        rs.getLong("id"),
+        rs.getString("activity_type"),
+        rs.getString("description"),
+        rs.getObject("user_id", Long.class),
+        rs.getString("entity_type"),
+        rs.getObject("entity_id", Long.class),
+        rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ActivityLogPartitionService partitionService;
+    private final RecentActivityBuffer recentActivity;
+
+    @Value("${activity.log.retention.days:365}")
+    private int retentionDays;
+
+    @Value("${activity.log.retention.archive-dir:archive/activity-logs}")
+    private String archiveDir;
+
+    @Value("${activity.log.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Result of a retention run; archive is null when nothing had expired
+     */
+    public record RetentionResult(LocalDateTime cutoff, long archived, long deleted, int partitionsDropped,
+                                  Path archive) {
+    }
+
+    @Scheduled(cron = "${activity.log.retention.cron:0 30 3 * * *}")
+    public void purgeOnSchedule() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        RetentionResult result = purgeBefore(LocalDate.now().minusDays(retentionDays).atStartOfDay());
+        if (result.archived() > 0) {
+            log.info("Archived {} activity log(s) created before {} to {}, removed {} row(s) and {} partition(s)",
+                result.archived(), result.cutoff(), result.archive(), result.deleted(), result.partitionsDropped());
+        }
+    }
+
+    /**
+     * Archive and remove every activity log created before the cutoff
+     * @param cutoff Rows created before this time are expired
+     * @return What was archived and removed
+     */
+    public RetentionResult purgeBefore(LocalDateTime cutoff) {
+        int size = Math.max(1, chunkSize);
+        Path archive = Paths.get(archiveDir).toAbsolutePath().normalize()
+            .resolve("activity-logs-before-" + cutoff.toLocalDate().format(FILE_DATE) + "-" +
+                System.currentTimeMillis() + ".jsonl.gz");
+        long archived = archive(cutoff, archive, size);
+        if (archived == 0) {
+            return new RetentionResult(cutoff, 0, 0, 0, null);
+        }
+
+        int partitionsDropped = partitionService.isPartitioned() ? partitionService.dropPartitionsBefore(cutoff) : 0;
+        long deleted = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(EXPIRED_IDS_SQL, Long.class, Timestamp.valueOf(cutoff), size);
+            if (ids.isEmpty()) {
+                break;
+            }
+            deleted += jdbcTemplate.update("DELETE FROM activity_logs WHERE id IN (" +
+                String.join(", ", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+        }
+        recentActivity.evictBefore(cutoff);
+        return new RetentionResult(cutoff, archived, deleted, partitionsDropped, archive);
+    }
+
+    /**
+     * Write the expired rows, oldest first, to a temporary file that is moved into place once complete
+     */
+    private long archive(LocalDateTime cutoff, Path archive, int size) {
+        Path partial = archive.resolveSibling(archive.getFileName() + ".part");
+        long count = 0;
+        try {
+            Files.createDirectories(archive.getParent());
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+                Timestamp until = Timestamp.valueOf(cutoff);
+                List<ActivityLogItem> chunk = jdbcTemplate.query(FIRST_CHUNK_SQL, ROW_MAPPER, until, size);
+                while (!chunk.isEmpty()) {
+                    for (ActivityLogItem item : chunk) {
+                        writer.write(objectMapper.writeValueAsString(item));
+                        writer.write('\n');
+                    }
+                    count += chunk.size();
+                    ActivityLogItem last = chunk.get(chunk.size() - 1);
+                    Timestamp lastCreatedAt = Timestamp.valueOf(last.getCreatedAt());
+                    chunk = jdbcTemplate.query(NEXT_CHUNK_SQL, ROW_MAPPER, until, lastCreatedAt, lastCreatedAt,
+                        last.getId(), size);
+                }
+            }
+            if (count == 0) {
+                Files.deleteIfExists(partial);
+                return 0;
+            }
+            Files.move(partial, archive, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("Could not archive activity logs to " + archive, e);
+        }
+    }
+}
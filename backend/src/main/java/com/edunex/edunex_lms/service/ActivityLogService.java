@@ -1,48 +1,387 @@
 package com.edunex.edunex_lms.service;
 
-import com.edunex.edunex_lms.entity.ActivityLog;
+import com.edunex.edunex_lms.dto.ActivityLogItem;
 import com.edunex.edunex_lms.entity.User;
 import com.edunex.edunex_lms.repository.ActivityLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Records activity logs without putting a write on the caller's request
+ * Entries are queued once the caller's transaction commits and a background thread writes them
+ * in JDBC batches. When the queue is full the overflow policy decides whether the caller writes
+ * the entry itself or an entry is dropped; whatever is still queued is written on shutdown. While the database
+ * cannot be reached the writer retries its batch with backoff and entries keep queuing.
+ * Written entries are kept in a {@link RecentActivityBuffer}, which serves the first page of the feed.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ActivityLogService {
-    
+
+    private static final String INSERT_ACTIVITY_SQL =
+        "INSERT INTO activity_logs (activity_type, description, user_id, entity_type, entity_id, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Longest wait between attempts to write a batch while the database cannot be reached
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
     private final ActivityLogRepository activityLogRepository;
-    
-    @Transactional
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final RecentActivityBuffer recentActivity;
+
+    @Value("${activity.log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${activity.log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${activity.log.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${activity.log.overflow-policy:CALLER_RUNS}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${activity.log.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<PendingActivity> queue;
+    private TransactionTemplate writeTransaction;
+    private Thread writer;
+    private volatile boolean running;
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * What to do with a new entry when the queue is full
+     */
+    public enum OverflowPolicy {
+        /** Write the entry on the calling thread, slowing callers down to the writer's pace */
+        CALLER_RUNS,
+        /** Discard the new entry */
+        DROP_NEWEST,
+        /** Discard the oldest queued entry to make room */
+        DROP_OLDEST
+    }
+
+    private record PendingActivity(String activityType, String description, Long userId, String entityType,
+                                   Long entityId, LocalDateTime createdAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Fill the buffer before anything can be published to it, so it holds the newest rows from the start
+        List<ActivityLogItem> newest = activityLogRepository.findFeed(null, null,
+            PageRequest.of(0, recentActivity.capacity()));
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            recentActivity.publish(newest.get(i));
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "activity-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // The writer notices within one flush interval; interrupting it could abort a write in progress
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Activity log writer did not stop within {} ms, {} entries not written",
+                shutdownTimeoutMs, queue.size());
+            return;
+        }
+        // Entries queued while the writer was finishing its last batch
+        List<PendingActivity> rest = new ArrayList<>();
+        if (queue.drainTo(rest) > 0) {
+            writeOrDrop(rest);
+        }
+    }
+
     public void logActivity(String activityType, String description, User user, String entityType, Long entityId) {
-        ActivityLog log = new ActivityLog();
-        log.setActivityType(activityType);
-        log.setDescription(description);
-        log.setUser(user);
-        log.setEntityType(entityType);
-        log.setEntityId(entityId);
-        activityLogRepository.save(log);
-    }
-    
-    @Transactional
+        enqueue(new PendingActivity(activityType, description, user != null ? user.getId() : null,
+            entityType, entityId, LocalDateTime.now()));
+    }
+
     public void logActivity(String activityType, String description) {
-        ActivityLog log = new ActivityLog();
-        log.setActivityType(activityType);
-        log.setDescription(description);
-        activityLogRepository.save(log);
-    }
-    
-    public List<ActivityLog> getRecentActivities() {
-        return activityLogRepository.findTop20ByOrderByCreatedAtDesc();
-    }
-    
-    public List<ActivityLog> getActivitiesByType(String activityType) {
-        return activityLogRepository.findByActivityTypeOrderByCreatedAtDesc(activityType);
-    }
-    
-    public List<ActivityLog> getUserActivities(Long userId) {
-        return activityLogRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        enqueue(new PendingActivity(activityType, description, null, null, null, LocalDateTime.now()));
+    }
+
+    /**
+     * Newest activities first, continuing before the given keyset position
+     * @param beforeCreatedAt createdAt of the last item already seen, or null for the first page
+     * @param beforeId ID of the last item already seen
+     * @param limit Maximum number of items
+     * @return Activities
+     */
+    public List<ActivityLogItem> getRecentActivities(LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        if (beforeCreatedAt == null && limit <= recentActivity.capacity()) {
+            // The buffer holds every row written since startup on top of the newest rows before it
+            return recentActivity.latest(limit);
+        }
+        return activityLogRepository.findFeed(beforeCreatedAt, beforeId, PageRequest.of(0, limit));
+    }
+
+    public List<ActivityLogItem> getActivitiesByType(String activityType, LocalDateTime beforeCreatedAt, Long beforeId,
+                                                     int limit) {
+        return activityLogRepository.findFeedByActivityType(activityType, beforeCreatedAt, beforeId,
+            PageRequest.of(0, limit));
+    }
+
+    public List<ActivityLogItem> getUserActivities(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        return activityLogRepository.findFeedByUserId(userId, beforeCreatedAt, beforeId, PageRequest.of(0, limit));
+    }
+
+    public List<ActivityLogItem> getEntityActivities(String entityType, Long entityId, LocalDateTime beforeCreatedAt,
+                                                     Long beforeId, int limit) {
+        return activityLogRepository.findFeedByEntity(entityType, entityId, beforeCreatedAt, beforeId,
+            PageRequest.of(0, limit));
+    }
+
+    /**
+     * Number of entries discarded because the queue was full, or because the database could not be reached while
+     * they were written outside the writer thread
+     * @return Dropped entries since startup
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Queue an entry once the caller's transaction commits, so rolled back work is not logged
+     */
+    private void enqueue(PendingActivity activity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(activity);
+                }
+            });
+        } else {
+            offer(activity);
+        }
+    }
+
+    private void offer(PendingActivity activity) {
+        if (!running) {
+            // Shutting down: the writer may already be gone
+            writeOrDrop(List.of(activity));
+            return;
+        }
+        if (queue.offer(activity)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case CALLER_RUNS -> writeOrDrop(List.of(activity));
+            case DROP_NEWEST -> dropped.incrementAndGet();
+            case DROP_OLDEST -> {
+                while (!queue.offer(activity)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingActivity> batch = new ArrayList<>(batchSize);
+        long reportedDrops = 0;
+        while (running) {
+            try {
+                PendingActivity first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    // Give a trickle of entries up to the flush interval to fill the batch
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                    queue.drainTo(batch, batchSize - batch.size());
+                    while (batch.size() < batchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        PendingActivity next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        queue.drainTo(batch, batchSize - batch.size());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                writeWithRetry(batch);
+                batch.clear();
+            }
+            long drops = dropped.get();
+            if (drops > reportedDrops) {
+                log.warn("Activity log queue full, dropped {} entries ({} since startup)", drops - reportedDrops, drops);
+                reportedDrops = drops;
+            }
+        }
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!writeWithRetry(batch)) {
+                log.error("Activity log writer stopped with {} entries not written", queue.size());
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Write a batch on the writer thread, retrying with backoff while the database cannot be reached
+     * Any failure is caught here so the writer thread keeps running; once shutdown has begun a failed batch is
+     * given up after one more attempt.
+     * @return false if the batch was given up
+     */
+    private boolean writeWithRetry(List<PendingActivity> batch) {
+        long backoffMs = Math.max(1, flushIntervalMs);
+        while (true) {
+            boolean lastAttempt = !running;
+            try {
+                write(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (lastAttempt) {
+                    log.error("Could not write {} activity log entries: {}", batch.size(), e.getMessage());
+                    return false;
+                }
+                log.warn("Could not write {} activity log entries, retrying in {} ms: {}",
+                    batch.size(), backoffMs, e.getMessage());
+            }
+            // Sleep in flush intervals so shutdown is noticed
+            long wakeUp = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+            try {
+                while (running && System.nanoTime() < wakeUp) {
+                    TimeUnit.NANOSECONDS.sleep(Math.min(wakeUp - System.nanoTime(),
+                        TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs))));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+        }
+    }
+
+    /**
+     * Write a batch on a calling thread, which must not fail because its activity could not be logged
+     */
+    private void writeOrDrop(List<PendingActivity> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            log.warn("Could not write {} activity log entries, dropped: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Insert a batch in its own transaction and publish it to the recent activity buffer once committed;
+     * if the batch is rejected, rows are retried one by one so a single bad entry does not lose the others.
+     * Failures to reach the database are thrown to the caller, since retrying row by row would not help.
+     */
+    private void write(List<PendingActivity> batch) {
+        List<ActivityLogItem> written;
+        try {
+            written = writeTransaction.execute(status -> insert(batch));
+        } catch (TransientDataAccessException | RecoverableDataAccessException | DataAccessResourceFailureException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            if (batch.size() == 1) {
+                log.warn("Could not write activity log entry {}: {}", batch.get(0).activityType(), e.getMessage());
+                return;
+            }
+            for (PendingActivity activity : batch) {
+                write(List.of(activity));
+            }
+            return;
+        }
+        if (written != null) {
+            written.forEach(recentActivity::publish);
+        }
+    }
+
+    private List<ActivityLogItem> insert(List<PendingActivity> batch) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_ACTIVITY_SQL,
+            Statement.RETURN_GENERATED_KEYS), new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PendingActivity activity = batch.get(i);
+                    ps.setString(1, activity.activityType());
+                    ps.setString(2, activity.description());
+                    if (activity.userId() != null) {
+                        ps.setLong(3, activity.userId());
+                    } else {
+                        ps.setNull(3, Types.BIGINT);
+                    }
+                    ps.setString(4, activity.entityType());
+                    if (activity.entityId() != null) {
+                        ps.setLong(5, activity.entityId());
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                    ps.setTimestamp(6, Timestamp.valueOf(activity.createdAt()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }, keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        List<ActivityLogItem> written = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingActivity activity = batch.get(i);
+            Long id = i < keyList.size() && !keyList.get(i).isEmpty()
+                && keyList.get(i).values().iterator().next() instanceof Number key ? key.longValue() : null;
+            written.add(new ActivityLogItem(id, activity.activityType(), activity.description(), activity.userId(),
+                activity.entityType(), activity.entityId(), activity.createdAt()));
+        }
+        return written;
     }
 }
@@ -0,0 +1,122 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.RoleStatusCount;
+import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.repository.AssignmentRepository;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.EnrollmentRepository;
+import com.edunex.edunex_lms.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Serves dashboard and report counters from a small in-memory snapshot
+ * The snapshot is rebuilt with a handful of aggregate queries when it is older than the TTL
+ * or after a write has invalidated it, so dashboard polling does not scale with table size
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStatsService {
+    
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final AssignmentRepository assignmentRepository;
+    
+    @Value("${admin.stats.ttl-ms:30000}")
+    private long ttlMs;
+    
+    private volatile StatsSnapshot snapshot;
+    private volatile boolean stale = true;
+    
+    public record StatsSnapshot(
+        Map<User.Role, Long> usersByRole,
+        long totalUsers,
+        long activeUsers,
+        long totalCourses,
+        long activeCourses,
+        long totalEnrollments,
+        long totalAssignments,
+        LocalDateTime generatedAt,
+        long loadedAtMillis
+    ) {
+        public long usersWithRole(User.Role role) {
+            return usersByRole.getOrDefault(role, 0L);
+        }
+    }
+    
+    /**
+     * Get the current counters, refreshing them if they are stale
+     * @return Stats snapshot
+     */
+    public StatsSnapshot getSnapshot() {
+        StatsSnapshot current = snapshot;
+        if (current != null && !stale && System.currentTimeMillis() - current.loadedAtMillis() < ttlMs) {
+            return current;
+        }
+        return refresh();
+    }
+    
+    /**
+     * Mark the snapshot as outdated after a user, course, enrollment or assignment write
+     * Takes effect once the current transaction commits, or right away when there is none, so a refresh
+     * running meanwhile cannot cache counts that miss the write
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale = true;
+                }
+            });
+        } else {
+            stale = true;
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public synchronized StatsSnapshot refresh() {
+        StatsSnapshot current = snapshot;
+        if (current != null && !stale && System.currentTimeMillis() - current.loadedAtMillis() < ttlMs) {
+            return current;
+        }
+        stale = false;
+        
+        Map<User.Role, Long> usersByRole = new EnumMap<>(User.Role.class);
+        long totalUsers = 0;
+        long activeUsers = 0;
+        for (RoleStatusCount row : userRepository.countGroupedByRoleAndEnabled()) {
+            usersByRole.merge(row.getRole(), row.getUserCount(), Long::sum);
+            totalUsers += row.getUserCount();
+            if (Boolean.TRUE.equals(row.getEnabled())) {
+                activeUsers += row.getUserCount();
+            }
+        }
+        
+        StatsSnapshot refreshed = new StatsSnapshot(
+            usersByRole,
+            totalUsers,
+            activeUsers,
+            courseRepository.count(),
+            courseRepository.countActive(),
+            enrollmentRepository.count(),
+            assignmentRepository.count(),
+            LocalDateTime.now(),
+            System.currentTimeMillis()
+        );
+        snapshot = refreshed;
+        log.debug("Admin stats snapshot refreshed");
+        return refreshed;
+    }
+}
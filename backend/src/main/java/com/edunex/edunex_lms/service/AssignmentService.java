@@ -1,40 +1,57 @@
 package com.edunex.edunex_lms.service;
 
+import com.edunex.edunex_lms.dto.AssignmentListItem;
+import com.edunex.edunex_lms.dto.GradeNotification;
+import com.edunex.edunex_lms.dto.StudentAssignmentItem;
 import com.edunex.edunex_lms.entity.Assignment;
 import com.edunex.edunex_lms.entity.Course;
-import com.edunex.edunex_lms.entity.Enrollment;
+import com.edunex.edunex_lms.entity.Submission;
 import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.exception.ResourceNotFoundException;
 import com.edunex.edunex_lms.repository.AssignmentRepository;
 import com.edunex.edunex_lms.repository.CourseRepository;
 import com.edunex.edunex_lms.repository.EnrollmentRepository;
+import com.edunex.edunex_lms.repository.SubmissionRepository;
 import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.service.EventStreamService.StreamEvent;
+import com.edunex.edunex_lms.service.FileDownloadService.Download;
+import com.edunex.edunex_lms.service.SubmissionStorageService.StoredFile;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AssignmentService {
     
     private final AssignmentRepository assignmentRepository;
+    private final SubmissionRepository submissionRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final ActivityLogService activityLogService;
+    private final AdminStatsService adminStatsService;
+    private final SubmissionStorageService submissionStorageService;
+    private final BlobStorageService blobStorageService;
+    private final EventStreamService eventStreamService;
+    private final TransactionTemplate transactionTemplate;
     
-    private static final String UPLOAD_DIR = "uploads/assignments/";
+    private static final Sort LIST_ORDER = Sort.by("dueDate", "id");
     
     @Transactional
     public Assignment createAssignment(Assignment assignment, Long courseId) {
@@ -44,6 +61,7 @@ public class AssignmentService {
         assignment.setCourse(course);
         assignment.setStatus(Assignment.SubmissionStatus.PENDING);
         Assignment saved = assignmentRepository.save(assignment);
+        adminStatsService.invalidate();
         
         // Log activity
         activityLogService.logActivity(
@@ -57,8 +75,42 @@ public class AssignmentService {
         return saved;
     }
     
-    @Transactional
-    public Assignment submitAssignment(Long assignmentId, Long studentId, MultipartFile file) {
+    /**
+     * Create or replace the student's submission for an assignment
+     * The assignment definition itself is left untouched
+     * @param assignmentId Assignment ID
+     * @param studentId Student ID
+     * @param file Submitted file, may be null
+     * @return The student's submission
+     */
+    public Submission submitAssignment(Long assignmentId, Long studentId, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return submit(assignmentId, studentId, null);
+        }
+        return submit(assignmentId, studentId, (courseId, replacedBytes) ->
+            submissionStorageService.store(courseId, replacedBytes, file));
+    }
+    
+    /**
+     * Create or replace the student's submission with a file streamed straight from the request body
+     * @param assignmentId Assignment ID
+     * @param studentId Student ID
+     * @param fileName Original file name
+     * @param content File content
+     * @param contentLength Declared length, or -1 if unknown
+     * @return The student's submission
+     */
+    public Submission submitAssignment(Long assignmentId, Long studentId, String fileName, InputStream content,
+                                       long contentLength) {
+        return submit(assignmentId, studentId, (courseId, replacedBytes) ->
+            submissionStorageService.store(courseId, replacedBytes, fileName, content, contentLength));
+    }
+    
+    /**
+     * Write the file outside of any transaction, so slow uploads do not hold a database connection,
+     * then record the submission in a short one
+     */
+    private Submission submit(Long assignmentId, Long studentId, BiFunction<Long, Long, StoredFile> upload) {
         Assignment assignment = assignmentRepository.findById(assignmentId)
             .orElseThrow(() -> new RuntimeException("Assignment not found"));
         
@@ -66,23 +118,54 @@ public class AssignmentService {
         User student = userRepository.findById(studentId)
             .orElseThrow(() -> new RuntimeException("Student not found"));
         
-        // Set student on the assignment
-        assignment.setStudent(student);
+        long replacedBytes = submissionRepository.findByAssignmentIdAndStudentId(assignmentId, studentId)
+            .map(Submission::getFileSize).orElse(0L);
+        
+        StoredFile stored = upload == null ? null : upload.apply(assignment.getCourse().getId(), replacedBytes);
+        try {
+            return transactionTemplate.execute(status -> saveSubmission(assignment, student, stored));
+        } catch (RuntimeException e) {
+            if (stored != null) {
+                submissionStorageService.discard(stored);
+            }
+            throw e;
+        } finally {
+            if (stored != null) {
+                submissionStorageService.release(stored);
+            }
+        }
+    }
+    
+    private Submission saveSubmission(Assignment assignment, User student, StoredFile stored) {
+        Submission submission = submissionRepository.findByAssignmentIdAndStudentId(assignment.getId(), student.getId())
+            .orElseGet(Submission::new);
+        submission.setAssignment(assignment);
+        submission.setStudent(student);
         
-        if (LocalDateTime.now().isAfter(assignment.getDueDate())) {
-            assignment.setStatus(Assignment.SubmissionStatus.LATE_SUBMISSION);
+        LocalDateTime now = LocalDateTime.now();
+        if (assignment.getDueDate() != null && now.isAfter(assignment.getDueDate())) {
+            submission.setStatus(Assignment.SubmissionStatus.LATE_SUBMISSION);
         } else {
-            assignment.setStatus(Assignment.SubmissionStatus.SUBMITTED);
+            submission.setStatus(Assignment.SubmissionStatus.SUBMITTED);
         }
         
-        // Save file if provided
-        if (file != null && !file.isEmpty()) {
-            String fileName = saveFile(file, assignmentId, studentId);
-            assignment.setSubmissionUrl(fileName);
+        if (stored != null) {
+            // The new file takes over from the previous one, whose blob is dropped once unreferenced
+            if (submission.getId() != null) {
+                submissionStorageService.releaseFile(submission);
+            }
+            submission.setSubmissionUrl(stored.path());
+            submission.setFileName(stored.fileName());
+            submission.setFileSize(stored.size());
+            submission.setContentHash(stored.sha256());
         }
-        assignment.setSubmittedAt(LocalDateTime.now());
+        submission.setSubmittedAt(now);
         
-        Assignment saved = assignmentRepository.save(assignment);
+        // A resubmission has to be graded again
+        submission.setMarksObtained(null);
+        submission.setGradedAt(null);
+        
+        Submission saved = submissionRepository.save(submission);
         
         // Log activity
         activityLogService.logActivity(
@@ -90,45 +173,97 @@ public class AssignmentService {
             "Assignment submitted: " + assignment.getTitle() + " by " + student.getFullName(),
             student,
             "Assignment",
-            assignmentId
+            assignment.getId()
         );
         
         return saved;
     }
     
+    /**
+     * Grade a student's submission
+     * @param submissionId Submission ID
+     * @param grade Marks, between 0 and the assignment's max marks
+     * @param feedback Feedback for the student
+     * @return The graded submission
+     */
     @Transactional
-    public Assignment gradeAssignment(Long assignmentId, Double grade, String feedback) {
-        Assignment assignment = assignmentRepository.findById(assignmentId)
-            .orElseThrow(() -> new RuntimeException("Assignment not found"));
+    public Submission gradeSubmission(Long submissionId, Double grade, String feedback) {
+        Submission submission = submissionRepository.findGradingById(submissionId)
+            .orElseThrow(() -> new RuntimeException("Submission not found"));
         
-        if (grade < 0 || grade > assignment.getMaxMarks()) {
+        Integer maxMarks = submission.getAssignment().getMaxMarks();
+        if (grade < 0 || (maxMarks != null && grade > maxMarks)) {
             throw new RuntimeException("Invalid grade");
         }
         
-        assignment.setMarksObtained(grade.intValue());
-        assignment.setFeedback(feedback);
-        assignment.setStatus(Assignment.SubmissionStatus.GRADED);
+        submission.setMarksObtained(grade.intValue());
+        submission.setFeedback(feedback);
+        submission.setStatus(Assignment.SubmissionStatus.GRADED);
+        submission.setGradedAt(LocalDateTime.now());
         
-        return assignmentRepository.save(assignment);
+        Submission saved = submissionRepository.save(submission);
+        Assignment assignment = saved.getAssignment();
+        eventStreamService.sendToUser(saved.getStudent().getId(), new StreamEvent("grade", "grade-" + saved.getId(),
+            new GradeNotification(saved.getId(), assignment.getId(), assignment.getTitle(),
+                assignment.getCourse() != null ? assignment.getCourse().getId() : null,
+                saved.getMarksObtained(), assignment.getMaxMarks(), saved.getFeedback(), saved.getGradedAt())));
+        return saved;
+    }
+    
+    /**
+     * Look up the submitted file of a submission the user may read
+     * Admins, the submitting student and the course instructor have access
+     * @param submissionId Submission ID
+     * @param userId Requesting user ID
+     * @param role Requesting user's role
+     * @return File to serve
+     */
+    @Transactional(readOnly = true)
+    public Download getSubmissionDownload(Long submissionId, Long userId, User.Role role) {
+        Submission submission = submissionRepository.findByIdWithAssignment(submissionId)
+            .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", submissionId));
+        
+        boolean allowed = switch (role) {
+            case ADMIN -> true;
+            case INSTRUCTOR -> submission.getAssignment().getCourse().getInstructor().getId().equals(userId);
+            case STUDENT -> submission.getStudent().getId().equals(userId);
+        };
+        if (!allowed) {
+            throw new AccessDeniedException("No access to this submission");
+        }
+        
+        Path file = blobStorageService.locate(submission.getContentHash(), submission.getSubmissionUrl());
+        if (file == null) {
+            throw new ResourceNotFoundException("Submission file", "id", submissionId);
+        }
+        String etag = submission.getContentHash() != null ? "\"" + submission.getContentHash() + "\"" : null;
+        String fileName = submission.getFileName() != null ? submission.getFileName() : file.getFileName().toString();
+        return new Download(file, fileName, null, etag,
+            submission.getSubmittedAt() != null ? submission.getSubmittedAt().atZone(ZoneId.systemDefault()).toInstant() : null);
     }
     
     public List<Assignment> getAssignmentsByCourse(Long courseId) {
         return assignmentRepository.findByCourseId(courseId);
     }
     
-    public List<Assignment> getStudentAssignments(Long studentId) {
-        // This would need a student_id column in Assignment or join through submissions
-        return assignmentRepository.findAll();
+    /**
+     * Assignment feed of a student's enrolled courses with the student's own submission status
+     * Keyset paginated by (dueDate, id): pass the last item of the previous page to continue after it
+     * @param studentId Student ID
+     * @param afterDueDate Due date of the last item already seen, null for the first page
+     * @param afterId ID of the last item already seen
+     * @param limit Maximum number of items
+     * @return Feed items in due date order
+     */
+    @Transactional(readOnly = true)
+    public List<StudentAssignmentItem> getStudentAssignments(Long studentId, LocalDateTime afterDueDate, Long afterId,
+                                                             int limit) {
+        return assignmentRepository.findStudentFeed(studentId, afterDueDate, afterId, PageRequest.of(0, limit));
     }
     
     public List<Assignment> getInstructorAssignments(Long instructorId) {
-        // Get assignments from instructor's courses
-        List<Course> courses = courseRepository.findByInstructorId(instructorId);
-        List<Assignment> assignments = new ArrayList<>();
-        for (Course course : courses) {
-            assignments.addAll(assignmentRepository.findByCourseId(course.getId()));
-        }
-        return assignments;
+        List<Long> courseIds = courseRepository.findIdsByInstructorId(instructorId);
+        return assignmentRepository.findByCourseIdIn(courseIds, LIST_ORDER);
     }
     
     public List<Assignment> getPendingAssignments(Long courseId) {
@@ -138,73 +273,66 @@ public class AssignmentService {
             .toList();
     }
     
-    private String saveFile(MultipartFile file, Long assignmentId, Long studentId) {
-        try {
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path uploadPath = Paths.get(UPLOAD_DIR + assignmentId + "/" + studentId);
-            
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            Path filePath = uploadPath.resolve(fileName);
-            Files.copy(file.getInputStream(), filePath);
-            
-            return filePath.toString();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save file: " + e.getMessage());
+    public List<Assignment> getUserAssignments(String username) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        List<Long> courseIds = visibleCourseIds(user);
+        if (courseIds == null) {
+            // Admin gets all assignments
+            return assignmentRepository.findAllWithCourse(LIST_ORDER);
         }
+        return assignmentRepository.findByCourseIdIn(courseIds, LIST_ORDER);
     }
     
-    public List<Assignment> getUserAssignments(String username) {
+    /**
+     * Page through the assignments visible to a user without loading descriptions or feedback
+     * Students see their own submission on each assignment
+     * @param username Username
+     * @param pageable Page request
+     * @return Page of assignment list items
+     */
+    public Page<AssignmentListItem> getUserAssignmentList(String username, Pageable pageable) {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (user.getRole() == User.Role.STUDENT) {
-            // Get assignments from enrolled courses
-            List<Enrollment> enrollments = enrollmentRepository.findByStudentId(user.getId());
-            List<Long> courseIds = enrollments.stream()
-                .map(e -> e.getCourse().getId())
-                .collect(Collectors.toList());
-            
-            List<Assignment> assignments = new ArrayList<>();
-            for (Long courseId : courseIds) {
-                assignments.addAll(assignmentRepository.findByCourseId(courseId));
-            }
-            return assignments;
+            return assignmentRepository.findStudentListItems(user.getId(), pageable);
+        }
+        List<Long> courseIds = visibleCourseIds(user);
+        return assignmentRepository.findListItems(courseIds == null, courseIds == null ? List.of() : courseIds, pageable);
+    }
+    
+    /**
+     * @return IDs of the courses whose assignments the user may list, or null for all courses
+     */
+    private List<Long> visibleCourseIds(User user) {
+        if (user.getRole() == User.Role.STUDENT) {
+            return enrollmentRepository.findCourseIdsByStudentId(user.getId());
         } else if (user.getRole() == User.Role.INSTRUCTOR) {
-            // Get assignments from instructor's courses
-            List<Course> courses = courseRepository.findByInstructorId(user.getId());
-            List<Assignment> assignments = new ArrayList<>();
-            for (Course course : courses) {
-                assignments.addAll(assignmentRepository.findByCourseId(course.getId()));
-            }
-            return assignments;
-        } else {
-            // Admin gets all assignments
-            return assignmentRepository.findAll();
+            return courseRepository.findIdsByInstructorId(user.getId());
         }
+        return null;
     }
     
     @Transactional(readOnly = true)
-    public List<Assignment> getAssignmentSubmissions(Long assignmentId) {
-        // Find the original assignment to verify it exists
-        Assignment assignment = assignmentRepository.findById(assignmentId)
-            .orElseThrow(() -> new RuntimeException("Assignment not found"));
-        
-        // Find all submissions (assignments with the same base assignment but different students)
-        // In this schema, submissions are stored as separate Assignment records with student_id set
-        List<Assignment> submissions = assignmentRepository.findByCourseIdAndTitleAndStudentIsNotNull(
-            assignment.getCourse().getId(), 
-            assignment.getTitle()
-        );
-        
-        return submissions;
+    public List<Submission> getAssignmentSubmissions(Long assignmentId) {
+        if (!assignmentRepository.existsById(assignmentId)) {
+            throw new RuntimeException("Assignment not found");
+        }
+        return submissionRepository.findByAssignmentIdWithStudent(assignmentId);
     }
     
     @Transactional(readOnly = true)
-    public List<Assignment> getCourseAssignmentSubmissions(Long courseId, String title) {
-        return assignmentRepository.findByCourseIdAndTitleAndStudentIsNotNull(courseId, title);
+    public List<Submission> getCourseAssignmentSubmissions(Long courseId, String title) {
+        return submissionRepository.findByCourseIdAndTitleWithStudent(courseId, title);
+    }
+    
+    /**
+     * Gradebook of a course, one submission per row, to be consumed inside a transaction
+     */
+    public Stream<Submission> streamGradebook(Long courseId) {
+        return submissionRepository.streamByCourseId(courseId);
     }
     
     @Transactional
@@ -218,6 +346,9 @@ public class AssignmentService {
             "Assignment '" + assignment.getTitle() + "' was deleted"
         );
         
+        submissionStorageService.releaseFiles(submissionRepository.findFileRefsByAssignmentId(assignmentId));
+        submissionRepository.deleteByAssignmentId(assignmentId);
         assignmentRepository.delete(assignment);
+        adminStatsService.invalidate();
     }
 }
@@ -1,17 +1,32 @@
 package com.edunex.edunex_lms.service;
 
 import com.edunex.edunex_lms.entity.Attendance;
+import com.edunex.edunex_lms.entity.AttendanceSummary;
 import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.User;
 import com.edunex.edunex_lms.repository.AttendanceRepository;
 import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.EnrollmentRepository;
 import com.edunex.edunex_lms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +35,44 @@ public class AttendanceService {
     private final AttendanceRepository attendanceRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AttendanceSummaryService attendanceSummaryService;
+    
+    private static final String UPSERT_ATTENDANCE_SQL =
+        "INSERT INTO attendance (student_id, course_id, attendance_date, status, remarks, marked_at, marked_by) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE status = VALUES(status), remarks = VALUES(remarks), marked_by = VALUES(marked_by)";
+    
+    // Locks the session's rows until the transaction ends; on MySQL under REPEATABLE READ also the gap in
+    // idx_attendance_course_date they sit in, so no row for the session can be added meanwhile
+    private static final String LOCK_SESSION_SQL =
+        "SELECT student_id, status, remarks, marked_at FROM attendance WHERE course_id = ? AND attendance_date = ? " +
+        "FOR UPDATE";
+    
+    // Leaves a row already marked for the date as it is
+    private static final String INSERT_ATTENDANCE_SQL =
+        "INSERT IGNORE INTO attendance (student_id, course_id, attendance_date, status, remarks, marked_at, marked_by) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    /**
+     * One student's entry in a class session roll call
+     */
+    public record SessionEntry(Long studentId, String status, String remarks) {
+    }
+    
+    public record SessionConflict(Long studentId, String reason) {
+    }
+    
+    public record SessionResult(int inserted, int updated, int unchanged, List<SessionConflict> conflicts) {
+    }
+    
+    private record SessionRow(Attendance.AttendanceStatus status, String remarks, LocalDateTime markedAt) {
+    }
+    
+    private record SessionWrite(Long studentId, Attendance.AttendanceStatus status, String remarks,
+                                Attendance.AttendanceStatus previous) {
+    }
     
     @Transactional
     public Attendance markAttendance(Long studentId, Long courseId, String status) {
@@ -59,15 +112,152 @@ public class AttendanceService {
             attendance.setMarkedBy(markedBy);
         }
         
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceSummaryService.apply(List.of(
+            AttendanceSummaryService.Delta.added(studentId, courseId, saved.getStatus())));
+        return saved;
+    }
+    
+    /**
+     * Mark attendance for a whole class session in one transaction
+     * The course and marker are resolved once, existing rows for the date are read with one locking query,
+     * and all new or changed rows are written as a single batch: an upsert when overwriting, otherwise an insert
+     * that leaves rows marked in the meantime untouched and reports them as conflicts. The lock makes concurrent
+     * sessions for the same course and date run one after the other, so each computes its summary deltas against
+     * the rows as the previous one left them. The deltas are taken from the rows read back after the batch rather
+     * than from its update counts, which the driver does not report per row for rewritten batches.
+     * @param courseId Course ID
+     * @param date Session date, today if null
+     * @param markedById User marking the attendance, may be null
+     * @param entries Roll call entries
+     * @param overwrite Whether existing rows for the date may be changed; if not they are reported as conflicts
+     * @return Counts of inserted, updated and unchanged rows, plus per-student conflicts
+     */
+    @Transactional
+    public SessionResult markSession(Long courseId, LocalDate date, Long markedById, List<SessionEntry> entries,
+                                     boolean overwrite) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new RuntimeException("Course not found");
+        }
+        if (markedById != null && !userRepository.existsById(markedById)) {
+            throw new RuntimeException("Marker not found");
+        }
+        
+        LocalDate attendanceDate = date != null ? date : LocalDate.now();
+        Set<Long> enrolledStudents = new HashSet<>(enrollmentRepository.findStudentIdsByCourseId(courseId));
+        Date sqlDate = Date.valueOf(attendanceDate);
+        Map<Long, SessionRow> existing = lockSession(courseId, sqlDate);
+        
+        List<SessionConflict> conflicts = new ArrayList<>();
+        List<SessionWrite> toWrite = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        
+        for (SessionEntry entry : entries) {
+            Long studentId = entry.studentId();
+            if (studentId == null) {
+                conflicts.add(new SessionConflict(null, "Student ID is required"));
+                continue;
+            }
+            if (!seen.add(studentId)) {
+                conflicts.add(new SessionConflict(studentId, "Duplicate entry for student"));
+                continue;
+            }
+            if (!enrolledStudents.contains(studentId)) {
+                conflicts.add(new SessionConflict(studentId, "Student is not enrolled in this course"));
+                continue;
+            }
+            
+            Attendance.AttendanceStatus status;
+            try {
+                status = Attendance.AttendanceStatus.valueOf(entry.status().toUpperCase());
+            } catch (RuntimeException e) {
+                conflicts.add(new SessionConflict(studentId, "Invalid status: " + entry.status()));
+                continue;
+            }
+            
+            SessionRow current = existing.get(studentId);
+            if (current == null) {
+                inserted++;
+            } else if (!overwrite) {
+                conflicts.add(new SessionConflict(studentId, "Attendance already marked for this date"));
+                continue;
+            } else if (current.status() == status && Objects.equals(current.remarks(), entry.remarks())) {
+                unchanged++;
+                continue;
+            } else {
+                updated++;
+            }
+            toWrite.add(new SessionWrite(studentId, status, entry.remarks(),
+                current != null ? current.status() : null));
+        }
+        
+        if (!toWrite.isEmpty()) {
+            // Stored as is in marked_at, so a row read back can be told apart from one marked by someone else
+            LocalDateTime markedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            Timestamp now = Timestamp.valueOf(markedAt);
+            String sql = overwrite ? UPSERT_ATTENDANCE_SQL : INSERT_ATTENDANCE_SQL;
+            jdbcTemplate.batchUpdate(sql, toWrite, toWrite.size(), (ps, write) -> {
+                ps.setLong(1, write.studentId());
+                ps.setLong(2, courseId);
+                ps.setDate(3, sqlDate);
+                ps.setString(4, write.status().name());
+                ps.setString(5, write.remarks());
+                ps.setTimestamp(6, now);
+                if (markedById != null) {
+                    ps.setLong(7, markedById);
+                } else {
+                    ps.setNull(7, Types.BIGINT);
+                }
+            });
+            
+            Map<Long, SessionRow> stored = lockSession(courseId, sqlDate);
+            List<AttendanceSummaryService.Delta> deltas = new ArrayList<>();
+            for (SessionWrite write : toWrite) {
+                SessionRow row = stored.get(write.studentId());
+                if (!overwrite && write.previous() == null && (row == null || !markedAt.equals(row.markedAt()))) {
+                    // Marked by someone else between the lock and the insert and left as they wrote it. The MySQL
+                    // gap lock rules this out under REPEATABLE READ, which the upsert relies on, but not under
+                    // READ COMMITTED.
+                    inserted--;
+                    conflicts.add(new SessionConflict(write.studentId(), "Attendance already marked for this date"));
+                } else if (write.previous() == null) {
+                    deltas.add(AttendanceSummaryService.Delta.added(write.studentId(), courseId, write.status()));
+                } else if (write.previous() != write.status()) {
+                    deltas.add(AttendanceSummaryService.Delta.changed(write.studentId(), courseId, write.previous(),
+                        write.status()));
+                }
+            }
+            attendanceSummaryService.apply(deltas);
+        }
+        
+        return new SessionResult(inserted, updated, unchanged, conflicts);
+    }
+    
+    /**
+     * Read a session's rows, locking them for the rest of the transaction
+     * @return Rows by student ID
+     */
+    private Map<Long, SessionRow> lockSession(Long courseId, Date sqlDate) {
+        Map<Long, SessionRow> rows = new HashMap<>();
+        jdbcTemplate.query(LOCK_SESSION_SQL, rs -> {
+            rows.put(rs.getLong("student_id"), new SessionRow(Attendance.AttendanceStatus.valueOf(rs.getString("status")),
+                rs.getString("remarks"), rs.getTimestamp("marked_at").toLocalDateTime()));
+        }, courseId, sqlDate);
+        return rows;
     }
     
     public List<Attendance> getAttendanceByStudent(Long studentId) {
         return attendanceRepository.findByStudentId(studentId);
     }
     
-    public List<Attendance> getAttendanceByCourse(Long courseId) {
-        return attendanceRepository.findByCourseId(courseId);
+    /**
+     * Attendance of a course, to be consumed inside a transaction
+     */
+    public Stream<Attendance> streamAttendanceByCourse(Long courseId) {
+        return attendanceRepository.streamByCourseId(courseId);
     }
     
     public List<Attendance> getAttendanceByStudentAndCourse(Long studentId, Long courseId) {
@@ -75,17 +265,9 @@ public class AttendanceService {
     }
     
     public Double calculateAttendanceRate(Long studentId, Long courseId) {
-        List<Attendance> attendances = attendanceRepository.findByStudentIdAndCourseId(studentId, courseId);
-        
-        if (attendances.isEmpty()) {
-            return 0.0;
-        }
-        
-        long presentCount = attendances.stream()
-            .filter(a -> a.getStatus() == Attendance.AttendanceStatus.PRESENT)
-            .count();
-        
-        return (double) presentCount / attendances.size() * 100;
+        return attendanceSummaryService.getSummary(studentId, courseId)
+            .map(AttendanceSummary::getRate)
+            .orElse(0.0);
     }
     
     public List<Attendance> getAttendanceByDate(Long courseId, LocalDate date) {
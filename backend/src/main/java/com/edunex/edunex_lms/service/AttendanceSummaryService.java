@@ -0,0 +1,129 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.entity.Attendance;
+import com.edunex.edunex_lms.entity.AttendanceSummary;
+import com.edunex.edunex_lms.repository.AttendanceRepository;
+import com.edunex.edunex_lms.repository.AttendanceSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains the per-student, per-course attendance counters
+ * Counters are changed with relative upserts, so concurrent markings never overwrite each other
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceSummaryService {
+    
+    private static final String APPLY_DELTA_SQL =
+        "INSERT INTO attendance_summary (student_id, course_id, present_count, absent_count, late_count, " +
+        "excused_count, total_count, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+        "absent_count = absent_count + VALUES(absent_count), late_count = late_count + VALUES(late_count), " +
+        "excused_count = excused_count + VALUES(excused_count), total_count = total_count + VALUES(total_count), " +
+        "updated_at = VALUES(updated_at)";
+    
+    private static final String REBUILD_SQL =
+        "INSERT INTO attendance_summary (student_id, course_id, present_count, absent_count, late_count, " +
+        "excused_count, total_count, updated_at) " +
+        "SELECT student_id, course_id, " +
+        "SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN status = 'LATE' THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN status = 'EXCUSED' THEN 1 ELSE 0 END), " +
+        "COUNT(*), CURRENT_TIMESTAMP FROM attendance GROUP BY student_id, course_id";
+    
+    private final AttendanceSummaryRepository attendanceSummaryRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * A change to one student's counters; counts may be negative when a status is corrected
+     */
+    public record Delta(Long studentId, Long courseId, int present, int absent, int late, int excused, int total) {
+        
+        public static Delta added(Long studentId, Long courseId, Attendance.AttendanceStatus status) {
+            return of(studentId, courseId, status, 1, 1);
+        }
+        
+        public static Delta changed(Long studentId, Long courseId, Attendance.AttendanceStatus from,
+                                    Attendance.AttendanceStatus to) {
+            return of(studentId, courseId, from, -1, 0).plus(of(studentId, courseId, to, 1, 0));
+        }
+        
+        private static Delta of(Long studentId, Long courseId, Attendance.AttendanceStatus status, int amount, int total) {
+            return new Delta(studentId, courseId,
+                status == Attendance.AttendanceStatus.PRESENT ? amount : 0,
+                status == Attendance.AttendanceStatus.ABSENT ? amount : 0,
+                status == Attendance.AttendanceStatus.LATE ? amount : 0,
+                status == Attendance.AttendanceStatus.EXCUSED ? amount : 0,
+                total);
+        }
+        
+        private Delta plus(Delta other) {
+            return new Delta(studentId, courseId, present + other.present, absent + other.absent,
+                late + other.late, excused + other.excused, total + other.total);
+        }
+    }
+    
+    /**
+     * Fill the counters from existing attendance rows if they have never been built
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (attendanceSummaryRepository.count() == 0 && attendanceRepository.count() > 0) {
+            int rows = rebuild();
+            log.info("Built {} attendance summary row(s) from existing attendance", rows);
+        }
+    }
+    
+    /**
+     * Recompute all counters from the attendance table
+     * @return Number of summary rows written
+     */
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM attendance_summary");
+        return jdbcTemplate.update(REBUILD_SQL);
+    }
+    
+    /**
+     * Apply counter changes in one batch; must run in the transaction that writes the attendance rows
+     * @param deltas Counter changes
+     */
+    public void apply(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.studentId());
+            ps.setLong(2, delta.courseId());
+            ps.setInt(3, delta.present());
+            ps.setInt(4, delta.absent());
+            ps.setInt(5, delta.late());
+            ps.setInt(6, delta.excused());
+            ps.setInt(7, delta.total());
+            ps.setTimestamp(8, now);
+        });
+    }
+    
+    public Optional<AttendanceSummary> getSummary(Long studentId, Long courseId) {
+        return attendanceSummaryRepository.findByStudentIdAndCourseId(studentId, courseId);
+    }
+    
+    public List<AttendanceSummary> getSummariesByStudent(Long studentId) {
+        return attendanceSummaryRepository.findByStudentId(studentId);
+    }
+}
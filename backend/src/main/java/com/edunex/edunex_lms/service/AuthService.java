@@ -33,6 +33,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final AdminStatsService adminStatsService;
     
     /**
      * Authenticate user and generate JWT token
@@ -117,6 +118,7 @@ public class AuthService {
         user.setAccountNonLocked(true);
         
         User savedUser = userRepository.save(user);
+        adminStatsService.invalidate();
         log.info("User registered successfully: {} with role {}", savedUser.getUsername(), savedUser.getRole());
         
         // Auto-login after registration
@@ -0,0 +1,367 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.FileRef;
+import com.edunex.edunex_lms.exception.InvalidOperationException;
+import com.edunex.edunex_lms.repository.StoredBlobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Content-addressed file store keyed by SHA-256
+ * Uploads are streamed to a staging directory on the same filesystem, hashed on the way and then either moved
+ * to blobs/{aa}/{bb}/{sha256} or, if that content is already stored, dropped. Every row pointing at a blob holds
+ * one reference; blobs without references are collected. Taking a reference and collecting a blob are
+ * serialized per hash, which assumes a single application instance owns the upload directory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlobStorageService {
+
+    private static final String ACQUIRE_SQL =
+        "INSERT INTO stored_blobs (sha256, size_bytes, ref_count, created_at, updated_at) VALUES (?, ?, 1, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = VALUES(updated_at)";
+
+    private static final String RELEASE_SQL =
+        "UPDATE stored_blobs SET ref_count = ref_count - 1, updated_at = ? WHERE sha256 = ? AND ref_count > 0";
+
+    private static final String DELETE_UNREFERENCED_SQL =
+        "DELETE FROM stored_blobs WHERE sha256 = ? AND ref_count <= 0";
+
+    private static final long TRANSFER_CHUNK = 1 << 20;
+    private static final int HASH_BUFFER = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${file.upload-dir:uploads/}")
+    private String uploadDir;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private Path root;
+    private Path incoming;
+
+    /**
+     * A stored blob; the caller holds one reference to it
+     */
+    public record Blob(String sha256, long size, String path) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        root = Paths.get(uploadDir, "blobs");
+        incoming = Paths.get(uploadDir, ".incoming").toAbsolutePath();
+        Files.createDirectories(root);
+        Files.createDirectories(incoming);
+    }
+
+    /**
+     * @return Directory uploads are staged in; on the same filesystem as the blobs
+     */
+    public Path getIncomingDir() {
+        return incoming;
+    }
+
+    /**
+     * Store a multipart file the servlet container has already spooled to the staging directory
+     * @param file Uploaded file
+     * @return Stored blob with one reference taken
+     */
+    public Blob store(MultipartFile file) {
+        Path staged = stagingFile();
+        try {
+            // The container moves its spooled part instead of copying it when the target is on the same filesystem
+            file.transferTo(staged.toFile());
+            return commit(staged, hash(staged), file.getSize());
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(staged);
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Store a file streamed from the request body
+     * @param content File content
+     * @param contentLength Declared length, or -1 if unknown
+     * @param maxSize Maximum accepted size in bytes
+     * @return Stored blob with one reference taken
+     */
+    public Blob store(InputStream content, long contentLength, long maxSize) {
+        Path staged = stagingFile();
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(content, digest));
+                 FileChannel target = FileChannel.open(staged, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long transferred;
+                // Ask for at most one byte more than allowed so oversized uploads are noticed without writing them
+                while ((transferred = target.transferFrom(source, size,
+                        Math.min(TRANSFER_CHUNK, maxSize + 1 - size))) > 0) {
+                    size += transferred;
+                    if (size > maxSize) {
+                        throw new InvalidOperationException("File exceeds the maximum size of " + maxSize + " bytes");
+                    }
+                }
+            }
+            if (contentLength >= 0 && size != contentLength) {
+                throw new InvalidOperationException("Upload incomplete: received " + size + " of " + contentLength + " bytes");
+            }
+            return commit(staged, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(staged);
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Drop one reference to each given blob; joins the caller's transaction if there is one
+     * A hash listed twice loses two references
+     * @param hashes Blob hashes, nulls are ignored
+     */
+    public void release(Collection<String> hashes) {
+        List<String> present = hashes.stream().filter(StringUtils::hasText).toList();
+        if (present.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(RELEASE_SQL, present, present.size(), (ps, hash) -> {
+            ps.setTimestamp(1, now);
+            ps.setString(2, hash);
+        });
+    }
+
+    /**
+     * Delete the given blobs if nothing references them any more, after the current transaction
+     * commits or right away when there is none
+     * @param hashes Blob hashes, nulls are ignored
+     */
+    public void collectLater(Collection<String> hashes) {
+        List<String> present = hashes.stream().filter(StringUtils::hasText).distinct().toList();
+        if (present.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    collect(present);
+                }
+            });
+        } else {
+            collect(present);
+        }
+    }
+
+    /**
+     * Delete the given blobs if nothing references them any more
+     * @param hashes Blob hashes
+     * @return Number of blobs deleted
+     */
+    public int collect(Collection<String> hashes) {
+        int deleted = 0;
+        for (String hash : hashes) {
+            synchronized (lockFor(hash)) {
+                if (jdbcTemplate.update(DELETE_UNREFERENCED_SQL, hash) > 0) {
+                    deleteQuietly(resolve(hash));
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Periodically remove blobs left without references, e.g. after a failed save
+     */
+    @Scheduled(initialDelayString = "${blobs.gc.interval-ms:3600000}", fixedDelayString = "${blobs.gc.interval-ms:3600000}")
+    public void sweep() {
+        int deleted = collect(storedBlobRepository.findUnreferencedHashes());
+        if (deleted > 0) {
+            log.info("Blob sweep removed {} unreferenced blob(s)", deleted);
+        }
+    }
+
+    /**
+     * @param sha256 Blob hash
+     * @return Location of the blob's file
+     */
+    public Path resolve(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Drop the references held by stored files and collect the blobs after commit
+     * Files written before the blob store existed are not reference counted and are skipped
+     * @param files Stored files
+     */
+    public void releaseFiles(Collection<? extends FileRef> files) {
+        List<String> hashes = files.stream()
+            .filter(file -> isBlob(file.getContentHash(), file.getPath()))
+            .map(FileRef::getContentHash)
+            .toList();
+        release(hashes);
+        collectLater(hashes);
+    }
+
+    /**
+     * Drop the reference held by one stored file and collect its blob after commit
+     * @param sha256 Content hash
+     * @param path Stored path
+     */
+    public void releaseFile(String sha256, String path) {
+        if (isBlob(sha256, path)) {
+            releaseBlob(sha256);
+        }
+    }
+
+    /**
+     * Drop one reference to a blob and collect it after commit
+     * @param sha256 Blob hash, ignored if empty
+     */
+    public void releaseBlob(String sha256) {
+        if (StringUtils.hasText(sha256)) {
+            release(List.of(sha256));
+            collectLater(List.of(sha256));
+        }
+    }
+
+    /**
+     * Find the file behind a stored path: the blob if the path points into the store, otherwise a file
+     * written before the blob store existed, as long as it lies inside the upload directory
+     * @param sha256 Content hash, may be null
+     * @param path Stored path
+     * @return File location, or null if the path is outside the upload directory
+     */
+    public Path locate(String sha256, String path) {
+        if (isBlob(sha256, path)) {
+            return resolve(sha256);
+        }
+        if (!StringUtils.hasText(path)) {
+            return null;
+        }
+        Path uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path file = Paths.get(path).toAbsolutePath().normalize();
+        return file.startsWith(uploadRoot) ? file : null;
+    }
+
+    /**
+     * @return true if the path is the blob store location of the hash
+     */
+    public boolean isBlob(String sha256, String path) {
+        return StringUtils.hasText(sha256) && sha256.length() == 64 && resolve(sha256).toString().equals(path);
+    }
+
+    /**
+     * Take a reference to the content and keep the staged file only if the content is new
+     */
+    private Blob commit(Path staged, String sha256, long size) throws IOException {
+        Path target = resolve(sha256);
+        synchronized (lockFor(sha256)) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.update(ACQUIRE_SQL, sha256, size, now, now);
+
+            try {
+                if (Files.exists(target)) {
+                    Files.delete(staged);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                release(List.of(sha256));
+                throw e;
+            }
+        }
+        return new Blob(sha256, size, target.toString());
+    }
+
+    /**
+     * Strip any directory part a client may have sent along with a file name
+     * @param originalName Name sent by the client
+     * @param fallback Name to use when nothing is left
+     * @return Plain file name
+     */
+    public static String safeFileName(String originalName, String fallback) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(originalName == null ? "" : originalName));
+        return StringUtils.hasText(name) && !name.equals("..") ? name : fallback;
+    }
+
+    private Object lockFor(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), locks.length)];
+    }
+
+    private Path stagingFile() {
+        return incoming.resolve(UUID.randomUUID() + ".part");
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static RuntimeException failure(Exception e) {
+        if (e instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException("Failed to save file: " + e.getMessage());
+    }
+}
@@ -0,0 +1,124 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.CourseEnrollmentCount;
+import com.edunex.edunex_lms.dto.EnrollmentPair;
+import com.edunex.edunex_lms.entity.Course;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates enrollments in bulk
+ * The affected courses are locked first, so concurrent enrollments in the same course count seats one after
+ * the other. Existing enrollments and course capacity are then loaded with one query each and the remaining
+ * rows are written as a JDBC batch
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkEnrollmentService {
+
+    private static final String INSERT_ENROLLMENT_SQL =
+        "INSERT INTO enrollments (student_id, course_id, status, progress_percentage, enrolled_at) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AdminStatsService adminStatsService;
+
+    public record EnrollResult(List<EnrollmentPair> enrolled, List<EnrollmentPair> alreadyEnrolled,
+                               List<EnrollmentPair> courseFull) {
+    }
+
+    /**
+     * Enroll every student in the paired course, skipping pairs that are already enrolled
+     * Seats are handed out in request order; pairs beyond a course's remaining capacity are not enrolled
+     * Callers are responsible for resolving and validating students and courses
+     * @param pairs Student and course IDs to enroll
+     * @return Enrolled, already enrolled and rejected (course full) pairs
+     */
+    @Transactional
+    public EnrollResult enrollPairs(List<EnrollmentPair> pairs) {
+        Set<EnrollmentPair> requested = new LinkedHashSet<>(pairs);
+        if (requested.isEmpty()) {
+            return new EnrollResult(List.of(), List.of(), List.of());
+        }
+
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        requested.forEach(pair -> {
+            studentIds.add(pair.studentId());
+            courseIds.add(pair.courseId());
+        });
+        List<Course> courses = courseRepository.lockAllById(courseIds);
+        Set<EnrollmentPair> existing = new HashSet<>(enrollmentRepository.findPairs(studentIds, courseIds));
+        Map<Long, Long> remainingSeats = remainingSeats(courses);
+
+        List<EnrollmentPair> toInsert = new ArrayList<>();
+        List<EnrollmentPair> alreadyEnrolled = new ArrayList<>();
+        List<EnrollmentPair> courseFull = new ArrayList<>();
+        for (EnrollmentPair pair : requested) {
+            if (existing.contains(pair)) {
+                alreadyEnrolled.add(pair);
+                continue;
+            }
+            long seats = remainingSeats.getOrDefault(pair.courseId(), 0L);
+            if (seats <= 0) {
+                courseFull.add(pair);
+                continue;
+            }
+            remainingSeats.put(pair.courseId(), seats - 1);
+            toInsert.add(pair);
+        }
+
+        if (!toInsert.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_ENROLLMENT_SQL, toInsert, toInsert.size(), (ps, pair) -> {
+                ps.setLong(1, pair.studentId());
+                ps.setLong(2, pair.courseId());
+                ps.setString(3, "ACTIVE");
+                ps.setDouble(4, 0.0);
+                ps.setTimestamp(5, now);
+            });
+            adminStatsService.invalidate();
+            log.info("Bulk enrolled {} pair(s), {} already enrolled, {} rejected as full",
+                toInsert.size(), alreadyEnrolled.size(), courseFull.size());
+        }
+        return new EnrollResult(toInsert, alreadyEnrolled, courseFull);
+    }
+
+    /**
+     * @return Free seats per course, counted against active enrollments; unknown courses are absent
+     */
+    private Map<Long, Long> remainingSeats(List<Course> courses) {
+        Map<Long, Long> active = new HashMap<>();
+        List<Long> courseIds = courses.stream().map(Course::getId).toList();
+        if (!courseIds.isEmpty()) {
+            for (CourseEnrollmentCount count : enrollmentRepository.countActiveByCourseIds(courseIds)) {
+                active.put(count.getCourseId(), count.getEnrollmentCount());
+            }
+        }
+
+        Map<Long, Long> remaining = new HashMap<>();
+        for (Course course : courses) {
+            int maxStudents = course.getMaxStudents() != null ? course.getMaxStudents() : 0;
+            remaining.put(course.getId(), maxStudents - active.getOrDefault(course.getId(), 0L));
+        }
+        return remaining;
+    }
+}
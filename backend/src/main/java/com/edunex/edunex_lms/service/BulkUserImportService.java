@@ -0,0 +1,254 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.UserIdentity;
+import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates users in bulk
+ * Each chunk costs one duplicate check query and one JDBC batch insert; BCrypt hashing of
+ * distinct passwords is spread over a dedicated thread pool before the chunk is written
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkUserImportService {
+
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (username, password, email, full_name, usn, phone_number, role, enabled, " +
+        "account_non_locked, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${bulk.users.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bulk.users.hash-threads:0}")
+    private int hashThreads;
+
+    private ExecutorService hashExecutor;
+
+    /**
+     * A user to create; password is the raw password
+     */
+    public record NewUser(String username, String usn, String email, String fullName, String phoneNumber,
+                          String password, User.Role role) {
+    }
+
+    /**
+     * A rejected input row; index is the position in the submitted list
+     */
+    public record RowError(int index, String username, String reason) {
+    }
+
+    public record ImportResult(List<NewUser> created, List<RowError> errors) {
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    /**
+     * Create all valid users, skipping rows that are incomplete, repeated within the input
+     * or already present in the database
+     * @param users Users to create
+     * @return Created users and per-row errors
+     */
+    public ImportResult createUsers(List<NewUser> users) {
+        List<NewUser> created = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUsns = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            NewUser user = users.get(i);
+            String reason = validate(user);
+            if (reason == null && !seenUsernames.add(normalize(user.username()))) {
+                reason = "Duplicate username in request";
+            }
+            if (reason == null && !seenEmails.add(normalize(user.email()))) {
+                reason = "Duplicate email in request";
+            }
+            if (reason == null && user.usn() != null && !seenUsns.add(normalize(user.usn()))) {
+                reason = "Duplicate USN in request";
+            }
+
+            if (reason != null) {
+                errors.add(new RowError(i, user.username(), reason));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < accepted.size(); from += size) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + size, accepted.size()));
+            importChunk(users, chunk, created, errors);
+        }
+
+        errors.sort(Comparator.comparingInt(RowError::index));
+        log.info("Bulk user import finished: {} created, {} rejected", created.size(), errors.size());
+        return new ImportResult(created, errors);
+    }
+
+    private void importChunk(List<NewUser> users, List<Integer> chunk, List<NewUser> created, List<RowError> errors) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> usns = new HashSet<>();
+        for (int index : chunk) {
+            NewUser user = users.get(index);
+            usernames.add(user.username());
+            emails.add(user.email());
+            if (user.usn() != null) {
+                usns.add(user.usn());
+            }
+        }
+
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingUsns = new HashSet<>();
+        for (UserIdentity identity : userRepository.findIdentitiesMatching(usernames, emails, usns)) {
+            existingUsernames.add(normalize(identity.getUsername()));
+            existingEmails.add(normalize(identity.getEmail()));
+            if (identity.getUsn() != null) {
+                existingUsns.add(normalize(identity.getUsn()));
+            }
+        }
+
+        List<NewUser> toInsert = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        for (int index : chunk) {
+            NewUser user = users.get(index);
+            if (existingUsernames.contains(normalize(user.username()))) {
+                errors.add(new RowError(index, user.username(), "Username already exists"));
+            } else if (existingEmails.contains(normalize(user.email()))) {
+                errors.add(new RowError(index, user.username(), "Email already exists"));
+            } else if (user.usn() != null && existingUsns.contains(normalize(user.usn()))) {
+                errors.add(new RowError(index, user.username(), "USN already exists"));
+            } else {
+                toInsert.add(user);
+                insertIndexes.add(index);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> hashes = hashPasswords(toInsert);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_USER_SQL, toInsert, toInsert.size(), (ps, user) -> {
+                    ps.setString(1, user.username());
+                    ps.setString(2, hashes.get(user.password()));
+                    ps.setString(3, user.email());
+                    ps.setString(4, user.fullName());
+                    ps.setString(5, user.usn());
+                    ps.setString(6, user.phoneNumber());
+                    ps.setString(7, user.role().name());
+                    ps.setBoolean(8, true);
+                    ps.setBoolean(9, true);
+                    ps.setTimestamp(10, now);
+                    ps.setTimestamp(11, now);
+                }));
+            created.addAll(toInsert);
+        } catch (DataAccessException e) {
+            log.error("Bulk user insert failed for chunk of {} users", toInsert.size(), e);
+            String reason = "Failed to create user: " + e.getMostSpecificCause().getMessage();
+            for (int index : insertIndexes) {
+                errors.add(new RowError(index, users.get(index).username(), reason));
+            }
+        }
+    }
+
+    /**
+     * Hash every distinct raw password once, in parallel when there is more than one
+     * @return Map of raw password to BCrypt hash
+     */
+    private Map<String, String> hashPasswords(List<NewUser> users) {
+        Set<String> passwords = new HashSet<>();
+        users.forEach(user -> passwords.add(user.password()));
+
+        Map<String, String> hashes = new HashMap<>();
+        if (passwords.size() == 1) {
+            String password = passwords.iterator().next();
+            hashes.put(password, passwordEncoder.encode(password));
+            return hashes;
+        }
+
+        Map<String, CompletableFuture<String>> futures = new HashMap<>();
+        for (String password : passwords) {
+            futures.put(password, CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashExecutor));
+        }
+        futures.forEach((password, future) -> hashes.put(password, future.join()));
+        return hashes;
+    }
+
+    private static String validate(NewUser user) {
+        if (!StringUtils.hasText(user.username())) {
+            return "Username is required";
+        }
+        if (!StringUtils.hasText(user.email())) {
+            return "Email is required";
+        }
+        if (!StringUtils.hasText(user.fullName())) {
+            return "Full name is required";
+        }
+        if (!StringUtils.hasText(user.password())) {
+            return "Password is required";
+        }
+        if (user.role() == null) {
+            return "Role is required";
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
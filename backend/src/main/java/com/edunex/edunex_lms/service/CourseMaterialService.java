@@ -1,15 +1,25 @@
 package com.edunex.edunex_lms.service;
 
+import com.edunex.edunex_lms.dto.MaterialNotification;
 import com.edunex.edunex_lms.entity.CourseMaterial;
 import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.exception.ResourceNotFoundException;
 import com.edunex.edunex_lms.repository.CourseMaterialRepository;
 import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.EnrollmentRepository;
 import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.service.BlobStorageService.Blob;
+import com.edunex.edunex_lms.service.EventStreamService.StreamEvent;
+import com.edunex.edunex_lms.service.FileDownloadService.Download;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.time.ZoneId;
 import java.util.List;
 
 @Service
@@ -19,10 +29,33 @@ public class CourseMaterialService {
     private final CourseMaterialRepository courseMaterialRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final EnrollmentRepository enrollmentRepository;
     private final ActivityLogService activityLogService;
+    private final BlobStorageService blobStorageService;
+    private final EventStreamService eventStreamService;
+    private final TransactionTemplate transactionTemplate;
     
+    private static final String DOWNLOAD_URL = "/api/materials/%d/download";
+    
+    /**
+     * Create a material that links to a URL
+     * File details are only taken from uploads; a client cannot point a material at stored content
+     * @param material Title, description, type and URL of the material
+     * @param courseId Course ID
+     * @param userId Uploader ID
+     * @return The created material
+     */
     @Transactional
     public CourseMaterial createMaterial(CourseMaterial material, Long courseId, Long userId) {
+        material.setId(null);
+        material.setFileName(null);
+        material.setFileSize(null);
+        material.setContentType(null);
+        material.setContentHash(null);
+        return saveMaterial(material, courseId, userId);
+    }
+    
+    private CourseMaterial saveMaterial(CourseMaterial material, Long courseId, Long userId) {
         Course course = courseRepository.findById(courseId)
             .orElseThrow(() -> new RuntimeException("Course not found"));
         
@@ -42,9 +75,48 @@ public class CourseMaterialService {
             saved.getId()
         );
         
+        eventStreamService.sendToUsers(enrollmentRepository.findStudentIdsByCourseId(courseId),
+            new StreamEvent("material", "material-" + saved.getId(), new MaterialNotification(saved.getId(),
+                course.getId(), course.getCourseName(), saved.getTitle(), saved.getType())));
+        
         return saved;
     }
     
+    /**
+     * Create a material from an uploaded file
+     * Identical files uploaded to several courses are stored once
+     * @param material Title, description and type of the material
+     * @param file Uploaded file
+     * @param courseId Course ID
+     * @param userId Uploader ID
+     * @return The created material
+     */
+    public CourseMaterial uploadMaterial(CourseMaterial material, MultipartFile file, Long courseId, Long userId) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("File is required");
+        }
+        
+        // Write the file before the transaction so the upload does not hold a database connection
+        Blob blob = blobStorageService.store(file);
+        // Replaced by the download URL once the ID is known
+        material.setUrl(blob.path());
+        material.setFileName(BlobStorageService.safeFileName(file.getOriginalFilename(), "material"));
+        material.setFileSize(blob.size());
+        material.setContentType(file.getContentType());
+        material.setContentHash(blob.sha256());
+        
+        try {
+            return transactionTemplate.execute(status -> {
+                CourseMaterial saved = saveMaterial(material, courseId, userId);
+                saved.setUrl(DOWNLOAD_URL.formatted(saved.getId()));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            blobStorageService.releaseBlob(blob.sha256());
+            throw e;
+        }
+    }
+    
     @Transactional(readOnly = true)
     public List<CourseMaterial> getMaterialsByCourse(Long courseId) {
         return courseMaterialRepository.findByCourseIdOrderByUploadedAtDesc(courseId);
@@ -57,10 +129,41 @@ public class CourseMaterialService {
     
     @Transactional(readOnly = true)
     public CourseMaterial getMaterialById(Long id) {
-        return courseMaterialRepository.findById(id)
+        return courseMaterialRepository.findDetailById(id)
             .orElseThrow(() -> new RuntimeException("Material not found"));
     }
     
+    /**
+     * Look up the stored file of a material the user may read
+     * Admins, the course instructor, the uploader and students enrolled in the course have access
+     * @param id Material ID
+     * @param userId Requesting user ID
+     * @param role Requesting user's role
+     * @return File to serve
+     */
+    @Transactional(readOnly = true)
+    public Download getMaterialDownload(Long id, Long userId, User.Role role) {
+        CourseMaterial material = getMaterialById(id);
+        Course course = material.getCourse();
+        
+        boolean allowed = switch (role) {
+            case ADMIN -> true;
+            case INSTRUCTOR -> course.getInstructor().getId().equals(userId)
+                || (material.getUploadedBy() != null && material.getUploadedBy().getId().equals(userId));
+            case STUDENT -> enrollmentRepository.existsByStudentIdAndCourseId(userId, course.getId());
+        };
+        if (!allowed) {
+            throw new AccessDeniedException("No access to materials of this course");
+        }
+        if (material.getContentHash() == null) {
+            throw new ResourceNotFoundException("Material file", "id", id);
+        }
+        
+        return new Download(blobStorageService.resolve(material.getContentHash()), material.getFileName(),
+            material.getContentType(), "\"" + material.getContentHash() + "\"",
+            material.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+    
     @Transactional
     public CourseMaterial updateMaterial(Long id, CourseMaterial materialDetails) {
         CourseMaterial material = getMaterialById(id);
@@ -68,7 +171,10 @@ public class CourseMaterialService {
         material.setTitle(materialDetails.getTitle());
         material.setDescription(materialDetails.getDescription());
         material.setType(materialDetails.getType());
-        material.setUrl(materialDetails.getUrl());
+        // The URL of an uploaded file points at its stored content and cannot be edited
+        if (material.getContentHash() == null) {
+            material.setUrl(materialDetails.getUrl());
+        }
         
         return courseMaterialRepository.save(material);
     }
@@ -77,6 +183,7 @@ public class CourseMaterialService {
     public void deleteMaterial(Long id) {
         CourseMaterial material = getMaterialById(id);
         courseMaterialRepository.delete(material);
+        blobStorageService.releaseBlob(material.getContentHash());
         
         User user = userRepository.findById(material.getUploadedBy().getId())
             .orElseThrow(() -> new RuntimeException("User not found"));
@@ -0,0 +1,353 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.CourseSearchHit;
+import com.edunex.edunex_lms.dto.PageResponse;
+import com.edunex.edunex_lms.entity.Course;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over course code, name, category and description
+ * Every query term must match a course, exactly, as the prefix of an indexed term (for search as you type)
+ * or, for terms of four characters or more, with one typo. Matches are ranked by field, term rarity and
+ * match quality. The index is loaded on startup and updated when course changes commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSearchService {
+
+    private static final float CODE_WEIGHT = 5f;
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final double PREFIX_QUALITY = 0.6;
+    private static final double FUZZY_QUALITY = 0.5;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<CourseSearchHit> RANKING = Comparator
+        .comparingDouble(CourseSearchHit::getScore).reversed()
+        .thenComparing(hit -> !Boolean.TRUE.equals(hit.getIsActive()))
+        .thenComparing(CourseSearchHit::getCourseName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+        .thenComparing(CourseSearchHit::getId);
+
+    private final CourseRepository courseRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, CourseSearchHit> courses = new HashMap<>();
+    private final Map<Long, Map<String, Float>> termsByCourse = new HashMap<>();
+    // Sorted, so the terms starting with a prefix are one sub-map
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // Every term with one character deleted, pointing back at the term, to find terms one edit away
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        ensureLoaded();
+    }
+
+    /**
+     * Search the catalogue
+     * @param query Search text
+     * @param activeOnly Only return active courses
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return Matching courses, best first
+     */
+    public PageResponse<CourseSearchHit> search(String query, boolean activeOnly, int page, int size) {
+        ensureLoaded();
+        List<String> terms = tokenize(query).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        List<CourseSearchHit> hits = new ArrayList<>();
+        if (!terms.isEmpty()) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = null;
+                for (String term : terms) {
+                    Map<Long, Double> termScores = scoreTerm(term);
+                    if (scores == null) {
+                        scores = termScores;
+                    } else {
+                        // Every term has to match
+                        scores.keySet().retainAll(termScores.keySet());
+                        scores.replaceAll((id, score) -> score + termScores.get(id));
+                    }
+                    if (scores.isEmpty()) {
+                        break;
+                    }
+                }
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    CourseSearchHit course = courses.get(entry.getKey());
+                    if (!activeOnly || Boolean.TRUE.equals(course.getIsActive())) {
+                        hits.add(new CourseSearchHit(course.getId(), course.getCourseCode(), course.getCourseName(),
+                            course.getCategory(), course.getDescription(), course.getCredits(), course.getIsActive(),
+                            entry.getValue()));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        hits.sort(RANKING);
+
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        int totalPages = (hits.size() + size - 1) / size;
+        return new PageResponse<>(new ArrayList<>(hits.subList(from, to)), page, size, hits.size(), totalPages);
+    }
+
+    /**
+     * Add or replace a course once the current transaction commits, or right away without one
+     * @param course Saved course
+     */
+    public void indexAfterCommit(Course course) {
+        CourseSearchHit document = new CourseSearchHit(course.getId(), course.getCourseCode(), course.getCourseName(),
+            course.getCategory(), course.getDescription(), course.getCredits(), course.getIsActive());
+        afterCommit(() -> update(document.getId(), document));
+    }
+
+    /**
+     * Remove a course once the current transaction commits, or right away without one
+     * @param courseId Course ID
+     */
+    public void removeAfterCommit(Long courseId) {
+        afterCommit(() -> update(courseId, null));
+    }
+
+    /**
+     * Rebuild the index from the database
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            courses.clear();
+            termsByCourse.clear();
+            postings.clear();
+            deletions.clear();
+            List<CourseSearchHit> all = courseRepository.findSearchHits();
+            all.forEach(this::add);
+            loaded = true;
+            log.info("Indexed {} course(s) with {} term(s) for search", all.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    reload();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void update(Long courseId, CourseSearchHit document) {
+        lock.writeLock().lock();
+        try {
+            // Until the first load, the load itself picks the change up from the database
+            if (!loaded) {
+                return;
+            }
+            remove(courseId);
+            if (document != null) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(CourseSearchHit course) {
+        Map<String, Float> weights = new HashMap<>();
+        String code = course.getCourseCode();
+        if (code != null) {
+            // "CS-101" is found as "cs101" as well as "cs" and "101"
+            weights.merge(normalize(code).replaceAll(SEPARATORS.pattern(), ""), CODE_WEIGHT, Math::max);
+            addTerms(weights, code, CODE_WEIGHT);
+        }
+        addTerms(weights, course.getCourseName(), NAME_WEIGHT);
+        addTerms(weights, course.getCategory(), CATEGORY_WEIGHT);
+        addTerms(weights, course.getDescription(), DESCRIPTION_WEIGHT);
+        weights.remove("");
+
+        courses.put(course.getId(), course);
+        termsByCourse.put(course.getId(), weights);
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> {
+            for (String deletion : deletionsOf(t)) {
+                deletions.computeIfAbsent(deletion, d -> new HashSet<>()).add(t);
+            }
+            return new HashMap<>();
+        }).put(course.getId(), weight));
+    }
+
+    private void remove(Long courseId) {
+        courses.remove(courseId);
+        Map<String, Float> weights = termsByCourse.remove(courseId);
+        if (weights == null) {
+            return;
+        }
+        for (String term : weights.keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            posting.remove(courseId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String deletion : deletionsOf(term)) {
+                    Set<String> terms = deletions.get(deletion);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        deletions.remove(deletion);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Score every course matching one query term by its best matching indexed term
+     */
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<String, Double> matches = new HashMap<>();
+        if (postings.containsKey(term)) {
+            matches.put(term, 1.0);
+        }
+        int expansions = 0;
+        for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+            if (++expansions > MAX_EXPANSIONS) {
+                break;
+            }
+            matches.merge(candidate, PREFIX_QUALITY + (1 - PREFIX_QUALITY) * term.length() / candidate.length(),
+                Math::max);
+        }
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String candidate : fuzzyCandidates(term)) {
+                matches.putIfAbsent(candidate, FUZZY_QUALITY);
+            }
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        int total = Math.max(1, courses.size());
+        matches.forEach((candidate, quality) -> {
+            Map<Long, Float> posting = postings.get(candidate);
+            double idf = Math.log(1 + (double) total / posting.size());
+            posting.forEach((courseId, weight) -> scores.merge(courseId, quality * idf * weight, Math::max));
+        });
+        return scores;
+    }
+
+    /**
+     * Indexed terms one insertion, deletion, substitution or transposition away from the term
+     */
+    private Set<String> fuzzyCandidates(String term) {
+        Set<String> candidates = new LinkedHashSet<>();
+        // The term with a character missing, or an indexed term with one extra character
+        candidates.addAll(deletions.getOrDefault(term, Set.of()));
+        for (String deletion : deletionsOf(term)) {
+            if (postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+            // Both with the same position deleted, or neighbours deleted: a substitution or a transposition
+            for (String candidate : deletions.getOrDefault(deletion, Set.of())) {
+                if (candidate.length() == term.length() && withinOneEdit(term, candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        candidates.remove(term);
+        return candidates;
+    }
+
+    private static boolean withinOneEdit(String a, String b) {
+        int first = 0;
+        while (first < a.length() && a.charAt(first) == b.charAt(first)) {
+            first++;
+        }
+        if (first == a.length()) {
+            return true;
+        }
+        if (a.substring(first + 1).equals(b.substring(first + 1))) {
+            return true;
+        }
+        return first + 1 < a.length() && a.charAt(first) == b.charAt(first + 1)
+            && a.charAt(first + 1) == b.charAt(first) && a.substring(first + 2).equals(b.substring(first + 2));
+    }
+
+    private static Set<String> deletionsOf(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH - 1) {
+            return Set.of();
+        }
+        // A set: deleting either letter of a double letter gives the same string
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Math::max);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
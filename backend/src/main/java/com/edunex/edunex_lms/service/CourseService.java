@@ -1,12 +1,19 @@
 package com.edunex.edunex_lms.service;
 
+import com.edunex.edunex_lms.config.CacheConfig;
+import com.edunex.edunex_lms.dto.CourseSearchHit;
+import com.edunex.edunex_lms.dto.PageResponse;
 import com.edunex.edunex_lms.entity.Course;
 import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.repository.AttendanceSummaryRepository;
 import com.edunex.edunex_lms.repository.CourseRepository;
 import com.edunex.edunex_lms.repository.EnrollmentRepository;
 import com.edunex.edunex_lms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +28,12 @@ public class CourseService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final AttendanceSummaryRepository attendanceSummaryRepository;
+    private final AdminStatsService adminStatsService;
+    private final CourseSearchService courseSearchService;
     
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOGUE, allEntries = true)
     public Course createCourse(Course course, Long instructorId) {
         User instructor = userRepository.findById(instructorId)
             .orElseThrow(() -> new RuntimeException("Instructor not found"));
@@ -33,12 +44,19 @@ public class CourseService {
         }
         
         course.setInstructor(instructor);
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        courseSearchService.indexAfterCommit(saved);
+        adminStatsService.invalidate();
+        return saved;
     }
     
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId"),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOGUE, allEntries = true)
+    })
     public Course updateCourse(Long courseId, Course updatedCourse) {
-        Course course = courseRepository.findById(courseId)
+        Course course = courseRepository.findWithInstructorById(courseId)
             .orElseThrow(() -> new RuntimeException("Course not found"));
         
         course.setCourseName(updatedCourse.getCourseName());
@@ -47,10 +65,16 @@ public class CourseService {
         course.setCredits(updatedCourse.getCredits());
         course.setMaxStudents(updatedCourse.getMaxStudents());
         
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        courseSearchService.indexAfterCommit(saved);
+        return saved;
     }
     
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId"),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOGUE, allEntries = true)
+    })
     public void deleteCourse(Long courseId) {
         log.info("Attempting to delete course with ID: {}", courseId);
         
@@ -62,37 +86,43 @@ public class CourseService {
         // Delete all enrollments first (cascade delete)
         log.info("Deleting enrollments for course ID: {}", courseId);
         enrollmentRepository.deleteByCourseId(courseId);
+        attendanceSummaryRepository.deleteByCourseId(courseId);
         
         // Then delete the course
         log.info("Deleting course: {}", course.getCourseName());
         courseRepository.delete(course);
+        courseSearchService.removeAfterCommit(courseId);
+        adminStatsService.invalidate();
         
         log.info("Course deleted successfully: {}", courseId);
     }
     
+    @Cacheable(cacheNames = CacheConfig.COURSES, key = "#courseId")
     public Course getCourseById(Long courseId) {
-        return courseRepository.findById(courseId)
+        return courseRepository.findWithInstructorById(courseId)
             .orElseThrow(() -> new RuntimeException("Course not found"));
     }
     
+    @Cacheable(cacheNames = CacheConfig.COURSE_CATALOGUE, key = "'all'")
     public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+        return List.copyOf(courseRepository.findAll());
     }
     
     public List<Course> getCoursesByInstructor(Long instructorId) {
         return courseRepository.findByInstructorId(instructorId);
     }
     
+    @Cacheable(cacheNames = CacheConfig.COURSE_CATALOGUE, key = "'available'")
     public List<Course> getAvailableCourses() {
-        return courseRepository.findAll().stream()
-            .filter(Course::getIsActive)
-            .toList();
+        return List.copyOf(courseRepository.findAvailableCourses());
+    }
+    
+    @Cacheable(cacheNames = CacheConfig.COURSE_CATALOGUE, key = "'categories'")
+    public List<String> getCategories() {
+        return courseRepository.findAllCategories().stream().sorted().toList();
     }
     
-    public List<Course> searchCourses(String keyword) {
-        return courseRepository.findAll().stream()
-            .filter(c -> c.getCourseName().toLowerCase().contains(keyword.toLowerCase()) ||
-                        c.getCourseCode().toLowerCase().contains(keyword.toLowerCase()))
-            .toList();
+    public PageResponse<CourseSearchHit> searchCourses(String keyword, boolean activeOnly, int page, int size) {
+        return courseSearchService.search(keyword, activeOnly, page, size);
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +21,7 @@ public class EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final AdminStatsService adminStatsService;
     
     @Transactional
     public Enrollment enrollStudent(Long studentId, Long courseId) {
@@ -30,7 +32,7 @@ public class EnrollmentService {
             throw new RuntimeException("Only students can be enrolled");
         }
         
-        Course course = courseRepository.findById(courseId)
+        Course course = courseRepository.findWithInstructorById(courseId)
             .orElseThrow(() -> new RuntimeException("Course not found"));
         
         // Check if already enrolled
@@ -38,7 +40,8 @@ public class EnrollmentService {
             throw new RuntimeException("Student already enrolled in this course");
         }
         
-        // Check max students
+        // Check max students; the course stays locked until the enrollment is committed
+        courseRepository.lockAllById(List.of(courseId));
         long currentEnrollments = enrollmentRepository.countActiveByCourseId(courseId);
         if (currentEnrollments >= course.getMaxStudents()) {
             throw new RuntimeException("Course is full");
@@ -51,7 +54,9 @@ public class EnrollmentService {
         enrollment.setProgressPercentage(0.0);
         enrollment.setFinalGrade(0.0);
         
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        adminStatsService.invalidate();
+        return saved;
     }
     
     @Transactional
@@ -67,8 +72,11 @@ public class EnrollmentService {
         return enrollmentRepository.findByStudentId(studentId);
     }
     
-    public List<Enrollment> getCourseEnrollments(Long courseId) {
-        return enrollmentRepository.findByCourseId(courseId);
+    /**
+     * Course roster, to be consumed inside a transaction
+     */
+    public Stream<Enrollment> streamCourseEnrollments(Long courseId) {
+        return enrollmentRepository.streamByCourseId(courseId);
     }
     
     @Transactional
@@ -0,0 +1,346 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.ActivityLogItem;
+import com.edunex.edunex_lms.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes events to connected clients over server-sent events, replacing dashboard polling
+ * Every connection has its own bounded queue; when a client cannot keep up its oldest pending events are
+ * dropped. A dispatcher pool drains each queue with blocking writes; it adds threads while sends are blocked,
+ * so a client that stops reading ties up one thread rather than the pool, and a send that takes longer than
+ * the send timeout closes that stream.
+ * Admins receive activity log events; grade and material events go to the users they concern.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventStreamService {
+
+    private static final long RECONNECT_MS = 5000;
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    private final RecentActivityBuffer recentActivity;
+
+    @Value("${events.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${events.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${events.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${events.stream.threads:2}")
+    private int threads;
+
+    @Value("${events.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Map<Long, ConcurrentLinkedDeque<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final Set<Subscriber> adminSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+    private ExecutorService dispatcher;
+    private Runnable unsubscribeActivity;
+
+    /**
+     * An event to send; a null name sends a comment, which clients ignore
+     */
+    public record StreamEvent(String name, String id, Object data) {
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        // Hands each drain to an idle thread or a new one, never to a queue behind a blocked send; threads beyond
+        // the core size end after a minute idle
+        dispatcher = new ThreadPoolExecutor(Math.max(1, threads), Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "event-stream-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Entries reach the buffer once their batch has been committed
+        unsubscribeActivity = recentActivity.subscribe(item -> {
+            StreamEvent event = activityEvent(item);
+            adminSubscribers.forEach(subscriber -> subscriber.enqueue(event));
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        unsubscribeActivity.run();
+        dispatcher.shutdownNow();
+        subscribersByUser.values().forEach(subscribers -> subscribers.forEach(Subscriber::complete));
+    }
+
+    /**
+     * Open an event stream for a user
+     * A user may keep a limited number of streams open; opening another closes their oldest one
+     * @param userId User ID
+     * @param role User's role
+     * @param initialActivities Number of recent activities sent first to an admin
+     * @return Emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long userId, User.Role role, int initialActivities) {
+        Subscriber subscriber = new Subscriber(userId, role == User.Role.ADMIN, new SseEmitter(timeoutMs));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        // Completing on timeout ends the response normally; clients reconnect after the retry interval
+        subscriber.emitter.onTimeout(subscriber::complete);
+        subscriber.emitter.onError(e -> remove(subscriber));
+
+        // Sent even when there is nothing else, so the response is committed and the client sees the stream open
+        subscriber.enqueue(new StreamEvent(null, null, "connected"));
+        if (subscriber.admin && initialActivities > 0) {
+            List<ActivityLogItem> backlog = recentActivity.latest(Math.min(initialActivities, recentActivity.capacity()));
+            for (int i = backlog.size() - 1; i >= 0; i--) {
+                subscriber.enqueue(activityEvent(backlog.get(i)));
+            }
+        }
+
+        List<Subscriber> evicted = new ArrayList<>();
+        // Added under the map's lock for this user, so a concurrent remove cannot drop the new stream's deque
+        subscribersByUser.compute(userId, (id, subscribers) -> {
+            ConcurrentLinkedDeque<Subscriber> own = subscribers != null ? subscribers : new ConcurrentLinkedDeque<>();
+            own.addLast(subscriber);
+            while (own.size() > Math.max(1, maxPerUser)) {
+                evicted.add(own.pollFirst());
+            }
+            return own;
+        });
+        if (subscriber.admin) {
+            adminSubscribers.add(subscriber);
+        }
+        evicted.forEach(Subscriber::complete);
+        return subscriber.emitter;
+    }
+
+    /**
+     * Send an event to one user's open streams, once the current transaction commits if there is one
+     * @param userId User ID
+     * @param event Event
+     */
+    public void sendToUser(Long userId, StreamEvent event) {
+        sendToUsers(List.of(userId), event);
+    }
+
+    /**
+     * Send an event to the open streams of several users, once the current transaction commits if there is one
+     * @param userIds User IDs
+     * @param event Event
+     */
+    public void sendToUsers(Collection<Long> userIds, StreamEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> recipients = List.copyOf(userIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(recipients, event);
+                }
+            });
+        } else {
+            deliver(userIds, event);
+        }
+    }
+
+    /**
+     * Number of open streams
+     * @return Open streams
+     */
+    public int getConnectionCount() {
+        return subscribersByUser.values().stream().mapToInt(Collection::size).sum();
+    }
+
+    /**
+     * Number of events dropped because a client fell too far behind
+     * @return Dropped events since startup
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Keep idle connections open through proxies and notice clients that went away
+     */
+    @Scheduled(initialDelayString = "${events.stream.heartbeat-ms:25000}",
+        fixedDelayString = "${events.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribersByUser.values().forEach(subscribers -> subscribers.forEach(s -> s.enqueue(HEARTBEAT)));
+    }
+
+    /**
+     * Close streams whose current send has been blocked longer than the send timeout, i.e. the client stopped
+     * reading; they get no further events, and the client reconnects once the stream ends
+     */
+    @Scheduled(initialDelayString = "${events.stream.send-timeout-ms:10000}",
+        fixedDelayString = "${events.stream.send-timeout-ms:10000}")
+    public void closeStalled() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        subscribersByUser.values().forEach(subscribers -> subscribers.forEach(s -> s.closeIfStalled(now, timeoutNanos)));
+    }
+
+    private void deliver(Collection<Long> userIds, StreamEvent event) {
+        for (Long userId : userIds) {
+            ConcurrentLinkedDeque<Subscriber> subscribers = subscribersByUser.get(userId);
+            if (subscribers != null) {
+                subscribers.forEach(subscriber -> subscriber.enqueue(event));
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        adminSubscribers.remove(subscriber);
+        subscribersByUser.computeIfPresent(subscriber.userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static StreamEvent activityEvent(ActivityLogItem item) {
+        return new StreamEvent("activity", item.getId() != null ? "activity-" + item.getId() : null, item);
+    }
+
+    /**
+     * One open stream with its queue of events waiting to be sent; at most one dispatcher task drains it at a time
+     */
+    private final class Subscriber {
+
+        private final Long userId;
+        private final boolean admin;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> pending;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean stalled;
+        // When the send in progress started, 0 when no send is in progress
+        private volatile long sendStartedNanos;
+        private volatile Future<?> drainTask;
+
+        private Subscriber(Long userId, boolean admin, SseEmitter emitter) {
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        }
+
+        void enqueue(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            while (!pending.offer(event)) {
+                if (pending.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+            schedule();
+        }
+
+        void complete() {
+            remove(this);
+            emitter.complete();
+        }
+
+        /**
+         * Stop sending to a client whose send has been blocked too long
+         * The emitter is not completed here, since that would wait for the blocked send; the interrupt may abort
+         * the write, and otherwise the drain completes the stream once the write returns or times out.
+         */
+        void closeIfStalled(long now, long timeoutNanos) {
+            long started = sendStartedNanos;
+            if (started == 0 || now - started < timeoutNanos || stalled) {
+                return;
+            }
+            log.debug("Closing event stream of user {} after a send blocked for over {} ms", userId,
+                TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            stalled = true;
+            remove(this);
+            Future<?> task = drainTask;
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    drainTask = dispatcher.submit(this::drain);
+                } catch (RuntimeException e) {
+                    // Shutting down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+                while (!closed && (event = pending.poll()) != null) {
+                    send(event);
+                }
+                if (stalled) {
+                    // The blocked send went through in the end; end the stream so the client reconnects
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away
+                remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                scheduled.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void send(StreamEvent event) throws IOException {
+            SseEmitter.SseEventBuilder builder;
+            if (event.name() == null) {
+                builder = SseEmitter.event().comment(event.data() != null ? event.data().toString() : "")
+                    .reconnectTime(RECONNECT_MS);
+            } else {
+                builder = SseEmitter.event().name(event.name()).data(event.data());
+                if (event.id() != null) {
+                    builder.id(event.id());
+                }
+            }
+            sendStartedNanos = System.nanoTime();
+            try {
+                emitter.send(builder);
+            } finally {
+                sendStartedNanos = 0;
+            }
+        }
+    }
+}
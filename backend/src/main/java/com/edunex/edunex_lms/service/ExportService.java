@@ -0,0 +1,232 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.exception.InvalidOperationException;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes query results to the response as CSV, XLSX or PDF files while the rows are read from the database
+ * Rows are read through {@link StreamingQueryService}. Each format keeps a bounded number of rows in memory:
+ * CSV rows are written as they come, the XLSX sheet keeps a window of rows and moves older ones to a temporary
+ * file, and the PDF table is laid out onto pages every few rows.
+ */
+@Service
+public class ExportService {
+
+    // Rows of the XLSX sheet kept in memory
+    private static final int XLSX_ROW_WINDOW = 100;
+    // Rows added to the PDF table before it is laid out and the finished pages are written
+    private static final int PDF_FLUSH_ROWS = 50;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9);
+    private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9);
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        PDF("pdf", MediaType.APPLICATION_PDF_VALUE);
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidOperationException("Unsupported export format: " + value + ", expected csv, xlsx or pdf");
+        }
+    }
+
+    /**
+     * A column of an export: its header and how to read its value from a row
+     * Numbers are written as numbers to XLSX; other values as text, with dates and times in ISO order
+     */
+    public record Column<T>(String header, Function<T, Object> value) {
+    }
+
+    private final StreamingQueryService streamingQueryService;
+
+    public ExportService(StreamingQueryService streamingQueryService) {
+        this.streamingQueryService = streamingQueryService;
+    }
+
+    /**
+     * Write the rows of a query to the response as a file download
+     * @param response Current response
+     * @param format File format
+     * @param fileName File name without extension
+     * @param title Sheet name for XLSX and heading for PDF
+     * @param columns Columns of the file
+     * @param query Opens the row stream; called inside the read transaction
+     */
+    public <T> void export(HttpServletResponse response, Format format, String fileName, String title,
+                           List<Column<T>> columns, Supplier<Stream<T>> query) throws IOException {
+        streamingQueryService.stream(query, rows -> {
+            // Set once the query has run, so a failing query still gets the normal error response
+            response.setContentType(format.contentType);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName + "." + format.extension)
+                .build()
+                .toString());
+            OutputStream out = response.getOutputStream();
+            switch (format) {
+                case CSV -> writeCsv(out, columns, rows);
+                case XLSX -> writeXlsx(out, title, columns, rows);
+                case PDF -> writePdf(out, title, columns, rows);
+            }
+        });
+    }
+
+    private <T> void writeCsv(OutputStream out, List<Column<T>> columns, Iterator<T> rows) throws IOException {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+            .setHeader(columns.stream().map(Column::header).toArray(String[]::new))
+            .build();
+        try (CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(out, StandardCharsets.UTF_8), csvFormat)) {
+            while (rows.hasNext()) {
+                T row = rows.next();
+                for (Column<T> column : columns) {
+                    printer.print(text(column.value().apply(row)));
+                }
+                printer.println();
+            }
+        }
+    }
+
+    private <T> void writeXlsx(OutputStream out, String title, List<Column<T>> columns, Iterator<T> rows)
+            throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(title));
+            CellStyle headerStyle = workbook.createCellStyle();
+            org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < columns.size(); i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(columns.get(i).header());
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(0, 1);
+
+            int count = 0;
+            while (rows.hasNext()) {
+                T item = rows.next();
+                Row row = sheet.createRow(++count);
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = columns.get(i).value().apply(item);
+                    if (value instanceof Number number) {
+                        row.createCell(i).setCellValue(number.doubleValue());
+                    } else if (value != null) {
+                        row.createCell(i).setCellValue(text(value));
+                    }
+                }
+            }
+            workbook.write(out);
+        } finally {
+            // Deletes the temporary file holding the rows that left the window
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private <T> void writePdf(OutputStream out, String title, List<Column<T>> columns, Iterator<T> rows)
+            throws IOException {
+        Document document = new Document(PageSize.A4.rotate(), 36, 36, 36, 36);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.open();
+            document.add(new Paragraph(title, TITLE_FONT));
+
+            PdfPTable table = new PdfPTable(columns.size());
+            table.setWidthPercentage(100);
+            table.setSpacingBefore(12);
+            table.setHeaderRows(1);
+            // An incomplete table can be added to the document repeatedly; the rows laid out are dropped from it
+            table.setComplete(false);
+            for (Column<T> column : columns) {
+                PdfPCell cell = new PdfPCell(new Phrase(column.header(), HEADER_FONT));
+                cell.setBackgroundColor(BaseColor.LIGHT_GRAY);
+                table.addCell(cell);
+            }
+
+            int count = 0;
+            while (rows.hasNext()) {
+                T row = rows.next();
+                for (Column<T> column : columns) {
+                    table.addCell(new Phrase(text(column.value().apply(row)), CELL_FONT));
+                }
+                if (++count % PDF_FLUSH_ROWS == 0) {
+                    document.add(table);
+                }
+            }
+            table.setComplete(true);
+            document.add(table);
+        } catch (DocumentException e) {
+            throw new IOException("Could not write the PDF export", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_TIME.format(dateTime);
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.edunex.edunex_lms.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes large JSON arrays to the response while the rows are read from the database
+ * Rows are read through {@link StreamingQueryService}; each row is mapped to its response record and serialized
+ * on its own, so the response is never held in memory as a whole.
+ */
+@Service
+public class JsonStreamService {
+
+    private final StreamingQueryService streamingQueryService;
+    // Rows are flushed with the generator's buffer rather than one by one
+    private final ObjectWriter writer;
+
+    public JsonStreamService(ObjectMapper objectMapper, StreamingQueryService streamingQueryService) {
+        this.streamingQueryService = streamingQueryService;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write the rows of a query to the response as a JSON array
+     * @param response Current response
+     * @param query Opens the row stream; called inside the read transaction
+     * @param mapper Maps a row to the value written for it
+     */
+    public <T, R> void writeArray(HttpServletResponse response, Supplier<Stream<T>> query, Function<T, R> mapper)
+            throws IOException {
+        streamingQueryService.stream(query, rows -> {
+            // Opened once the query has run, so a failing query still gets the normal error response
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            try (JsonGenerator generator = writer.createGenerator(response.getOutputStream())) {
+                generator.writeStartArray();
+                while (rows.hasNext()) {
+                    writer.writeValue(generator, mapper.apply(rows.next()));
+                }
+                generator.writeEndArray();
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.ActivityLogItem;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free ring buffer of the most recently written activity logs
+ * Writers claim a sequence number and store the entry in slot (sequence mod capacity), tagged with that
+ * sequence; readers walk back from the latest sequence and skip slots whose tag shows they were overwritten
+ * or not yet filled, so neither side ever waits for the other.
+ */
+@Component
+@Slf4j
+public class RecentActivityBuffer {
+
+    private static final Comparator<ActivityLogItem> NEWEST_FIRST = Comparator
+        .comparing(ActivityLogItem::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(ActivityLogItem::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    @Value("${activity.log.recent-capacity:256}")
+    private int requestedCapacity;
+
+    private AtomicReferenceArray<Slot> slots;
+    private int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final List<Consumer<ActivityLogItem>> listeners = new CopyOnWriteArrayList<>();
+    private volatile LocalDateTime evictedBefore;
+
+    private record Slot(long sequence, ActivityLogItem item) {
+    }
+
+    @PostConstruct
+    void init() {
+        // A power of two, so the slot index is a mask of the sequence
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) * 2 - 1);
+        slots = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Number of entries the buffer holds once full
+     * @return Capacity
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Add a written entry and pass it on to the listeners
+     * @param item Activity log, including its ID
+     */
+    public void publish(ActivityLogItem item) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence & mask), new Slot(sequence, item));
+        for (Consumer<ActivityLogItem> listener : listeners) {
+            try {
+                listener.accept(item);
+            } catch (RuntimeException e) {
+                log.warn("Recent activity listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Newest entries first, by (createdAt, id)
+     * @param limit Maximum number of entries, at most the capacity
+     * @return Entries
+     */
+    public List<ActivityLogItem> latest(int limit) {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - slots.length());
+        LocalDateTime cutoff = evictedBefore;
+        List<ActivityLogItem> items = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            Slot slot = slots.get((int) (sequence & mask));
+            if (slot == null || slot.sequence() != sequence) {
+                continue;
+            }
+            ActivityLogItem item = slot.item();
+            if (cutoff == null || item.getCreatedAt() == null || !item.getCreatedAt().isBefore(cutoff)) {
+                items.add(item);
+            }
+        }
+        // Concurrent writers may publish slightly out of order
+        items.sort(NEWEST_FIRST);
+        return items.size() > limit ? new ArrayList<>(items.subList(0, limit)) : items;
+    }
+
+    /**
+     * Hide entries created before the cutoff, e.g. once the retention job has removed them from the database
+     * @param cutoff Entries created before this time are no longer returned
+     */
+    public void evictBefore(LocalDateTime cutoff) {
+        evictedBefore = cutoff;
+    }
+
+    /**
+     * Be told about every entry published from now on; listeners run on the publishing thread and must not block
+     * @param listener Listener
+     * @return Action that removes the listener again
+     */
+    public Runnable subscribe(Consumer<ActivityLogItem> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+}
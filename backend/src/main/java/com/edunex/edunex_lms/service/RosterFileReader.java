@@ -0,0 +1,196 @@
+package com.edunex.edunex_lms.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams rows of a CSV or XLSX roster without loading the whole file into memory
+ * The first row is the header; header names are normalized to lower case letters and digits,
+ * so "Full Name", "full_name" and "fullName" all become "fullname"
+ */
+public final class RosterFileReader {
+
+    private RosterFileReader() {
+    }
+
+    /**
+     * Receives one data row at a time
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowNumber 1-based row number in the file, counting the header row
+         * @param values Non-blank cell values keyed by normalized header name
+         */
+        void row(long rowNumber, Map<String, String> values);
+    }
+
+    /**
+     * Read a roster file, choosing the format from the file name
+     * @param file File to read
+     * @param fileName Original file name
+     * @param handler Row callback
+     */
+    public static void read(Path file, String fileName, RowHandler handler) throws IOException {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx")) {
+            readXlsx(file, handler);
+        } else if (name.endsWith(".csv")) {
+            readCsv(file, handler);
+        } else {
+            throw new IllegalArgumentException("Unsupported file type, expected .csv or .xlsx");
+        }
+    }
+
+    public static boolean isSupported(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".xlsx") || name.endsWith(".csv");
+    }
+
+    public static String normalizeHeader(String header) {
+        if (header == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(header.length());
+        for (char c : header.toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static void readCsv(Path file, RowHandler handler) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = format.parse(reader)) {
+            List<String> headers = new ArrayList<>();
+            for (String header : parser.getHeaderNames()) {
+                // Excel writes a BOM in front of the first header of UTF-8 exports
+                headers.add(normalizeHeader(header.replace("\uFEFF", "")));
+            }
+
+            for (CSVRecord record : parser) {
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < headers.size() && i < record.size(); i++) {
+                    put(values, headers.get(i), record.get(i));
+                }
+                if (!values.isEmpty()) {
+                    // getRecordNumber() is 1-based and excludes the header
+                    handler.row(record.getRecordNumber() + 1, values);
+                }
+            }
+        }
+    }
+
+    private static void readXlsx(Path file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                    new SheetRowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    private static void put(Map<String, String> values, String header, String value) {
+        if (!header.isEmpty() && value != null && !value.isBlank()) {
+            values.put(header, value.trim());
+        }
+    }
+
+    /**
+     * Turns SAX cell events of the first sheet into header-keyed rows
+     */
+    private static final class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final Map<Integer, String> headers = new HashMap<>();
+        private final Map<Integer, String> cells = new HashMap<>();
+        private boolean headerRead;
+
+        private SheetRowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!headerRead) {
+                if (!cells.isEmpty()) {
+                    cells.forEach((column, value) -> headers.put(column, normalizeHeader(value)));
+                    headerRead = true;
+                }
+                return;
+            }
+
+            Map<String, String> values = new HashMap<>();
+            cells.forEach((column, value) -> {
+                String header = headers.get(column);
+                if (header != null) {
+                    put(values, header, value);
+                }
+            });
+            if (!values.isEmpty()) {
+                handler.row(rowNum + 1L, values);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference != null) {
+                cells.put((int) new CellReference(cellReference).getCol(), formattedValue);
+            }
+        }
+    }
+}
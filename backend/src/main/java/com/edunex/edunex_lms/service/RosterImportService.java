@@ -0,0 +1,327 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.CourseRef;
+import com.edunex.edunex_lms.dto.EnrollmentPair;
+import com.edunex.edunex_lms.dto.ImportJob;
+import com.edunex.edunex_lms.dto.UserRef;
+import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Imports user and enrollment rosters from CSV or XLSX files
+ * Uploads are spooled to a temporary file and processed in the background: rows are streamed,
+ * validated and written in chunks, and progress plus per-row errors are kept on an {@link ImportJob}
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RosterImportService {
+
+    private static final String[] USERNAME_COLUMNS = {"username", "login"};
+    private static final String[] USN_COLUMNS = {"usn", "studentid", "rollno", "rollnumber"};
+    private static final String[] EMAIL_COLUMNS = {"email", "emailaddress", "mail"};
+    private static final String[] FULL_NAME_COLUMNS = {"fullname", "name", "studentname"};
+    private static final String[] PHONE_COLUMNS = {"phone", "phonenumber", "mobile"};
+    private static final String[] COURSE_CODE_COLUMNS = {"coursecode", "course"};
+
+    private final BulkUserImportService bulkUserImportService;
+    private final BulkEnrollmentService bulkEnrollmentService;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final ActivityLogService activityLogService;
+    private final AdminStatsService adminStatsService;
+
+    @Value("${roster.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${roster.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${roster.import.threads:2}")
+    private int threads;
+
+    @Value("${roster.import.job-retention-ms:86400000}")
+    private long jobRetentionMs;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService importExecutor;
+
+    private record Row(long number, Map<String, String> values) {
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        importExecutor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "roster-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * Start importing users from a roster file
+     * @param file Uploaded CSV or XLSX file
+     * @param defaultRole Role for rows without a role column
+     * @param defaultPassword Password for rows without a password column, may be null
+     * @param requestedBy Username of the admin starting the import
+     * @return The queued job
+     */
+    public ImportJob startUserImport(MultipartFile file, User.Role defaultRole, String defaultPassword,
+                                     String requestedBy) throws IOException {
+        ImportJob job = new ImportJob(ImportJob.Type.USERS, file.getOriginalFilename(), requestedBy, maxErrors);
+        return submit(job, file, rows -> writeUsers(job, rows, defaultRole, defaultPassword));
+    }
+
+    /**
+     * Start importing enrollments from a roster file with a student (USN or username) and course code column
+     * @param file Uploaded CSV or XLSX file
+     * @param defaultCourseCode Course for rows without a course code column, may be null
+     * @param requestedBy Username of the admin starting the import
+     * @return The queued job
+     */
+    public ImportJob startEnrollmentImport(MultipartFile file, String defaultCourseCode,
+                                           String requestedBy) throws IOException {
+        ImportJob job = new ImportJob(ImportJob.Type.ENROLLMENTS, file.getOriginalFilename(), requestedBy, maxErrors);
+        return submit(job, file, rows -> writeEnrollments(job, rows, defaultCourseCode));
+    }
+
+    public Optional<ImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public List<ImportJob> getJobs() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(ImportJob::getCreatedAt).reversed())
+            .toList();
+    }
+
+    private ImportJob submit(ImportJob job, MultipartFile file, Consumer<List<Row>> chunkWriter) throws IOException {
+        if (!RosterFileReader.isSupported(file.getOriginalFilename())) {
+            throw new IllegalArgumentException("Unsupported file type, expected .csv or .xlsx");
+        }
+        evictFinishedJobs();
+
+        // The multipart part is gone once the request completes, so keep our own copy
+        Path spool = Files.createTempFile("roster-import-", ".tmp");
+        try {
+            file.transferTo(spool);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        importExecutor.execute(() -> run(job, spool, chunkWriter));
+        return job;
+    }
+
+    private void run(ImportJob job, Path spool, Consumer<List<Row>> chunkWriter) {
+        job.start();
+        log.info("Roster import {} started: {} from {}", job.getId(), job.getType(), job.getFileName());
+        try {
+            int size = Math.max(1, chunkSize);
+            List<Row> buffer = new ArrayList<>(size);
+            RosterFileReader.read(spool, job.getFileName(), (rowNumber, values) -> {
+                buffer.add(new Row(rowNumber, values));
+                if (buffer.size() >= size) {
+                    writeChunk(buffer, chunkWriter);
+                    buffer.clear();
+                }
+            });
+            if (!buffer.isEmpty()) {
+                writeChunk(buffer, chunkWriter);
+            }
+            job.complete();
+            activityLogService.logActivity("ROSTER_IMPORT", "Imported " + job.getSucceededRows() + " "
+                + job.getType().name().toLowerCase(Locale.ROOT) + " from " + job.getFileName(),
+                null, "ImportJob", null);
+            log.info("Roster import {} completed: {} rows, {} succeeded, {} skipped, {} errors", job.getId(),
+                job.getProcessedRows(), job.getSucceededRows(), job.getSkippedRows(), job.getErrorCount());
+        } catch (Exception e) {
+            log.error("Roster import {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}", spool, e);
+            }
+        }
+    }
+
+    /**
+     * Write one chunk; each chunk commits on its own, so the dashboard counters are refreshed after every one
+     */
+    private void writeChunk(List<Row> rows, Consumer<List<Row>> chunkWriter) {
+        chunkWriter.accept(rows);
+        adminStatsService.invalidate();
+    }
+
+    private void writeUsers(ImportJob job, List<Row> rows, User.Role defaultRole, String defaultPassword) {
+        List<BulkUserImportService.NewUser> users = new ArrayList<>(rows.size());
+        List<Long> rowNumbers = new ArrayList<>(rows.size());
+
+        for (Row row : rows) {
+            Map<String, String> values = row.values();
+            String usn = value(values, USN_COLUMNS);
+            String username = value(values, USERNAME_COLUMNS);
+            if (username == null) {
+                username = usn;
+            }
+
+            User.Role role = defaultRole;
+            String roleValue = values.get("role");
+            if (roleValue != null) {
+                try {
+                    role = User.Role.valueOf(roleValue.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    job.addError(row.number(), username, "Invalid role: " + roleValue);
+                    continue;
+                }
+            }
+
+            String password = values.getOrDefault("password", defaultPassword);
+            users.add(new BulkUserImportService.NewUser(username, usn, value(values, EMAIL_COLUMNS),
+                value(values, FULL_NAME_COLUMNS), value(values, PHONE_COLUMNS), password, role));
+            rowNumbers.add(row.number());
+        }
+
+        BulkUserImportService.ImportResult result = bulkUserImportService.createUsers(users);
+        job.addSucceeded(result.created().size());
+        for (BulkUserImportService.RowError error : result.errors()) {
+            job.addError(rowNumbers.get(error.index()), error.username(), error.reason());
+        }
+        job.addProcessed(rows.size());
+    }
+
+    private void writeEnrollments(ImportJob job, List<Row> rows, String defaultCourseCode) {
+        Set<String> studentKeys = new HashSet<>();
+        Set<String> courseCodes = new HashSet<>();
+        for (Row row : rows) {
+            String studentKey = studentKey(row.values());
+            String courseCode = courseCode(row.values(), defaultCourseCode);
+            if (studentKey != null) {
+                studentKeys.add(studentKey);
+            }
+            if (courseCode != null) {
+                // Course codes are conventionally upper case; don't rely on a case-insensitive collation
+                courseCodes.add(courseCode);
+                courseCodes.add(courseCode.toUpperCase(Locale.ROOT));
+            }
+        }
+
+        // USN matches win over username matches for the same key
+        Map<String, UserRef> students = new HashMap<>();
+        if (!studentKeys.isEmpty()) {
+            List<UserRef> refs = userRepository.findRefsByUsnOrUsername(studentKeys);
+            refs.forEach(ref -> students.put(normalize(ref.getUsername()), ref));
+            refs.stream()
+                .filter(ref -> ref.getUsn() != null)
+                .forEach(ref -> students.put(normalize(ref.getUsn()), ref));
+        }
+        Map<String, CourseRef> courses = new HashMap<>();
+        if (!courseCodes.isEmpty()) {
+            courseRepository.findRefsByCourseCodeIn(courseCodes)
+                .forEach(ref -> courses.put(normalize(ref.getCourseCode()), ref));
+        }
+
+        Map<EnrollmentPair, Row> pairs = new LinkedHashMap<>();
+        for (Row row : rows) {
+            String studentKey = studentKey(row.values());
+            String courseCode = courseCode(row.values(), defaultCourseCode);
+            if (studentKey == null) {
+                job.addError(row.number(), null, "USN or username is required");
+                continue;
+            }
+            if (courseCode == null) {
+                job.addError(row.number(), studentKey, "Course code is required");
+                continue;
+            }
+
+            UserRef student = students.get(normalize(studentKey));
+            CourseRef course = courses.get(normalize(courseCode));
+            if (student == null) {
+                job.addError(row.number(), studentKey, "User not found");
+            } else if (student.getRole() != User.Role.STUDENT) {
+                job.addError(row.number(), studentKey, "Not a student");
+            } else if (course == null) {
+                job.addError(row.number(), studentKey, "Course not found: " + courseCode);
+            } else if (pairs.putIfAbsent(new EnrollmentPair(student.getId(), course.getId()), row) != null) {
+                job.addSkipped(1);
+            }
+        }
+
+        BulkEnrollmentService.EnrollResult result = bulkEnrollmentService.enrollPairs(new ArrayList<>(pairs.keySet()));
+        job.addSucceeded(result.enrolled().size());
+        job.addSkipped(result.alreadyEnrolled().size());
+        for (EnrollmentPair pair : result.courseFull()) {
+            Row row = pairs.get(pair);
+            job.addError(row.number(), studentKey(row.values()), "Course is full");
+        }
+        job.addProcessed(rows.size());
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(jobRetentionMs * 1_000_000);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static String studentKey(Map<String, String> values) {
+        String usn = value(values, USN_COLUMNS);
+        return usn != null ? usn : value(values, USERNAME_COLUMNS);
+    }
+
+    private static String courseCode(Map<String, String> values, String defaultCourseCode) {
+        String courseCode = value(values, COURSE_CODE_COLUMNS);
+        return courseCode != null ? courseCode : (StringUtils.hasText(defaultCourseCode) ? defaultCourseCode : null);
+    }
+
+    private static String value(Map<String, String> values, String[] columns) {
+        for (String column : columns) {
+            String value = values.get(column);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
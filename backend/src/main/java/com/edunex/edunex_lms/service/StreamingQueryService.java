@@ -0,0 +1,83 @@
+package com.edunex.edunex_lms.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Reads the rows of a streamed query while they are written to the response
+ * The query runs in a read-only transaction held open while the rows are written, and the persistence context is
+ * cleared as the rows go by, so neither a result list nor the loaded entities grow with the number of rows.
+ */
+@Service
+public class StreamingQueryService {
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readTransaction;
+
+    /**
+     * Consumes the rows of a query; each row must be fully written before the next one is requested
+     */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(Iterator<T> rows) throws IOException;
+    }
+
+    public StreamingQueryService(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Run a query and hand its rows to a writer inside one read-only transaction
+     * @param query Opens the row stream; called inside the read transaction, before the writer
+     * @param writer Writes the rows
+     */
+    public <T> void stream(Supplier<Stream<T>> query, RowWriter<T> writer) throws IOException {
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    writer.write(clearing(rows.iterator()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Clear the persistence context every few hundred rows, when the next row is requested and the previous
+     * ones have been written
+     */
+    private <T> Iterator<T> clearing(Iterator<T> rows) {
+        return new Iterator<>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (count > 0 && count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+                count++;
+                return rows.next();
+            }
+        };
+    }
+}
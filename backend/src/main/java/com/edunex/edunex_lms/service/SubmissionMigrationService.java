@@ -0,0 +1,123 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.entity.Assignment;
+import com.edunex.edunex_lms.entity.Submission;
+import com.edunex.edunex_lms.repository.AssignmentRepository;
+import com.edunex.edunex_lms.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves submissions stored by the old model, as Assignment rows with a student, into the submissions table
+ * Rows are migrated in small transactions so the application keeps serving requests meanwhile
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionMigrationService {
+
+    private final AssignmentRepository assignmentRepository;
+    private final SubmissionRepository submissionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${submissions.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${submissions.migration.chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (enabled) {
+            migrate();
+        }
+    }
+
+    /**
+     * Migrate every legacy submission row
+     * @return Number of rows migrated
+     */
+    public int migrate() {
+        int migrated = 0;
+        while (true) {
+            List<Long> ids = assignmentRepository.findLegacySubmissionIds(PageRequest.of(0, Math.max(1, chunkSize)));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer count = transactionTemplate.execute(status -> migrateChunk(ids));
+            if (count == null || count == 0) {
+                log.warn("Submission migration made no progress, {} legacy row(s) left in place", ids.size());
+                break;
+            }
+            migrated += count;
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated {} legacy submission row(s) to the submissions table", migrated);
+        }
+        return migrated;
+    }
+
+    private int migrateChunk(List<Long> ids) {
+        int count = 0;
+        for (Assignment legacy : assignmentRepository.findAllById(ids)) {
+            if (legacy.getStudent() == null) {
+                continue;
+            }
+
+            Long definitionId = legacy.getCourse() == null ? null
+                : assignmentRepository.findDefinitionId(legacy.getCourse().getId(), legacy.getTitle());
+
+            if (definitionId != null) {
+                // A copy of the definition: move its submission over and drop the copy
+                Assignment definition = assignmentRepository.getReferenceById(definitionId);
+                Submission submission = submissionRepository
+                    .findByAssignmentIdAndStudentId(definitionId, legacy.getStudent().getId())
+                    .orElseGet(Submission::new);
+                copySubmission(legacy, definition, submission);
+                submissionRepository.save(submission);
+                assignmentRepository.delete(legacy);
+            } else {
+                // The definition itself was overwritten by a submission: split it back out
+                Submission submission = new Submission();
+                copySubmission(legacy, legacy, submission);
+                submissionRepository.save(submission);
+
+                legacy.setStudent(null);
+                legacy.setSubmissionUrl(null);
+                legacy.setSubmittedAt(null);
+                legacy.setMarksObtained(null);
+                legacy.setFeedback(null);
+                legacy.setStatus(Assignment.SubmissionStatus.PENDING);
+            }
+            // Flush so that later rows of the chunk see the new definition and submission
+            assignmentRepository.flush();
+            count++;
+        }
+        return count;
+    }
+
+    private static void copySubmission(Assignment legacy, Assignment definition, Submission submission) {
+        submission.setAssignment(definition);
+        submission.setStudent(legacy.getStudent());
+        submission.setSubmissionUrl(legacy.getSubmissionUrl());
+        submission.setSubmittedAt(legacy.getSubmittedAt());
+        submission.setMarksObtained(legacy.getMarksObtained());
+        submission.setFeedback(legacy.getFeedback());
+        Assignment.SubmissionStatus status = legacy.getStatus();
+        submission.setStatus(status == null || status == Assignment.SubmissionStatus.PENDING
+            ? Assignment.SubmissionStatus.SUBMITTED : status);
+        if (status == Assignment.SubmissionStatus.GRADED) {
+            submission.setGradedAt(legacy.getUpdatedAt());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.FileRef;
+import com.edunex.edunex_lms.entity.Submission;
+import com.edunex.edunex_lms.exception.InvalidOperationException;
+import com.edunex.edunex_lms.repository.SubmissionRepository;
+import com.edunex.edunex_lms.service.BlobStorageService.Blob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores submission files in the blob store, enforcing the per-file size limit and the course quota
+ * Every upload reserves its size against the course quota until the caller releases it. The quota counts
+ * the size of every submission, even when identical files share one blob on disk.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubmissionStorageService {
+
+    private final SubmissionRepository submissionRepository;
+    private final BlobStorageService blobStorageService;
+
+    @Value("${submissions.upload.max-file-size:52428800}")
+    private long maxFileSize;
+
+    @Value("${submissions.upload.course-quota:10737418240}")
+    private long courseQuota;
+
+    private final Map<Long, Long> reservedBytes = new ConcurrentHashMap<>();
+
+    /**
+     * A submission file in the blob store; reserved is the number of bytes held against the course quota
+     */
+    public record StoredFile(String path, String fileName, long size, String sha256, Long courseId, long reserved) {
+    }
+
+    /**
+     * Store a multipart file the servlet container has already spooled to the staging directory
+     * @param courseId Course the quota is charged to
+     * @param replacedBytes Size of the student's previous file, which this one replaces
+     * @param file Uploaded file
+     * @return Stored file, holding one blob reference
+     */
+    public StoredFile store(Long courseId, long replacedBytes, MultipartFile file) {
+        long size = file.getSize();
+        checkSize(size);
+        reserve(courseId, size, replacedBytes);
+        try {
+            Blob blob = blobStorageService.store(file);
+            return new StoredFile(blob.path(), safeFileName(file.getOriginalFilename()), blob.size(), blob.sha256(),
+                courseId, size);
+        } catch (RuntimeException e) {
+            release(courseId, size);
+            throw e;
+        }
+    }
+
+    /**
+     * Store a file streamed from the request body
+     * @param courseId Course the quota is charged to
+     * @param replacedBytes Size of the student's previous file, which this one replaces
+     * @param fileName Original file name
+     * @param content File content
+     * @param contentLength Declared length, or -1 if unknown
+     * @return Stored file, holding one blob reference
+     */
+    public StoredFile store(Long courseId, long replacedBytes, String fileName, InputStream content, long contentLength) {
+        if (contentLength >= 0) {
+            checkSize(contentLength);
+        }
+        long reserved = contentLength >= 0 ? contentLength : maxFileSize;
+        reserve(courseId, reserved, replacedBytes);
+        try {
+            Blob blob = blobStorageService.store(content, contentLength, maxFileSize);
+            // Hand back what an unknown-length upload reserved but did not use
+            release(courseId, reserved - blob.size());
+            return new StoredFile(blob.path(), safeFileName(fileName), blob.size(), blob.sha256(), courseId, blob.size());
+        } catch (RuntimeException e) {
+            release(courseId, reserved);
+            throw e;
+        }
+    }
+
+    /**
+     * Give back the quota held by a stored file once its submission has been saved or discarded
+     * @param file Stored file
+     */
+    public void release(StoredFile file) {
+        release(file.courseId(), file.reserved());
+    }
+
+    /**
+     * Drop the blob reference of a file whose submission could not be saved
+     * @param file Stored file
+     */
+    public void discard(StoredFile file) {
+        blobStorageService.release(List.of(file.sha256()));
+        blobStorageService.collectLater(List.of(file.sha256()));
+    }
+    
+    /**
+     * Drop the blob references of submissions about to be deleted; call in the deleting transaction
+     * @param files Content hashes and paths of the submissions
+     */
+    public void releaseFiles(Collection<? extends FileRef> files) {
+        blobStorageService.releaseFiles(files);
+    }
+    
+    /**
+     * Drop the blob reference of a submission's current file, e.g. when a resubmission replaces it
+     * @param submission Submission
+     */
+    public void releaseFile(Submission submission) {
+        blobStorageService.releaseFile(submission.getContentHash(), submission.getSubmissionUrl());
+    }
+
+    private void reserve(Long courseId, long bytes, long replacedBytes) {
+        long used = submissionRepository.sumFileSizeByCourseId(courseId) - replacedBytes;
+        reservedBytes.compute(courseId, (id, inFlight) -> {
+            long pending = inFlight == null ? 0 : inFlight;
+            if (used + pending + bytes > courseQuota) {
+                throw new InvalidOperationException("Course storage quota exceeded");
+            }
+            return pending + bytes;
+        });
+    }
+
+    private void release(Long courseId, long bytes) {
+        if (bytes > 0) {
+            reservedBytes.computeIfPresent(courseId, (id, inFlight) -> inFlight - bytes > 0 ? inFlight - bytes : null);
+        }
+    }
+
+    private void checkSize(long size) {
+        if (size > maxFileSize) {
+            throw new InvalidOperationException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+    }
+
+    private static String safeFileName(String originalName) {
+        return BlobStorageService.safeFileName(originalName, "submission");
+    }
+}
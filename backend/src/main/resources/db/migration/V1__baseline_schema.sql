@@ -0,0 +1,177 @@
+-- Schema as Hibernate created it with ddl-auto=update before migrations were introduced
+--
+-- Databases that already have these tables are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and run every migration after it. Constraint names are the ones Hibernate generated, so they match the
+-- existing databases. Later schema changes belong in V2 onwards, never here.
+
+create table activity_logs (
+    created_at datetime(6) not null,
+    entity_id bigint,
+    id bigint not null auto_increment,
+    user_id bigint,
+    activity_type varchar(255) not null,
+    description TEXT not null,
+    entity_type varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table assignments (
+    marks_obtained integer,
+    max_marks integer not null,
+    course_id bigint not null,
+    created_at datetime(6) not null,
+    due_date datetime(6) not null,
+    id bigint not null auto_increment,
+    student_id bigint,
+    submitted_at datetime(6),
+    updated_at datetime(6) not null,
+    title varchar(200) not null,
+    attachment_url varchar(500),
+    submission_url varchar(500),
+    description TEXT,
+    feedback TEXT,
+    status enum ('GRADED','LATE_SUBMISSION','PENDING','SUBMITTED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table attendance (
+    attendance_date date not null,
+    course_id bigint not null,
+    id bigint not null auto_increment,
+    marked_at datetime(6) not null,
+    marked_by bigint,
+    student_id bigint not null,
+    remarks varchar(500),
+    status enum ('ABSENT','EXCUSED','LATE','PRESENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table course_materials (
+    course_id bigint not null,
+    id bigint not null auto_increment,
+    uploaded_at datetime(6) not null,
+    uploaded_by bigint,
+    url varchar(1000) not null,
+    description TEXT,
+    title varchar(255) not null,
+    type enum ('DOCUMENT','LINK','OTHER','VIDEO') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table courses (
+    credits integer not null,
+    is_active bit not null,
+    max_students integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    instructor_id bigint not null,
+    updated_at datetime(6) not null,
+    course_code varchar(20) not null,
+    category varchar(100),
+    course_name varchar(200) not null,
+    thumbnail_url varchar(500),
+    description TEXT,
+    primary key (id)
+) engine=InnoDB;
+
+create table enrollments (
+    final_grade float(53),
+    progress_percentage float(53) not null,
+    completed_at datetime(6),
+    course_id bigint not null,
+    enrolled_at datetime(6) not null,
+    id bigint not null auto_increment,
+    student_id bigint not null,
+    status enum ('ACTIVE','COMPLETED','DROPPED','SUSPENDED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    account_non_locked bit not null,
+    enabled bit not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6) not null,
+    phone_number varchar(20),
+    usn varchar(20),
+    username varchar(50) not null,
+    full_name varchar(100) not null,
+    profile_picture varchar(500),
+    email varchar(255) not null,
+    password varchar(255) not null,
+    role enum ('ADMIN','INSTRUCTOR','STUDENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table attendance
+   add constraint UKmsfrpljs6e1jqct28nnc4mi unique (student_id, course_id, attendance_date);
+
+alter table courses
+   add constraint UKp02ts69sh53ptd62m3c67v0 unique (course_code);
+
+alter table enrollments
+   add constraint UKi0g6mfijtuh199nj653nva6j5 unique (student_id, course_id);
+
+alter table users
+   add constraint UKca82kn1lfehad9qptyw9dge12 unique (usn);
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table activity_logs
+   add constraint FK5bm1lt4f4eevt8lv2517soakd
+   foreign key (user_id)
+   references users (id);
+
+alter table assignments
+   add constraint FK6p1m72jobsvmrrn4bpj4168mg
+   foreign key (course_id)
+   references courses (id);
+
+alter table assignments
+   add constraint FK5upccpvvsvdb194fprx74q1cw
+   foreign key (student_id)
+   references users (id);
+
+alter table attendance
+   add constraint FKn38ldxe7u4udeu15ikqfsplnm
+   foreign key (course_id)
+   references courses (id);
+
+alter table attendance
+   add constraint FKpkwi8vo8nh7iu7kte6w8nyeeg
+   foreign key (marked_by)
+   references users (id);
+
+alter table attendance
+   add constraint FK80qpvlsg0xpmw80bnk64avvou
+   foreign key (student_id)
+   references users (id);
+
+alter table course_materials
+   add constraint FKjobqk7m872wjsw0y29tle6wek
+   foreign key (course_id)
+   references courses (id);
+
+alter table course_materials
+   add constraint FKpnxoasam5wwkq6a7hvpv81cf
+   foreign key (uploaded_by)
+   references users (id);
+
+alter table courses
+   add constraint FKcyfum8goa6q5u13uog0563gyp
+   foreign key (instructor_id)
+   references users (id);
+
+alter table enrollments
+   add constraint FKho8mcicp4196ebpltdn9wl6co
+   foreign key (course_id)
+   references courses (id);
+
+alter table enrollments
+   add constraint FK2lha5vwilci2yi3vu5akusx4a
+   foreign key (student_id)
+   references users (id);
@@ -0,0 +1,119 @@
+-- Tables, columns and indexes added on top of the baseline schema
+--
+-- Existing databases get the new tables empty: AttendanceSummaryService rebuilds attendance_summary and
+-- SubmissionMigrationService moves per-student assignment rows into submissions when the application starts.
+
+-- Activity log: feed indexes, and no foreign key to users so logs outlive deleted users and the table can be
+-- partitioned. The user index is created first; MySQL then drops the index it created for the foreign key.
+create index idx_activity_logs_created
+   on activity_logs (created_at);
+
+create index idx_activity_logs_type_created
+   on activity_logs (activity_type, created_at);
+
+create index idx_activity_logs_user_created
+   on activity_logs (user_id, created_at);
+
+create index idx_activity_logs_entity_created
+   on activity_logs (entity_type, entity_id, created_at);
+
+alter table activity_logs
+   drop foreign key FK5bm1lt4f4eevt8lv2517soakd;
+
+-- Assignment lists per course by due date, and assignment definitions by title
+create index idx_assignments_course_due
+   on assignments (course_id, due_date, id);
+
+create index idx_assignments_course_title
+   on assignments (course_id, title);
+
+-- Per-student attendance counters per course
+create table attendance_summary (
+    absent_count integer not null,
+    excused_count integer not null,
+    late_count integer not null,
+    present_count integer not null,
+    total_count integer not null,
+    course_id bigint not null,
+    id bigint not null auto_increment,
+    student_id bigint not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table attendance_summary
+   add constraint UKntds4a6e53n0wxq83d1pjip97 unique (student_id, course_id);
+
+alter table attendance_summary
+   add constraint FKexu9ek4ewwaa07i5sso48ykha
+   foreign key (course_id)
+   references courses (id);
+
+alter table attendance_summary
+   add constraint FK8mp9ya6xn2fbu3jdiymdl8xsk
+   foreign key (student_id)
+   references users (id);
+
+-- Uploaded material files, stored in the blob store
+alter table course_materials
+   add column file_size bigint;
+
+alter table course_materials
+   add column content_hash varchar(64);
+
+alter table course_materials
+   add column content_type varchar(100);
+
+alter table course_materials
+   add column file_name varchar(255);
+
+-- Content-addressed file store shared by materials and submissions
+create table stored_blobs (
+    ref_count integer not null,
+    created_at datetime(6) not null,
+    size_bytes bigint not null,
+    updated_at datetime(6) not null,
+    sha256 varchar(64) not null,
+    primary key (sha256)
+) engine=InnoDB;
+
+create index idx_stored_blobs_ref_count
+   on stored_blobs (ref_count);
+
+-- Submissions, one per student and assignment, split out of assignments
+create table submissions (
+    marks_obtained integer,
+    assignment_id bigint not null,
+    created_at datetime(6) not null,
+    file_size bigint,
+    graded_at datetime(6),
+    id bigint not null auto_increment,
+    student_id bigint not null,
+    submitted_at datetime(6),
+    updated_at datetime(6) not null,
+    content_hash varchar(64),
+    submission_url varchar(500),
+    feedback TEXT,
+    file_name varchar(255),
+    status enum ('GRADED','LATE_SUBMISSION','PENDING','SUBMITTED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_submissions_assignment_status
+   on submissions (assignment_id, status);
+
+create index idx_submissions_student_status
+   on submissions (student_id, status);
+
+alter table submissions
+   add constraint uk_submissions_assignment_student unique (assignment_id, student_id);
+
+alter table submissions
+   add constraint FKrirbb44savy2g7nws0hoxs949
+   foreign key (assignment_id)
+   references assignments (id);
+
+alter table submissions
+   add constraint FK3p6y8mnhpwusdgqrdl4hcl72m
+   foreign key (student_id)
+   references users (id);
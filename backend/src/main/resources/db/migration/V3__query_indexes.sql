@@ -0,0 +1,53 @@
+-- Secondary indexes for the repository queries
+--
+-- InnoDB already indexes every foreign key column, and the unique constraints from V1 and V2 serve lookups by
+-- their leading columns: attendance, enrollments and attendance_summary by student, submissions by
+-- assignment, users by username, email and usn, courses by code. The indexes below cover the remaining
+-- filters and sort orders. Where one starts with a foreign key column, InnoDB drops the index it created
+-- for that key. Flags that split a table in two or three (users.enabled, courses.is_active on their own)
+-- are not worth an index. ExplainPlanTests checks that MySQL uses these indexes.
+
+-- UserRepository: findByRole, findActiveUsersByRole, countByRole, countGroupedByRoleAndEnabled, streamResponses
+create index idx_users_role_enabled
+   on users (role, enabled);
+
+-- UserRepository.findSummaries: admin user pages, newest first
+create index idx_users_created
+   on users (created_at);
+
+-- CourseRepository: findByInstructorId, findIdsByInstructorId, countByInstructorId, findListItems by instructor
+create index idx_courses_instructor_active
+   on courses (instructor_id, is_active);
+
+-- CourseRepository: findListItems by status and category
+create index idx_courses_active_category
+   on courses (is_active, category);
+
+-- CourseRepository: findByCategory, findAllCategories
+create index idx_courses_category
+   on courses (category);
+
+-- AssignmentRepository: findByStudentId, findByStudentIdAndStatus, findByIdAndStudentId, findLegacySubmissionIds
+create index idx_assignments_student_status
+   on assignments (student_id, status);
+
+-- AssignmentRepository.findByStatus
+create index idx_assignments_status_due
+   on assignments (status, due_date);
+
+-- AssignmentRepository: findAllWithCourse, findListItems for all courses, ordered by due date
+create index idx_assignments_due
+   on assignments (due_date, id);
+
+-- AttendanceRepository: streamByCourseId, findByCourseIdAndDate
+create index idx_attendance_course_date
+   on attendance (course_id, attendance_date);
+
+-- EnrollmentRepository: streamByCourseId, findStudentIdsByCourseId, countByCourseId, countActiveByCourseId,
+-- countByCourseIds, countActiveByCourseIds, countGroupedByCourse, getAverageProgressByCourseId
+create index idx_enrollments_course_status
+   on enrollments (course_id, status);
+
+-- CourseMaterialRepository: findByCourseId, findByCourseIdOrderByUploadedAtDesc
+create index idx_course_materials_course_uploaded
+   on course_materials (course_id, uploaded_at);
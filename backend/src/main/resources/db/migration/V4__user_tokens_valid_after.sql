@@ -0,0 +1,3 @@
+-- Per-user token revocation cutoff, so tokens revoked after a username or role change stay rejected across restarts
+alter table users
+   add column tokens_valid_after datetime(6);
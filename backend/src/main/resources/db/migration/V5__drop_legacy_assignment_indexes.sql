@@ -0,0 +1,13 @@
+-- Drop the indexes on the legacy submission columns of assignments
+--
+-- Submissions live in their own table since V2, so assignments.status stays PENDING and student_id stays null on
+-- every definition. Nothing filters on status any more; student_id is only read to find rows left over from the
+-- old model. The foreign key on student_id needs an index to itself, so it is created before the composite one
+-- that has been serving it is dropped.
+
+create index idx_assignments_student
+   on assignments (student_id);
+
+drop index idx_assignments_student_status on assignments;
+
+drop index idx_assignments_status_due on assignments;
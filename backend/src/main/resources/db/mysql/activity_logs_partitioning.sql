@@ -0,0 +1,23 @@
+-- One-time conversion of activity_logs to RANGE partitioning on created_at (MySQL 8)
+--
+-- A partitioned table cannot have foreign keys, and every unique key must contain the partitioning
+-- column, so the user foreign key is dropped and the primary key becomes (id, created_at).
+-- The table is rebuilt, so run this in a quiet period. It leaves one catch-all partition, pmax;
+-- with activity.log.partitioning.enabled=true the application then splits monthly partitions off it
+-- and the retention job drops expired months as a whole.
+
+SET @fk := (SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+            WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'activity_logs' LIMIT 1);
+SET @drop_fk := IF(@fk IS NULL, 'DO 0', CONCAT('ALTER TABLE activity_logs DROP FOREIGN KEY ', @fk));
+PREPARE stmt FROM @drop_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE activity_logs
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE activity_logs
+    PARTITION BY RANGE (TO_DAYS(created_at)) (
+        PARTITION pmax VALUES LESS THAN MAXVALUE
+    );
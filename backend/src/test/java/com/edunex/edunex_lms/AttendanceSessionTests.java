@@ -0,0 +1,172 @@
+package com.edunex.edunex_lms;
+
+import com.edunex.edunex_lms.repository.AttendanceRepository;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.EnrollmentRepository;
+import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.service.AttendanceService;
+import com.edunex.edunex_lms.service.AttendanceService.SessionEntry;
+import com.edunex.edunex_lms.service.AttendanceSummaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Attendance counters stay in step with the attendance rows when class sessions are marked concurrently
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceSessionTests {
+
+    private static final LocalDate SESSION_DATE = LocalDate.of(2031, 1, 6);
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private Long courseId;
+    private Long studentId;
+    private Long classmateId;
+
+    @BeforeEach
+    void setUp() {
+        courseId = courseRepository.findByCourseCode("CS101").orElseThrow().getId();
+        studentId = userRepository.findByUsername("NNM23CS001").orElseThrow().getId();
+        classmateId = userRepository.findByUsername("NNM23CS002").orElseThrow().getId();
+    }
+
+    @AfterEach
+    void removeSession() {
+        jdbcTemplate.update("DELETE FROM attendance WHERE attendance_date = ?", Date.valueOf(SESSION_DATE));
+        attendanceSummaryService.rebuild();
+    }
+
+    @Test
+    void overlappingCorrectionsAreCountedOnce() throws Exception {
+        Map<String, Object> before = summary();
+        mark("ABSENT", false);
+
+        // The second correction starts while the first is still uncommitted, and waits for it
+        CompletableFuture<Void> second = new TransactionTemplate(transactionManager).execute(status -> {
+            mark("PRESENT", true);
+            CompletableFuture<Void> correction = CompletableFuture.runAsync(() -> mark("LATE", true));
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertThat(correction).isNotDone();
+            return correction;
+        });
+        second.get(10, TimeUnit.SECONDS);
+
+        Map<String, Object> after = summary();
+        assertThat(count(after, "late_count") - count(before, "late_count")).isEqualTo(1);
+        assertThat(count(after, "present_count")).isEqualTo(count(before, "present_count"));
+        assertThat(count(after, "absent_count")).isEqualTo(count(before, "absent_count"));
+        assertThat(count(after, "total_count") - count(before, "total_count")).isEqualTo(1);
+    }
+
+    @Test
+    void rowAlreadyMarkedIsReportedWithoutOverwrite() {
+        mark("ABSENT", false);
+
+        AttendanceService.SessionResult result = mark("PRESENT", false);
+
+        assertThat(result.inserted()).isZero();
+        assertThat(result.conflicts()).extracting(AttendanceService.SessionConflict::studentId).containsExactly(studentId);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM attendance WHERE student_id = ? AND course_id = ? " +
+            "AND attendance_date = ?", String.class, studentId, courseId, Date.valueOf(SESSION_DATE))).isEqualTo("ABSENT");
+    }
+
+    @Test
+    void rowAddedBeforeARewrittenBatchIsReportedWithoutCounting() {
+        Map<String, Object> before = summary(studentId);
+        Map<String, Object> classmateBefore = summary(classmateId);
+        // The classmate is marked after the session is locked, which H2 like MySQL under READ COMMITTED lets
+        // through, and the batch reports no per-row counts as Connector/J does with rewriteBatchedStatements
+        JdbcTemplate racing = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                CompletableFuture.runAsync(() -> jdbcTemplate.update("INSERT INTO attendance (student_id, course_id, " +
+                        "attendance_date, status, marked_at) VALUES (?, ?, ?, 'LATE', ?)", classmateId, courseId,
+                    Date.valueOf(SESSION_DATE), Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)))).join();
+                int[][] counts = super.batchUpdate(sql, batchArgs, batchSize, pss);
+                Arrays.stream(counts).forEach(batch -> Arrays.fill(batch, Statement.SUCCESS_NO_INFO));
+                return counts;
+            }
+        };
+        AttendanceService service = new AttendanceService(attendanceRepository, courseRepository, userRepository,
+            enrollmentRepository, racing, attendanceSummaryService);
+
+        AttendanceService.SessionResult result = new TransactionTemplate(transactionManager).execute(status ->
+            service.markSession(courseId, SESSION_DATE, null, List.of(new SessionEntry(studentId, "PRESENT", null),
+                new SessionEntry(classmateId, "PRESENT", null)), false));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.conflicts()).extracting(AttendanceService.SessionConflict::studentId)
+            .containsExactly(classmateId);
+        assertThat(count(summary(studentId), "present_count") - count(before, "present_count")).isEqualTo(1);
+        assertThat(summary(classmateId)).isEqualTo(classmateBefore);
+    }
+
+    private AttendanceService.SessionResult mark(String status, boolean overwrite) {
+        return attendanceService.markSession(courseId, SESSION_DATE, null,
+            List.of(new SessionEntry(studentId, status, null)), overwrite);
+    }
+
+    private Map<String, Object> summary() {
+        return summary(studentId);
+    }
+
+    private Map<String, Object> summary(Long student) {
+        return jdbcTemplate.queryForMap("SELECT present_count, absent_count, late_count, total_count " +
+            "FROM attendance_summary WHERE student_id = ? AND course_id = ?", student, courseId);
+    }
+
+    private static int count(Map<String, Object> summary, String column) {
+        return ((Number) summary.get(column)).intValue();
+    }
+}
@@ -0,0 +1,214 @@
+package com.edunex.edunex_lms;
+
+import com.edunex.edunex_lms.repository.AssignmentRepository;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.service.BlobStorageService;
+import com.edunex.edunex_lms.service.BlobStorageService.Blob;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reference counting in the blob store, directly and through submissions and materials
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BlobStorageTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    private Long courseId;
+    private String instructorToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        courseId = courseRepository.findByCourseCode("WEB301").orElseThrow().getId();
+        instructorToken = login("jane.smith");
+    }
+
+    @Test
+    void identicalContentIsStoredOnceAndCollectedWithItsLastReference() {
+        byte[] content = uniqueContent();
+
+        Blob first = store(content);
+        Blob second = store(content);
+
+        assertThat(second.sha256()).isEqualTo(first.sha256());
+        assertThat(second.path()).isEqualTo(first.path());
+        assertThat(refCount(first.sha256())).isEqualTo(2);
+
+        blobStorageService.release(List.of(first.sha256()));
+        assertThat(blobStorageService.collect(List.of(first.sha256()))).isZero();
+        assertThat(refCount(first.sha256())).isEqualTo(1);
+        assertThat(Files.exists(blobStorageService.resolve(first.sha256()))).isTrue();
+
+        blobStorageService.release(List.of(first.sha256()));
+        assertThat(blobStorageService.collect(List.of(first.sha256()))).isEqualTo(1);
+        assertThat(refCount(first.sha256())).isNull();
+        assertThat(Files.exists(blobStorageService.resolve(first.sha256()))).isFalse();
+    }
+
+    @Test
+    void resubmittingReleasesThePreviousFile() throws Exception {
+        Long assignmentId = assignmentRepository.findByCourseId(courseId).stream()
+            .filter(assignment -> assignment.getTitle().equals("REST API Development"))
+            .findFirst().orElseThrow().getId();
+        String studentToken = login("NNM23CS017");
+
+        String firstHash = contentHash("submissions", submit(assignmentId, studentToken, uniqueContent()));
+        assertThat(refCount(firstHash)).isEqualTo(1);
+
+        String secondHash = contentHash("submissions", submit(assignmentId, studentToken, uniqueContent()));
+
+        assertThat(secondHash).isNotEqualTo(firstHash);
+        assertThat(refCount(secondHash)).isEqualTo(1);
+        assertThat(refCount(firstHash)).isNull();
+        assertThat(Files.exists(blobStorageService.resolve(firstHash))).isFalse();
+        assertThat(Files.exists(blobStorageService.resolve(secondHash))).isTrue();
+    }
+
+    @Test
+    void deletingAnUploadedMaterialCollectsItsFile() throws Exception {
+        JsonNode material = upload(uniqueContent());
+        String hash = contentHash("course_materials", material.get("id").asLong());
+        assertThat(refCount(hash)).isEqualTo(1);
+
+        deleteMaterial(material.get("id").asLong());
+
+        assertThat(refCount(hash)).isNull();
+        assertThat(Files.exists(blobStorageService.resolve(hash))).isFalse();
+    }
+
+    @Test
+    void clientSuppliedFileDetailsAreIgnored() throws Exception {
+        JsonNode uploaded = upload(uniqueContent());
+        String hash = contentHash("course_materials", uploaded.get("id").asLong());
+
+        String body = objectMapper.writeValueAsString(Map.of(
+            "title", "Borrowed file",
+            "type", "LINK",
+            "url", "https://example.com/notes",
+            "fileName", "notes.pdf",
+            "fileSize", 20,
+            "contentType", "application/pdf",
+            "contentHash", hash));
+        String response = mockMvc.perform(post("/api/materials")
+                .param("courseId", courseId.toString())
+                .header("Authorization", "Bearer " + instructorToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        long linkId = objectMapper.readTree(response).get("id").asLong();
+
+        try {
+            assertThat(contentHash("course_materials", linkId)).isNull();
+            mockMvc.perform(get("/api/materials/" + linkId + "/download")
+                    .header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isNotFound());
+
+            deleteMaterial(linkId);
+            assertThat(refCount(hash)).isEqualTo(1);
+            assertThat(Files.exists(blobStorageService.resolve(hash))).isTrue();
+        } finally {
+            deleteMaterial(uploaded.get("id").asLong());
+        }
+        assertThat(refCount(hash)).isNull();
+    }
+
+    private Blob store(byte[] content) {
+        return blobStorageService.store(new ByteArrayInputStream(content), content.length, content.length);
+    }
+
+    private long submit(Long assignmentId, String token, byte[] content) throws Exception {
+        String response = mockMvc.perform(post("/api/assignments/" + assignmentId + "/submit")
+                .param("fileName", "report.txt")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(content))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private JsonNode upload(byte[] content) throws Exception {
+        String response = mockMvc.perform(multipart("/api/materials/upload")
+                .file(new MockMultipartFile("file", "notes.txt", MediaType.TEXT_PLAIN_VALUE, content))
+                .param("courseId", courseId.toString())
+                .param("title", "Lecture notes")
+                .header("Authorization", "Bearer " + instructorToken))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private void deleteMaterial(long id) throws Exception {
+        mockMvc.perform(delete("/api/materials/" + id)
+                .header("Authorization", "Bearer " + instructorToken))
+            .andExpect(status().isNoContent());
+    }
+
+    private String contentHash(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT content_hash FROM " + table + " WHERE id = ?", String.class, id);
+    }
+
+    private Integer refCount(String sha256) {
+        List<Integer> counts = jdbcTemplate.queryForList(
+            "SELECT ref_count FROM stored_blobs WHERE sha256 = ?", Integer.class, sha256);
+        return counts.isEmpty() ? null : counts.get(0);
+    }
+
+    private static byte[] uniqueContent() {
+        return UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String login(String username) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", "password123"));
+        String response = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
@@ -0,0 +1,93 @@
+package com.edunex.edunex_lms;
+
+import com.edunex.edunex_lms.dto.EnrollmentPair;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.service.BulkEnrollmentService;
+import com.edunex.edunex_lms.service.BulkEnrollmentService.EnrollResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent bulk enrollments never hand out more seats than a course has
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkEnrollmentTests {
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long courseId;
+    private Long firstStudentId;
+    private Long secondStudentId;
+    private int maxStudents;
+
+    @BeforeEach
+    void leaveOneSeat() {
+        courseId = courseRepository.findByCourseCode("WEB301").orElseThrow().getId();
+        firstStudentId = userRepository.findByUsername("NNM23CS025").orElseThrow().getId();
+        secondStudentId = userRepository.findByUsername("NNM23CS026").orElseThrow().getId();
+        maxStudents = jdbcTemplate.queryForObject("SELECT max_students FROM courses WHERE id = ?", Integer.class,
+            courseId);
+        int active = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments WHERE course_id = ? " +
+            "AND status = 'ACTIVE'", Integer.class, courseId);
+        jdbcTemplate.update("UPDATE courses SET max_students = ? WHERE id = ?", active + 1, courseId);
+    }
+
+    @AfterEach
+    void restoreCourse() {
+        jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = ? AND student_id IN (?, ?)", courseId,
+            firstStudentId, secondStudentId);
+        jdbcTemplate.update("UPDATE courses SET max_students = ? WHERE id = ?", maxStudents, courseId);
+    }
+
+    @Test
+    void lastSeatGoesToOneOfTwoConcurrentEnrollments() throws Exception {
+        // The second enrollment starts while the first is still uncommitted, and waits for it
+        CompletableFuture<EnrollResult> second = new TransactionTemplate(transactionManager).execute(status -> {
+            EnrollResult first = bulkEnrollmentService.enrollPairs(List.of(new EnrollmentPair(firstStudentId, courseId)));
+            assertThat(first.enrolled()).hasSize(1);
+            CompletableFuture<EnrollResult> other = CompletableFuture.supplyAsync(() ->
+                bulkEnrollmentService.enrollPairs(List.of(new EnrollmentPair(secondStudentId, courseId))));
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertThat(other).isNotDone();
+            return other;
+        });
+
+        EnrollResult result = second.get(10, TimeUnit.SECONDS);
+        assertThat(result.enrolled()).isEmpty();
+        assertThat(result.courseFull()).containsExactly(new EnrollmentPair(secondStudentId, courseId));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments WHERE course_id = ? " +
+            "AND student_id IN (?, ?)", Integer.class, courseId, firstStudentId, secondStudentId)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,253 @@
+package com.edunex.edunex_lms;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plans on MySQL for the repository queries against a large dataset
+ * The schema comes from the Flyway migrations. Each query is the SQL Hibernate generates for a repository method,
+ * trimmed to its filter and sort order, and must be served by one of the listed indexes rather than a table scan.
+ * Needs Docker; skipped without it.
+ */
+@SpringBootTest(properties = {
+    "file.upload-dir=target/test-uploads/",
+    "activity.log.retention.archive-dir=target/test-archive/activity-logs"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExplainPlanTests {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.4");
+
+    private static final int INSTRUCTORS = 200;
+    private static final int STUDENTS = 20_000;
+    private static final int COURSES = 500;
+
+    // Ids well clear of the rows DataSeeder creates
+    private static final long INSTRUCTOR_ID = 100_000;
+    private static final long STUDENT_ID = 200_000;
+    private static final long COURSE_ID = 100_000;
+    private static final long ASSIGNMENT_ID = 100_000;
+
+    private static final String DIGIT = "(SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 " +
+            "UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 " +
+            "UNION ALL SELECT 9)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("CREATE TABLE explain_seq (n INT PRIMARY KEY)");
+        jdbcTemplate.execute("INSERT INTO explain_seq (n) SELECT a.d + 10 * b.d + 100 * c.d + 1000 * d.d + 10000 * e.d " +
+                "FROM " + DIGIT + " a, " + DIGIT + " b, " + DIGIT + " c, " + DIGIT + " d, " + DIGIT + " e");
+
+        seed("INSERT INTO users (id, username, email, password, full_name, usn, role, enabled, account_non_locked, " +
+                "created_at, updated_at) " +
+                "SELECT ? + n, CONCAT('load.instructor', n), CONCAT('load.instructor', n, '@edunex.test'), 'x', " +
+                "CONCAT('Instructor ', n), NULL, 'INSTRUCTOR', TRUE, TRUE, NOW(), NOW() FROM explain_seq WHERE n < ?",
+            INSTRUCTOR_ID, INSTRUCTORS);
+        // One student in fifty disabled, sign-ups a minute apart
+        seed("INSERT INTO users (id, username, email, password, full_name, usn, role, enabled, account_non_locked, " +
+                "created_at, updated_at) " +
+                "SELECT ? + n, CONCAT('load.student', n), CONCAT('load.student', n, '@edunex.test'), 'x', " +
+                "CONCAT('Student ', n), CONCAT('LOAD', n), 'STUDENT', n % 50 <> 0, TRUE, " +
+                "TIMESTAMP '2025-01-01 00:00:00' + INTERVAL n MINUTE, NOW() FROM explain_seq WHERE n < ?",
+            STUDENT_ID, STUDENTS);
+        // One course in ten inactive, 25 categories
+        seed("INSERT INTO courses (id, course_code, course_name, category, credits, max_students, is_active, " +
+                "instructor_id, created_at, updated_at) " +
+                "SELECT ? + n, CONCAT('LOAD', n), CONCAT('Course ', n), CONCAT('Category ', n % 25), 3, 300, " +
+                "n % 10 <> 0, ? + n % ?, NOW(), NOW() FROM explain_seq WHERE n < ?",
+            COURSE_ID, INSTRUCTOR_ID, INSTRUCTORS, COURSES);
+        // 200 students per course
+        seed("INSERT INTO enrollments (student_id, course_id, status, progress_percentage, enrolled_at) " +
+                "SELECT ? + n % ?, ? + n DIV 200, " +
+                "CASE n % 20 WHEN 0 THEN 'DROPPED' WHEN 1 THEN 'COMPLETED' ELSE 'ACTIVE' END, n % 101, NOW() " +
+                "FROM explain_seq",
+            STUDENT_ID, STUDENTS, COURSE_ID);
+        // Two sessions per enrollment, spread over two months
+        seed("INSERT INTO attendance (student_id, course_id, attendance_date, status, marked_at) " +
+                "SELECT ? + n % ?, ? + n DIV 200, DATE '2026-01-05' + INTERVAL (s.d * 30 + n % 30) DAY, " +
+                "CASE n % 7 WHEN 0 THEN 'ABSENT' ELSE 'PRESENT' END, NOW() " +
+                "FROM explain_seq, (SELECT 0 d UNION ALL SELECT 1) s",
+            STUDENT_ID, STUDENTS, COURSE_ID);
+        // Every fifth row is an assignment definition, the rest are legacy per-student rows; GRADED is rare
+        seed("INSERT INTO assignments (id, course_id, student_id, title, max_marks, due_date, status, created_at, " +
+                "updated_at) " +
+                "SELECT ? + n, ? + n % ?, CASE WHEN n % 5 = 0 THEN NULL ELSE ? + n % ? END, " +
+                "CONCAT('Assignment ', n DIV ?), 100, TIMESTAMP '2026-01-01 09:00:00' + INTERVAL n % 365 DAY, " +
+                "CASE WHEN n % 5 = 0 THEN 'PENDING' WHEN n % 50 = 1 THEN 'GRADED' WHEN n % 3 = 0 THEN 'SUBMITTED' " +
+                "ELSE 'PENDING' END, NOW(), NOW() FROM explain_seq WHERE n < 50000",
+            ASSIGNMENT_ID, COURSE_ID, COURSES, STUDENT_ID, STUDENTS, COURSES);
+        // Five submissions for each of the 10,000 definitions
+        seed("INSERT INTO submissions (assignment_id, student_id, status, file_size, content_hash, submission_url, " +
+                "submitted_at, created_at, updated_at) " +
+                "SELECT ? + 5 * (n % 10000), ? + (n % 10000 + (n DIV 10000) * 4000) % ?, " +
+                "CASE n % 4 WHEN 0 THEN 'GRADED' ELSE 'SUBMITTED' END, 1024, SHA2(n, 256), " +
+                "CONCAT('submissions/', n), NOW(), NOW(), NOW() FROM explain_seq WHERE n < 50000",
+            ASSIGNMENT_ID, STUDENT_ID, STUDENTS);
+        seed("INSERT INTO course_materials (course_id, title, type, url, uploaded_by, uploaded_at) " +
+                "SELECT ? + n % ?, CONCAT('Lecture ', n), 'LINK', CONCAT('https://example.com/', n), ? + n % ?, " +
+                "TIMESTAMP '2026-01-01 00:00:00' + INTERVAL n MINUTE FROM explain_seq WHERE n < 10000",
+            COURSE_ID, COURSES, INSTRUCTOR_ID, INSTRUCTORS);
+        // One blob in a hundred unreferenced
+        seed("INSERT INTO stored_blobs (sha256, size_bytes, ref_count, created_at, updated_at) " +
+                "SELECT SHA2(n, 256), 1024, n % 100, NOW(), NOW() FROM explain_seq WHERE n < 10000");
+        seed("INSERT INTO activity_logs (user_id, activity_type, description, entity_type, entity_id, created_at) " +
+                "SELECT ? + n % ?, ELT(1 + n % 4, 'LOGIN', 'COURSE_CREATED', 'ENROLLMENT', 'GRADE_POSTED'), " +
+                "'Load test activity', 'COURSE', ? + n % ?, TIMESTAMP '2026-01-01 00:00:00' + INTERVAL n MINUTE " +
+                "FROM explain_seq",
+            STUDENT_ID, STUDENTS, COURSE_ID, COURSES);
+
+        jdbcTemplate.execute("ANALYZE TABLE users, courses, enrollments, attendance, assignments, submissions, " +
+                "course_materials, stored_blobs, activity_logs");
+    }
+
+    @AfterAll
+    void dropSequence() {
+        jdbcTemplate.execute("DROP TABLE explain_seq");
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        assertUses("SELECT id FROM users WHERE role = 'INSTRUCTOR' AND enabled = TRUE",
+            "idx_users_role_enabled");
+        assertUses("SELECT COUNT(*) FROM users WHERE role = 'INSTRUCTOR'",
+            "idx_users_role_enabled");
+        assertUses("SELECT id, username FROM users ORDER BY created_at DESC LIMIT 20",
+            "idx_users_created");
+        assertUses("SELECT id FROM users WHERE username = 'load.student42'",
+            "UKr43af9ap4edm43mmtq01oddj6");
+        assertUses("SELECT id FROM users WHERE usn IN ('LOAD1', 'LOAD2') OR username IN ('LOAD1', 'LOAD2')",
+            "UKca82kn1lfehad9qptyw9dge12,UKr43af9ap4edm43mmtq01oddj6",
+            "UKr43af9ap4edm43mmtq01oddj6,UKca82kn1lfehad9qptyw9dge12");
+    }
+
+    @Test
+    void courseQueriesUseIndexes() {
+        assertUses("SELECT * FROM courses WHERE instructor_id = " + (INSTRUCTOR_ID + 7),
+            "idx_courses_instructor_active");
+        assertUses("SELECT COUNT(*) FROM courses WHERE instructor_id = " + (INSTRUCTOR_ID + 7),
+            "idx_courses_instructor_active");
+        assertUses("SELECT * FROM courses WHERE category = 'Category 3'",
+            "idx_courses_category");
+        assertUses("SELECT * FROM courses WHERE is_active = FALSE AND category = 'Category 3'",
+            "idx_courses_active_category", "idx_courses_category");
+        assertUses("SELECT id FROM courses WHERE course_code = 'LOAD42'",
+            "UKp02ts69sh53ptd62m3c67v0");
+    }
+
+    @Test
+    void enrollmentQueriesUseIndexes() {
+        long courseId = COURSE_ID + 42;
+        assertUses("SELECT * FROM enrollments WHERE course_id = " + courseId + " ORDER BY id",
+            "idx_enrollments_course_status");
+        assertUses("SELECT COUNT(*) FROM enrollments WHERE course_id = " + courseId + " AND status = 'ACTIVE'",
+            "idx_enrollments_course_status");
+        assertUses("SELECT course_id, COUNT(*) FROM enrollments WHERE course_id IN (" + courseId + ", " +
+                (courseId + 1) + ") AND status = 'ACTIVE' GROUP BY course_id",
+            "idx_enrollments_course_status");
+        assertUses("SELECT course_id FROM enrollments WHERE student_id = " + (STUDENT_ID + 42),
+            "UKi0g6mfijtuh199nj653nva6j5");
+        assertUses("SELECT * FROM enrollments WHERE student_id = " + (STUDENT_ID + 42) + " AND course_id = " + courseId,
+            "UKi0g6mfijtuh199nj653nva6j5");
+    }
+
+    @Test
+    void attendanceQueriesUseIndexes() {
+        long courseId = COURSE_ID + 42;
+        assertUses("SELECT * FROM attendance WHERE course_id = " + courseId + " ORDER BY attendance_date DESC, id",
+            "idx_attendance_course_date");
+        assertUses("SELECT * FROM attendance WHERE course_id = " + courseId + " AND attendance_date = '2026-01-10'",
+            "idx_attendance_course_date", "UKmsfrpljs6e1jqct28nnc4mi");
+        assertUses("SELECT COUNT(*) FROM attendance WHERE student_id = " + (STUDENT_ID + 42) + " AND course_id = " +
+                courseId + " AND status = 'PRESENT'",
+            "UKmsfrpljs6e1jqct28nnc4mi");
+    }
+
+    @Test
+    void assignmentQueriesUseIndexes() {
+        long courseId = COURSE_ID + 42;
+        assertUses("SELECT * FROM assignments WHERE student_id = " + (STUDENT_ID + 43),
+            "idx_assignments_student");
+        assertUses("SELECT * FROM assignments ORDER BY due_date, id LIMIT 20",
+            "idx_assignments_due");
+        assertUses("SELECT * FROM assignments WHERE course_id = " + courseId + " AND student_id IS NULL",
+            "idx_assignments_course_due", "idx_assignments_course_title");
+        assertUses("SELECT MIN(id) FROM assignments WHERE course_id = " + courseId + " AND title = 'Assignment 3' " +
+                "AND student_id IS NULL",
+            "idx_assignments_course_title");
+        assertUses("SELECT * FROM assignments WHERE course_id = " + courseId + " AND due_date < '2026-03-01' " +
+                "AND status = 'PENDING'",
+            "idx_assignments_course_due");
+    }
+
+    @Test
+    void submissionQueriesUseIndexes() {
+        long assignmentId = ASSIGNMENT_ID + 5 * 42;
+        assertUses("SELECT * FROM submissions WHERE assignment_id = " + assignmentId + " ORDER BY submitted_at",
+            "uk_submissions_assignment_student", "idx_submissions_assignment_status");
+        assertUses("SELECT * FROM submissions WHERE assignment_id = " + assignmentId + " AND student_id = " +
+                (STUDENT_ID + 42),
+            "uk_submissions_assignment_student");
+        assertUses("SELECT content_hash, submission_url FROM submissions WHERE student_id = " + (STUDENT_ID + 42) +
+                " AND content_hash IS NOT NULL",
+            "idx_submissions_student_status");
+    }
+
+    @Test
+    void materialAndBlobQueriesUseIndexes() {
+        assertUses("SELECT * FROM course_materials WHERE course_id = " + (COURSE_ID + 42) + " ORDER BY uploaded_at DESC",
+            "idx_course_materials_course_uploaded");
+        assertUses("SELECT sha256 FROM stored_blobs WHERE ref_count <= 0",
+            "idx_stored_blobs_ref_count");
+    }
+
+    @Test
+    void activityFeedQueriesUseIndexes() {
+        String before = "(created_at < '2026-02-01' OR (created_at = '2026-02-01' AND id < 99999999))";
+        String newestFirst = " ORDER BY created_at DESC, id DESC LIMIT 20";
+        assertUses("SELECT * FROM activity_logs WHERE " + before + newestFirst,
+            "idx_activity_logs_created");
+        assertUses("SELECT * FROM activity_logs WHERE activity_type = 'LOGIN' AND " + before + newestFirst,
+            "idx_activity_logs_type_created");
+        assertUses("SELECT * FROM activity_logs WHERE user_id = " + (STUDENT_ID + 42) + " AND " + before + newestFirst,
+            "idx_activity_logs_user_created");
+        assertUses("SELECT * FROM activity_logs WHERE entity_type = 'COURSE' AND entity_id = " + (COURSE_ID + 42) +
+                " AND " + before + newestFirst,
+            "idx_activity_logs_entity_created");
+    }
+
+    private void seed(String sql, Object... args) {
+        jdbcTemplate.update(sql, args);
+    }
+
+    /**
+     * Check that MySQL reads the table through one of the given indexes
+     * A key of "a,b" is an index merge of both.
+     */
+    private void assertUses(String sql, String... indexes) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+        assertThat(plan).as("plan for %s", sql).hasSize(1);
+        Map<String, Object> row = plan.get(0);
+        assertThat(row.get("type")).as("access type for %s", sql).isNotEqualTo("ALL");
+        assertThat(row.get("key")).as("index for %s (plan %s)", sql, row).isIn((Object[]) indexes);
+    }
+}
@@ -0,0 +1,165 @@
+package com.edunex.edunex_lms;
+
+import com.edunex.edunex_lms.repository.AssignmentRepository;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional and range requests on submission downloads
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FileDownloadTests {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    private String studentToken;
+    private String downloadPath;
+
+    @BeforeEach
+    void submitFile() throws Exception {
+        Long courseId = courseRepository.findByCourseCode("WEB301").orElseThrow().getId();
+        Long assignmentId = assignmentRepository.findByCourseId(courseId).stream()
+            .filter(assignment -> assignment.getTitle().equals("REST API Development"))
+            .findFirst().orElseThrow().getId();
+
+        studentToken = login("NNM23CS001");
+        String response = mockMvc.perform(post("/api/assignments/" + assignmentId + "/submit")
+                .param("fileName", "report.txt")
+                .header("Authorization", "Bearer " + studentToken)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(CONTENT.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        downloadPath = "/api/assignments/submissions/" + objectMapper.readTree(response).get("id").asText() + "/download";
+    }
+
+    @Test
+    void wholeFileIsServed() throws Exception {
+        mockMvc.perform(download(studentToken))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+            .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void matchingEntityTagIsNotModified() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(download(studentToken).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        mockMvc.perform(download(studentToken).header(HttpHeaders.RANGE, "bytes=5-9"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/" + CONTENT.length()))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5))
+            .andExpect(content().string("56789"));
+        mockMvc.perform(download(studentToken).header(HttpHeaders.RANGE, "bytes=-4"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 16-19/" + CONTENT.length()))
+            .andExpect(content().string("ghij"));
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(download(studentToken).header(HttpHeaders.RANGE, "bytes=100-200"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + CONTENT.length()));
+    }
+
+    @Test
+    void rangeIsServedOnlyWhileIfRangeMatches() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(download(studentToken).header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, etag))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("0123"));
+        mockMvc.perform(download(studentToken).header(HttpHeaders.RANGE, "bytes=0-3")
+                .header(HttpHeaders.IF_RANGE, "\"stale\""))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andExpect(content().string(CONTENT));
+        String staleDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusDays(1));
+        mockMvc.perform(download(studentToken).header(HttpHeaders.RANGE, "bytes=0-3")
+                .header(HttpHeaders.IF_RANGE, staleDate))
+            .andExpect(status().isOk())
+            .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void severalRangesGetTheWholeFile() throws Exception {
+        mockMvc.perform(download(studentToken).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void otherStudentsSubmissionIsForbidden() throws Exception {
+        mockMvc.perform(download(login("NNM23CS002")))
+            .andExpect(status().isForbidden());
+    }
+
+    private MockHttpServletRequestBuilder download(String token) {
+        return get(downloadPath).header("Authorization", "Bearer " + token);
+    }
+
+    private String etag() throws Exception {
+        return mockMvc.perform(download(studentToken))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String login(String username) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", "password123"));
+        String response = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
@@ -0,0 +1,65 @@
+package com.edunex.edunex_lms;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Upgrade of a database created by ddl-auto=update before migrations were introduced
+ * The database starts with the baseline tables and no schema history; Flyway baselines it at V1, applies every
+ * later migration, and Hibernate then validates the entities against the result.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;" +
+        "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class FlywayBaselineTests {
+
+    @TestConfiguration
+    static class LegacyDatabase {
+
+        @Bean
+        FlywayMigrationStrategy legacySchemaThenMigrate(DataSource dataSource) {
+            return flyway -> {
+                new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql"))
+                    .execute(dataSource);
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void existingDatabaseIsBaselinedAndUpgraded() {
+        assertThat(flyway.info().applied())
+            .extracting(info -> info.getVersion().getVersion(), MigrationInfo::getState)
+            .containsExactly(
+                tuple("1", MigrationState.BASELINE),
+                tuple("2", MigrationState.SUCCESS),
+                tuple("3", MigrationState.SUCCESS),
+                tuple("4", MigrationState.SUCCESS),
+                tuple("5", MigrationState.SUCCESS));
+        // Tables the baseline did not have, filled in at startup from the existing rows
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_summary", Long.class)).isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM submissions", Long.class)).isPositive();
+    }
+}
@@ -0,0 +1,259 @@
+package com.edunex.edunex_lms;
+
+import com.edunex.edunex_lms.entity.Course;
+import com.edunex.edunex_lms.entity.CourseMaterial;
+import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.repository.CourseMaterialRepository;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Number of SQL statements per endpoint against the seeded data
+ * Lists of entities are loaded with the associations their views need in the same query, so the counts do not
+ * grow with the number of rows and nothing is loaded lazily while the response is written.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseMaterialRepository courseMaterialRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void studentEnrollmentsLoadCoursesAndInstructors() throws Exception {
+        String token = login("NNM23CS001");
+
+        assertQueries(2, token, "/api/enrollments/my-enrollments",
+            jsonPath("$[0].course.courseName").exists(),
+            jsonPath("$[0].course.instructor.fullName").exists());
+    }
+
+    @Test
+    void courseRosterLoadsStudents() throws Exception {
+        String token = login("john.doe");
+        Long courseId = course("CS101").getId();
+
+        assertQueries(1, token, "/api/enrollments/course/" + courseId,
+            jsonPath("$.length()").value(25),
+            jsonPath("$[0].student.fullName").exists());
+        assertQueries(2, login("admin"), "/api/admin/enrollments/course/" + courseId,
+            jsonPath("$[0].student.fullName").exists());
+    }
+
+    @Test
+    void courseAttendanceLoadsStudents() throws Exception {
+        String token = login("john.doe");
+        Long courseId = course("CS101").getId();
+
+        assertQueries(1, token, "/api/attendance/course/" + courseId,
+            jsonPath("$.length()").value(375),
+            jsonPath("$[0].student.fullName").exists(),
+            jsonPath("$[0].course.courseName").exists());
+    }
+
+    @Test
+    void studentAttendanceLoadsCourses() throws Exception {
+        String token = login("NNM23CS001");
+        Long studentId = user("NNM23CS001").getId();
+
+        assertQueries(1, token, "/api/attendance/student/" + studentId,
+            jsonPath("$[0].course.courseName").exists());
+        assertQueries(4, token, "/api/attendance/my-attendance",
+            jsonPath("$.attendance[0].course.courseName").exists());
+    }
+
+    @Test
+    void instructorAssignmentsLoadCourses() throws Exception {
+        String token = login("john.doe");
+        Long instructorId = user("john.doe").getId();
+
+        assertQueries(2, token, "/api/assignments/instructor/" + instructorId,
+            jsonPath("$.length()").value(6),
+            jsonPath("$[0].course.courseName").exists(),
+            jsonPath("$[0].student").doesNotExist(),
+            jsonPath("$[0].status").doesNotExist());
+    }
+
+    @Test
+    void studentAssignmentListJoinsOwnSubmissions() throws Exception {
+        String graded = "$.content[?(@.courseCode == 'CS101' && @.title == 'Control Structures')]";
+
+        assertQueries(2, login("NNM23CS001"), "/api/assignments/my-assignments/list?size=100",
+            jsonPath(graded + ".status").value("GRADED"),
+            jsonPath(graded + ".submissionId").isNotEmpty(),
+            jsonPath(graded + ".marksObtained").isNotEmpty());
+        assertQueries(2, login("NNM23CS020"), "/api/assignments/my-assignments/list?size=100",
+            jsonPath(graded + ".status").value("PENDING"),
+            jsonPath(graded + ".submissionId").value(contains(nullValue())));
+    }
+
+    @Test
+    void courseSubmissionsLoadStudents() throws Exception {
+        String token = login("john.doe");
+        Long courseId = course("CS101").getId();
+
+        assertQueries(1, token, "/api/assignments/course/" + courseId + "/submissions?title=Control Structures",
+            jsonPath("$.length()").value(3),
+            jsonPath("$[0].student.fullName").exists());
+    }
+
+    @Test
+    void courseMaterialsLoadCourseAndUploader() throws Exception {
+        Course course = course("CS201");
+        for (int i = 0; i < 3; i++) {
+            CourseMaterial material = new CourseMaterial();
+            material.setTitle("Lecture " + i);
+            material.setType(CourseMaterial.MaterialType.LINK);
+            material.setUrl("https://example.com/lecture" + i);
+            material.setCourse(course);
+            material.setUploadedBy(user("john.doe"));
+            courseMaterialRepository.save(material);
+        }
+
+        assertQueries(1, login("john.doe"), "/api/materials/course/" + course.getId(),
+            jsonPath("$.length()").value(3),
+            jsonPath("$[0].course.courseName").exists(),
+            jsonPath("$[0].uploadedBy.fullName").exists(),
+            jsonPath("$[0].uploadedBy.password").doesNotExist());
+    }
+
+    @Test
+    void courseListsLoadInstructors() throws Exception {
+        String token = login("admin");
+        Long instructorId = user("john.doe").getId();
+
+        assertQueries(2, token, "/api/admin/courses",
+            jsonPath("$[0].instructor.fullName").exists());
+        assertQueries(2, token, "/api/courses/instructor/" + instructorId,
+            jsonPath("$.length()").value(2),
+            jsonPath("$[0].instructor.fullName").exists());
+        assertQueries(1, token, "/api/courses",
+            jsonPath("$.length()").value(8),
+            jsonPath("$[0].maxStudents").exists(),
+            jsonPath("$[0].instructor.fullName").exists(),
+            jsonPath("$[0].instructor.tokensValidAfter").doesNotExist());
+        // Served from the catalogue cache the second time
+        assertQueries(0, token, "/api/courses",
+            jsonPath("$.length()").value(8));
+    }
+
+    @Test
+    void userListIsStreamedFromOneQuery() throws Exception {
+        String token = login("admin");
+
+        assertQueries(1, token, "/api/admin/users",
+            jsonPath("$.length()").value(35),
+            jsonPath("$[0].username").value("admin"),
+            jsonPath("$[0].isActive").value(true),
+            jsonPath("$[0].password").doesNotExist());
+        assertQueries(1, token, "/api/admin/users/role/instructor",
+            jsonPath("$.length()").value(4));
+    }
+
+    @Test
+    void exportsAreStreamedFromOneQuery() throws Exception {
+        String token = login("john.doe");
+        Long courseId = course("CS101").getId();
+
+        // The course lookup for the file name, then the rows
+        assertQueries(2, token, "/api/attendance/course/" + courseId + "/export?format=csv",
+            content().contentType("text/csv"),
+            header().string("Content-Disposition", "attachment; filename=\"CS101-attendance.csv\""),
+            result -> assertThat(result.getResponse().getContentAsString().lines())
+                .hasSize(376)
+                .first().isEqualTo("Date,USN,Student,Status,Remarks,Marked At"));
+        assertQueries(2, token, "/api/enrollments/course/" + courseId + "/export?format=xlsx",
+            content().contentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+            result -> assertThat(result.getResponse().getContentAsByteArray()).startsWith('P', 'K'));
+        assertQueries(2, token, "/api/assignments/course/" + courseId + "/gradebook/export?format=pdf",
+            content().contentType("application/pdf"),
+            result -> assertThat(result.getResponse().getContentAsByteArray()).startsWith('%', 'P', 'D', 'F'));
+    }
+
+    /**
+     * Call an endpoint and check the number of statements it ran, and that no association was loaded on its own
+     */
+    private void assertQueries(long expected, String token, String path, ResultMatcher... matchers) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpectAll(matchers);
+
+        assertThat(statistics.getEntityFetchCount()).as("entities fetched lazily by %s", path).isZero();
+        assertThat(statistics.getCollectionFetchCount()).as("collections fetched lazily by %s", path).isZero();
+        assertThat(statistics.getPrepareStatementCount()).as("statements run by %s", path).isEqualTo(expected);
+    }
+
+    private String login(String username) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", "password123"));
+        String response = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(response);
+        return json.get("token").asText();
+    }
+
+    private Course course(String courseCode) {
+        return courseRepository.findByCourseCode(courseCode).orElseThrow();
+    }
+
+    private User user(String username) {
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+}
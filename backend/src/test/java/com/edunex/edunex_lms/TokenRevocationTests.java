@@ -0,0 +1,94 @@
+package com.edunex.edunex_lms;
+
+import com.edunex.edunex_lms.entity.User;
+import com.edunex.edunex_lms.repository.UserRepository;
+import com.edunex.edunex_lms.security.JwtUtils;
+import com.edunex.edunex_lms.security.UserRevocationRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tokens issued before a user's role changed are rejected, including after a restart
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenRevocationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void demotedInstructorTokenStaysRevokedAfterRestart() throws Exception {
+        User instructor = userRepository.findByUsername("sarah.johnson").orElseThrow();
+        String token = login("sarah.johnson");
+        Date issuedAt = jwtUtils.getValidatedClaims(token).getIssuedAt();
+        mockMvc.perform(get("/api/courses").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+
+        String admin = login("admin");
+        updateRole(admin, instructor.getId(), "STUDENT");
+        try {
+            mockMvc.perform(get("/api/courses").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+            // A registry built from the database, as on startup, still rejects the token
+            UserRevocationRegistry restarted = new UserRevocationRegistry(userRepository);
+            ReflectionTestUtils.setField(restarted, "jwtExpirationMs", 86400000L);
+            restarted.loadRevocations();
+            assertThat(restarted.isRevoked(instructor.getId(), issuedAt)).isTrue();
+
+            // Including a token issued in the same second as the revocation
+            Date cutoff = Date.from(userRepository.findById(instructor.getId()).orElseThrow()
+                .getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant());
+            assertThat(restarted.isRevoked(instructor.getId(), cutoff)).isTrue();
+            assertThat(restarted.isRevoked(instructor.getId(), new Date(cutoff.getTime() + 1000))).isFalse();
+        } finally {
+            updateRole(admin, instructor.getId(), "INSTRUCTOR");
+        }
+    }
+
+    private void updateRole(String adminToken, Long userId, String role) throws Exception {
+        mockMvc.perform(put("/api/admin/users/" + userId)
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("role", role))))
+            .andExpect(status().isOk());
+    }
+
+    private String login(String username) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", "password123"));
+        String response = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
@@ -0,0 +1,114 @@
+package com.edunex.edunex_lms.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expiry, size bound and keying of the verified claims cache
+ */
+class JwtClaimsCacheTests {
+
+    @Test
+    void claimsAreServedUntilTheTokenExpires() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        Claims live = claimsExpiringIn(60_000);
+        Claims expired = claimsExpiringIn(-1_000);
+
+        cache.put("live", live);
+        cache.put("expired", expired);
+
+        assertThat(cache.get("live")).isSameAs(live);
+        assertThat(cache.get("expired")).isNull();
+        // The expired entry is dropped on lookup
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void claimsWithoutExpirationAreNotCached() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+
+        cache.put("token", Jwts.claims().setSubject("NNM23CS001"));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void sizeStaysWithinTheBound() {
+        JwtClaimsCache cache = new JwtClaimsCache(3);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("token" + i, claimsExpiringIn(60_000));
+            assertThat(cache.size()).isLessThanOrEqualTo(3);
+        }
+        // The newest entry always makes it in
+        assertThat(cache.get("token9")).isNotNull();
+    }
+
+    @Test
+    void expiredEntriesAreEvictedBeforeLiveOnes() {
+        JwtClaimsCache cache = new JwtClaimsCache(2);
+        cache.put("expired", claimsExpiringIn(-1_000));
+        cache.put("live", claimsExpiringIn(60_000));
+
+        cache.put("new", claimsExpiringIn(60_000));
+
+        assertThat(cache.get("live")).isNotNull();
+        assertThat(cache.get("new")).isNotNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        JwtClaimsCache cache = new JwtClaimsCache(0);
+
+        cache.put("token", claimsExpiringIn(60_000));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void tamperedTokenIsNotServedFromTheCache() {
+        JwtUtils jwtUtils = JwtFixtures.jwtUtils(100);
+        String token = JwtFixtures.token(jwtUtils, 42L, "NNM23CS001", "ROLE_STUDENT");
+        assertThat(jwtUtils.getValidatedClaims(token)).isNotNull();
+
+        // Same signature, payload rewritten to claim the admin role
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+            .replace("ROLE_STUDENT", "ROLE_ADMIN");
+        String forged = parts[0] + "." +
+            Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8)) +
+            "." + parts[2];
+
+        assertThat(jwtUtils.getValidatedClaims(forged)).isNull();
+        assertThat(jwtUtils.getValidatedClaims(token).get("role")).isEqualTo("ROLE_STUDENT");
+    }
+
+    @Test
+    void tokenWithAnotherSignatureIsRejected() {
+        JwtUtils jwtUtils = JwtFixtures.jwtUtils(100);
+        String token = JwtFixtures.token(jwtUtils, 42L, "NNM23CS001", "ROLE_STUDENT");
+        assertThat(jwtUtils.getValidatedClaims(token)).isNotNull();
+
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        char last = signature.charAt(0) == 'A' ? 'B' : 'A';
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + last + signature.substring(1);
+
+        assertThat(jwtUtils.getValidatedClaims(forged)).isNull();
+    }
+
+    private static Claims claimsExpiringIn(long millis) {
+        return Jwts.claims()
+            .setSubject("NNM23CS001")
+            .setExpiration(new Date(System.currentTimeMillis() + millis));
+    }
+}
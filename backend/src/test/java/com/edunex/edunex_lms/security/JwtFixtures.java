@@ -0,0 +1,36 @@
+package com.edunex.edunex_lms.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+/**
+ * JwtUtils configured as in application.properties, without a Spring context
+ */
+final class JwtFixtures {
+
+    static final String SECRET = "EduNexSecretKeyForJWTTokenGeneration2024VerySecureAndLongKeyForHS512Algorithm";
+
+    private JwtFixtures() {
+    }
+
+    static JwtUtils jwtUtils(int claimsCacheMaxEntries) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtils, "jwtIssuer", "EduNex-LMS");
+        ReflectionTestUtils.setField(jwtUtils, "jwtAudience", "EduNex-Users");
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheMaxEntries", claimsCacheMaxEntries);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    static String token(JwtUtils jwtUtils, long userId, String username, String role) {
+        UserDetailsImpl principal = new UserDetailsImpl(userId, username, null, null, null,
+            List.of(new SimpleGrantedAuthority(role)), true, true);
+        return jwtUtils.generateJwtToken(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.repository.ActivityLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The background writer keeps running and retries its batch while the database cannot be reached
+ */
+class ActivityLogWriterTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ActivityLogService activityLogService;
+
+    @BeforeEach
+    void setUp() {
+        ActivityLogRepository activityLogRepository = mock(ActivityLogRepository.class);
+        when(activityLogRepository.findFeed(any(), any(), any())).thenReturn(List.of());
+        RecentActivityBuffer recentActivity = new RecentActivityBuffer();
+        ReflectionTestUtils.setField(recentActivity, "requestedCapacity", 16);
+        recentActivity.init();
+
+        activityLogService = new ActivityLogService(activityLogRepository, jdbcTemplate, transactionManager,
+            recentActivity);
+        ReflectionTestUtils.setField(activityLogService, "queueCapacity", 100);
+        ReflectionTestUtils.setField(activityLogService, "batchSize", 10);
+        ReflectionTestUtils.setField(activityLogService, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(activityLogService, "overflowPolicy", ActivityLogService.OverflowPolicy.CALLER_RUNS);
+        ReflectionTestUtils.setField(activityLogService, "shutdownTimeoutMs", 1000L);
+        activityLogService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        activityLogService.shutdown();
+    }
+
+    @Test
+    void writerRetriesUntilTheDatabaseIsBack() {
+        when(transactionManager.getTransaction(any()))
+            .thenThrow(new CannotCreateTransactionException("Connection refused"))
+            .thenThrow(new CannotCreateTransactionException("Connection refused"))
+            .thenReturn(new SimpleTransactionStatus());
+
+        activityLogService.logActivity("USER_LOGIN", "Logged in");
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(any(PreparedStatementCreator.class),
+            any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        verify(transactionManager, times(3)).getTransaction(any());
+
+        // The writer is still there for the next entries
+        activityLogService.logActivity("USER_LOGOUT", "Logged out");
+        verify(jdbcTemplate, timeout(5000).times(2)).batchUpdate(any(PreparedStatementCreator.class),
+            any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        assertThat(activityLogService.getDroppedCount()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.repository.AssignmentRepository;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import com.edunex.edunex_lms.repository.EnrollmentRepository;
+import com.edunex.edunex_lms.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Writes invalidate the cached counters only once they are committed
+ */
+class AdminStatsServiceTests {
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private AdminStatsService adminStatsService;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.countGroupedByRoleAndEnabled()).thenReturn(List.of());
+        adminStatsService = new AdminStatsService(userRepository, courseRepository, mock(EnrollmentRepository.class),
+            mock(AssignmentRepository.class));
+        ReflectionTestUtils.setField(adminStatsService, "ttlMs", 60000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidateOutsideATransactionTakesEffectRightAway() {
+        when(courseRepository.count()).thenReturn(8L);
+        assertThat(adminStatsService.getSnapshot().totalCourses()).isEqualTo(8);
+
+        when(courseRepository.count()).thenReturn(9L);
+        adminStatsService.invalidate();
+
+        assertThat(adminStatsService.getSnapshot().totalCourses()).isEqualTo(9);
+    }
+
+    @Test
+    void invalidateInsideATransactionWaitsForTheCommit() {
+        when(courseRepository.count()).thenReturn(8L);
+        assertThat(adminStatsService.getSnapshot().totalCourses()).isEqualTo(8);
+
+        TransactionSynchronizationManager.initSynchronization();
+        adminStatsService.invalidate();
+        // A refresh before the commit would still count the old rows, so the snapshot is kept
+        when(courseRepository.count()).thenReturn(9L);
+        assertThat(adminStatsService.getSnapshot().totalCourses()).isEqualTo(8);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(adminStatsService.getSnapshot().totalCourses()).isEqualTo(9);
+    }
+}
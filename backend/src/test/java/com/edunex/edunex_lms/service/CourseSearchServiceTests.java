@@ -0,0 +1,168 @@
+package com.edunex.edunex_lms.service;
+
+import com.edunex.edunex_lms.dto.CourseSearchHit;
+import com.edunex.edunex_lms.entity.Course;
+import com.edunex.edunex_lms.repository.CourseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Matching, ranking and index updates of the course search over a small fixed catalogue
+ */
+class CourseSearchServiceTests {
+
+    private CourseSearchService courseSearchService;
+
+    @BeforeEach
+    void setUp() {
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        when(courseRepository.findSearchHits()).thenReturn(List.of(
+            new CourseSearchHit(1L, "CS101", "Introduction to Programming", "Programming",
+                "Learn programming fundamentals using Java.", 4, true),
+            new CourseSearchHit(2L, "CS201", "Data Structures and Algorithms", "Computer Science",
+                "Linked lists, trees and graphs.", 4, true),
+            new CourseSearchHit(3L, "DB401", "Database Management Systems", "Database",
+                "Design, SQL and transactions.", 3, true),
+            new CourseSearchHit(4L, "FR110", "Français pour débutants", "Languages",
+                "Grammaire et expression écrite.", 2, true),
+            new CourseSearchHit(5L, "CS150", "Problem Solving Lab", "Programming",
+                "Practice with classic algorithms.", 2, false)));
+        courseSearchService = new CourseSearchService(courseRepository);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void prefixMatchesIndexedTerms() {
+        assertThat(ids("algo")).containsExactlyInAnyOrder(2L, 5L);
+        assertThat(ids("databa")).containsExactly(3L);
+        assertThat(ids("db4")).containsExactly(3L);
+    }
+
+    @Test
+    void oneTypoStillMatches() {
+        assertThat(ids("databse")).containsExactly(3L);
+        assertThat(ids("databasse")).containsExactly(3L);
+        assertThat(ids("managment")).containsExactly(3L);
+        assertThat(ids("structurez")).containsExactly(2L);
+        // Short terms are only matched exactly or by prefix
+        assertThat(ids("jva")).isEmpty();
+    }
+
+    @Test
+    void transposedLettersStillMatch() {
+        assertThat(ids("sturctures")).containsExactly(2L);
+        assertThat(ids("programmign")).containsExactlyInAnyOrder(1L, 5L);
+    }
+
+    @Test
+    void accentsAreIgnored() {
+        assertThat(ids("francais debutants")).containsExactly(4L);
+        assertThat(ids("ÉCRITE")).containsExactly(4L);
+        assertThat(ids("Français")).containsExactly(4L);
+    }
+
+    @Test
+    void everyTermHasToMatch() {
+        // "data" alone also finds the database course
+        assertThat(ids("data")).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(ids("data algorithms")).containsExactly(2L);
+        assertThat(ids("data java")).isEmpty();
+    }
+
+    @Test
+    void strongerMatchesRankFirst() {
+        // A name outranks a category, which outranks a description
+        assertThat(ids("programming")).containsExactly(1L, 5L);
+        assertThat(ids("algorithms")).containsExactly(2L, 5L);
+        // An exact code match outranks a prefix of a longer term
+        assertThat(courseSearchService.search("cs101", false, 0, 10).getContent().get(0).getScore())
+            .isGreaterThan(courseSearchService.search("cs10", false, 0, 10).getContent().get(0).getScore());
+    }
+
+    @Test
+    void inactiveCoursesCanBeLeftOut() {
+        assertThat(courseSearchService.search("algorithms", true, 0, 10).getContent())
+            .extracting(CourseSearchHit::getId).containsExactly(2L);
+    }
+
+    @Test
+    void resultsArePaged() {
+        assertThat(courseSearchService.search("cs", false, 0, 2).getContent()).hasSize(2);
+        assertThat(courseSearchService.search("cs", false, 1, 2).getContent()).hasSize(1);
+        assertThat(courseSearchService.search("cs", false, 0, 2).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void changesAreIndexedOnceCommitted() {
+        ids("warm up");
+        TransactionSynchronizationManager.initSynchronization();
+        courseSearchService.indexAfterCommit(course(6L, "ML501", "Machine Learning"));
+        courseSearchService.removeAfterCommit(3L);
+
+        // Not visible before the commit
+        assertThat(ids("machine")).isEmpty();
+        assertThat(ids("database")).containsExactly(3L);
+
+        commit();
+        assertThat(ids("machine")).containsExactly(6L);
+        assertThat(ids("ml501")).containsExactly(6L);
+        assertThat(ids("database")).isEmpty();
+        assertThat(ids("databa")).isEmpty();
+    }
+
+    @Test
+    void updatedCourseReplacesItsOldTerms() {
+        ids("warm up");
+        courseSearchService.indexAfterCommit(course(2L, "CS201", "Advanced Data Structures"));
+
+        assertThat(ids("advanced")).containsExactly(2L);
+        assertThat(ids("algorithms")).containsExactly(5L);
+    }
+
+    @Test
+    void rolledBackChangesAreNotIndexed() {
+        ids("warm up");
+        TransactionSynchronizationManager.initSynchronization();
+        courseSearchService.indexAfterCommit(course(6L, "ML501", "Machine Learning"));
+
+        // Rolled back: the synchronizations are dropped without afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(ids("machine")).isEmpty();
+    }
+
+    private List<Long> ids(String query) {
+        return courseSearchService.search(query, false, 0, 20).getContent().stream()
+            .map(CourseSearchHit::getId)
+            .toList();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Course course(Long id, String code, String name) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCourseCode(code);
+        course.setCourseName(name);
+        course.setCategory("Computer Science");
+        return course;
+    }
+}
@@ -157,7 +157,7 @@ export default function StudentAssignments() {
                 return (
                   <TableRow key={assignment.id}>
                     <TableCell className="font-medium">{assignment.title}</TableCell>
-                    <TableCell>{assignment.courseName || assignment.course.courseName}</TableCell>
+                    <TableCell>{assignment.courseName || assignment.course?.courseName}</TableCell>
                     <TableCell>{new Date(assignment.dueDate).toLocaleDateString()}</TableCell>
                     <TableCell>
                       <Badge variant={status.variant} className="flex items-center gap-1 w-fit">
@@ -214,7 +214,7 @@ export default function StudentAssignments() {
           <div className="space-y-4">
             <div>
               <div className="mb-4 p-4 bg-muted rounded-lg">
-                <p className="text-sm font-medium">Course: {selectedAssignment?.courseName || selectedAssignment?.course.courseName}</p>
+                <p className="text-sm font-medium">Course: {selectedAssignment?.courseName || selectedAssignment?.course?.courseName}</p>
                 <p className="text-sm text-muted-foreground">Due: {selectedAssignment && new Date(selectedAssignment.dueDate).toLocaleString()}</p>
                 <p className="text-sm text-muted-foreground">Max Marks: {selectedAssignment?.maxMarks}</p>
               </div>
@@ -259,7 +259,7 @@ export default function StudentAssignments() {
 
             <div>
               <Label>Course</Label>
-              <p className="text-sm">{selectedAssignment?.courseName || selectedAssignment?.course.courseName}</p>
+              <p className="text-sm">{selectedAssignment?.courseName || selectedAssignment?.course?.courseName}</p>
             </div>
 
             <div>
@@ -47,9 +47,9 @@ const StudentDashboard = () => {
   }, [user, fetchDashboardData]);
 
   // Calculate stats
-  const pendingAssignments = assignments.filter(
-    (a) => a.submissionStatus === 'PENDING' || !a.submissionStatus
-  ).length;
+  const isPending = (a: any) => a.status === 'PENDING' || a.status === 'OVERDUE';
+
+  const pendingAssignments = assignments.filter(isPending).length;
 
   const upcomingQuizzes = 0; // Placeholder - would need quiz API
 
@@ -154,11 +154,11 @@ const StudentDashboard = () => {
                     <div>
                       <p className="font-medium">{assignment.title || 'Untitled Assignment'}</p>
                       <p className="text-sm text-muted-foreground">
-                        {assignment.course?.courseCode || 'N/A'}
+                        {assignment.courseCode || 'N/A'}
                       </p>
                     </div>
                     <div className="text-right">
-                      <Badge variant={assignment.submissionStatus === 'PENDING' ? 'destructive' : 'default'}>
+                      <Badge variant={isPending(assignment) ? 'destructive' : 'default'}>
                         {assignment.dueDate
                           ? new Date(assignment.dueDate).toLocaleDateString()
                           : 'No due date'}
@@ -176,12 +176,12 @@ const StudentDashboard = () => {
             <CardTitle>Recent Grades</CardTitle>
           </CardHeader>
           <CardContent>
-            {assignments.filter((a: any) => a.marks !== null && a.marks !== undefined).length === 0 ? (
+            {assignments.filter((a: any) => a.marksObtained !== null && a.marksObtained !== undefined).length === 0 ? (
               <p className="text-center text-muted-foreground py-8">No grades available yet</p>
             ) : (
               <div className="space-y-4">
                 {assignments
-                  .filter((a: any) => a.marks !== null && a.marks !== undefined)
+                  .filter((a: any) => a.marksObtained !== null && a.marksObtained !== undefined)
                   .slice(0, 5)
                   .map((assignment: any) => (
                     <div
@@ -191,15 +191,15 @@ const StudentDashboard = () => {
                       <div>
                         <p className="font-medium">{assignment.title || 'Untitled'}</p>
                         <p className="text-sm text-muted-foreground">
-                          {assignment.course?.courseCode || 'N/A'}
+                          {assignment.courseCode || 'N/A'}
                         </p>
                       </div>
                       <div className="text-right">
                         <p className="text-lg font-bold text-primary">
-                          {assignment.marks || 0}/{assignment.maxMarks || 100}
+                          {assignment.marksObtained || 0}/{assignment.maxMarks || 100}
                         </p>
                         <p className="text-xs text-muted-foreground">
-                          {Math.round(((assignment.marks || 0) / (assignment.maxMarks || 100)) * 100)}%
+                          {Math.round(((assignment.marksObtained || 0) / (assignment.maxMarks || 100)) * 100)}%
                         </p>
                       </div>
                     </div>